@@ -0,0 +1,18 @@
+package com.company.projects.benchmarks;
+
+import com.company.projects.benchmarks.model.Api;
+
+/**
+ * The services the benchmarks scan and wire. Unlike the example application, they print nothing
+ * when created, so the benchmarks measure the container rather than the console.
+ */
+final class Model {
+
+    /**
+     * The name the scanner is given, a class whose package is scanned
+     */
+    static final String PACKAGE = Api.class.getName();
+
+    private Model() {
+    }
+}
@@ -0,0 +1,94 @@
+package com.company.projects.benchmarks;
+
+import com.company.projects.application.BeanDescriptor;
+import com.company.projects.application.Reflector;
+import com.company.projects.application.WiringPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Service collection, descriptor mapping and wiring of the benchmark model, each phase on its own.
+ * Descriptors are memoized per {@link Reflector}, so mapping is measured both through a reused
+ * reflector and through a new one, which computes every descriptor again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReflectorBenchmark {
+
+    private Reflector reflector;
+    private List<Class<?>> classes;
+    private List<Class<?>> services;
+    private List<BeanDescriptor> descriptors;
+    private WiringPlan plan;
+
+    @Setup
+    public void setUp() {
+        reflector = new Reflector();
+        classes = reflector.getApplicationClasses(reflector.getAppPackages(Model.PACKAGE));
+        services = reflector.collectServices(classes);
+        descriptors = services.stream()
+                .map(service -> reflector.mapDependencies(service))
+                .collect(Collectors.toList());
+        plan = reflector.planWiring(descriptors);
+    }
+
+    @Benchmark
+    public void collectServices(Blackhole blackhole) {
+        blackhole.consume(reflector.collectServices(classes));
+    }
+
+    @Benchmark
+    public void mapDependencies(Blackhole blackhole) {
+        for (Class<?> service : services) {
+            blackhole.consume(reflector.mapDependencies(service));
+        }
+    }
+
+    @Benchmark
+    public void mapDependenciesUncached(Blackhole blackhole) {
+        Reflector uncached = new Reflector();
+        for (Class<?> service : services) {
+            blackhole.consume(uncached.mapDependencies(service));
+        }
+    }
+
+    @Benchmark
+    public void collectAllDependencies(Blackhole blackhole) {
+        for (BeanDescriptor descriptor : descriptors) {
+            blackhole.consume(descriptor.collectAllDependencies());
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> wireBeans() {
+        Map<String, Object> beanInstances = new HashMap<>();
+        reflector.wireBeans(descriptors, beanInstances);
+        return beanInstances;
+    }
+
+    @Benchmark
+    public Map<String, Object> executePlan() {
+        Map<String, Object> beanInstances = new HashMap<>();
+        plan.execute(beanInstances);
+        return beanInstances;
+    }
+}
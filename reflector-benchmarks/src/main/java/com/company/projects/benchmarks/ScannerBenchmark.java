@@ -0,0 +1,70 @@
+package com.company.projects.benchmarks;
+
+import com.company.projects.application.ParallelProjectScanner;
+import com.company.projects.application.ProjectScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class path scanning of the benchmark model. Every invocation gets a new scanner, created and closed
+ * outside of the measurement, so nothing a scanner keeps from a previous scan is measured, and the
+ * parallel scanner is measured without the start of its pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScannerBenchmark {
+
+    @Param({"sequential", "parallel"})
+    public String scanner;
+
+    private ProjectScanner projectScanner;
+    private List<File> packages;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        try (ProjectScanner packageScanner = new ProjectScanner()) {
+            packages = packageScanner.getPackages(Model.PACKAGE);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createScanner() {
+        projectScanner = "parallel".equals(scanner) ? new ParallelProjectScanner() : new ProjectScanner();
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeScanner() {
+        projectScanner.close();
+    }
+
+    @Benchmark
+    public void getPackages(Blackhole blackhole) throws IOException {
+        blackhole.consume(projectScanner.getPackages(Model.PACKAGE));
+    }
+
+    @Benchmark
+    public void getClasses(Blackhole blackhole) throws ClassNotFoundException {
+        blackhole.consume(projectScanner.getClasses(packages));
+    }
+}
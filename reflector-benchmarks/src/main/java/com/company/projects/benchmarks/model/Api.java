@@ -0,0 +1,17 @@
+package com.company.projects.benchmarks.model;
+
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+
+@IAmService
+public class Api {
+
+    @INeedThis
+    private CustomerService customerService;
+
+    @INeedThis
+    private OrderService orderService;
+
+    @INeedThis
+    private Settings settings;
+}
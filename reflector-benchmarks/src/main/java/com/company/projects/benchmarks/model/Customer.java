@@ -0,0 +1,9 @@
+package com.company.projects.benchmarks.model;
+
+/**
+ * Plain class next to the services, so that collecting services has something to filter out.
+ */
+public class Customer {
+
+    private String name;
+}
@@ -0,0 +1,17 @@
+package com.company.projects.benchmarks.model;
+
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+
+@IAmService
+public class CustomerRepository {
+
+    private final DataSource dataSource;
+    private final Cache cache;
+
+    @INeedThis
+    public CustomerRepository(DataSource dataSource, Cache cache) {
+        this.dataSource = dataSource;
+        this.cache = cache;
+    }
+}
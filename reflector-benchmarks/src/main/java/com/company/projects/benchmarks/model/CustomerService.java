@@ -0,0 +1,21 @@
+package com.company.projects.benchmarks.model;
+
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+
+@IAmService
+public class CustomerService {
+
+    private CustomerRepository customerRepository;
+    private OrderService orderService;
+
+    @INeedThis
+    public void setCustomerRepository(CustomerRepository customerRepository) {
+        this.customerRepository = customerRepository;
+    }
+
+    @INeedThis
+    public void setOrderService(OrderService orderService) {
+        this.orderService = orderService;
+    }
+}
@@ -0,0 +1,15 @@
+package com.company.projects.benchmarks.model;
+
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+
+@IAmService
+public class DataSource {
+
+    private final Settings settings;
+
+    @INeedThis
+    public DataSource(Settings settings) {
+        this.settings = settings;
+    }
+}
@@ -0,0 +1,10 @@
+package com.company.projects.benchmarks.model;
+
+/**
+ * Plain class next to the services, so that collecting services has something to filter out.
+ */
+public class Order {
+
+    private long id;
+    private String customer;
+}
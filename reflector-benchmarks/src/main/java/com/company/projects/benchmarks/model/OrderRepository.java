@@ -0,0 +1,14 @@
+package com.company.projects.benchmarks.model;
+
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+
+@IAmService
+public class OrderRepository {
+
+    @INeedThis
+    private DataSource dataSource;
+
+    @INeedThis
+    private Cache cache;
+}
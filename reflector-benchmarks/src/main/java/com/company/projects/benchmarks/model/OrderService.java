@@ -0,0 +1,20 @@
+package com.company.projects.benchmarks.model;
+
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+
+@IAmService
+public class OrderService {
+
+    private final OrderRepository orderRepository;
+    private final Clock clock;
+
+    @INeedThis
+    private CustomerService customerService;
+
+    @INeedThis
+    public OrderService(OrderRepository orderRepository, Clock clock) {
+        this.orderRepository = orderRepository;
+        this.clock = clock;
+    }
+}
@@ -0,0 +1,7 @@
+package com.company.projects.benchmarks.model;
+
+import com.company.projects.annotations.IAmService;
+
+@IAmService
+public class Settings {
+}
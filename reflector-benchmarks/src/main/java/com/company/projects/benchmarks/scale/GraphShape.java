@@ -0,0 +1,68 @@
+package com.company.projects.benchmarks.scale;
+
+import java.util.Arrays;
+
+/**
+ * How the generated services depend on each other. Service {@code i} only ever depends on services
+ * with a lower index, so the graph has no cycles and can be compiled in index order.
+ */
+public enum GraphShape {
+
+    /**
+     * Every service depends on one to three of a small set of shared roots, the graph is one or two levels deep
+     */
+    WIDE,
+
+    /**
+     * Every service depends on the one before it, the graph is a single chain as deep as it is long
+     */
+    DEEP,
+
+    /**
+     * Layers of services where every service depends on two to four services of the layer below,
+     * so most services are reached through many paths
+     */
+    DIAMOND;
+
+    /**
+     * @return The indexes of the services service {@code index} depends on, all lower than {@code index}
+     */
+    int[] dependenciesOf(int index, int services) {
+        switch (this) {
+            case WIDE: {
+                int roots = Math.max(1, (int) Math.sqrt(services));
+                if (index < roots) {
+                    return new int[0];
+                }
+                int count = Math.min(roots, 1 + index % 3);
+                int[] dependencies = new int[count];
+                for (int i = 0; i < count; i++) {
+                    dependencies[i] = (index * 31 + i * 17) % roots;
+                }
+                return distinct(dependencies);
+            }
+            case DEEP:
+                return index == 0 ? new int[0] : new int[]{index - 1};
+            case DIAMOND: {
+                int width = Math.max(2, (int) Math.sqrt(services));
+                int layer = index / width;
+                if (layer == 0) {
+                    return new int[0];
+                }
+                int below = (layer - 1) * width;
+                int count = 2 + index % 3;
+                int[] dependencies = new int[count];
+                for (int i = 0; i < count; i++) {
+                    dependencies[i] = below + (index + i * 7) % width;
+                }
+                return distinct(dependencies);
+            }
+            default:
+                throw new IllegalStateException("Unknown shape " + this);
+        }
+    }
+
+    private static int[] distinct(int[] dependencies) {
+        return Arrays.stream(dependencies).distinct().toArray();
+    }
+}
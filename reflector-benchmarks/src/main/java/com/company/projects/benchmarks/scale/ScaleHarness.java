@@ -0,0 +1,165 @@
+package com.company.projects.benchmarks.scale;
+
+import com.company.projects.application.BeanDescriptor;
+import com.company.projects.application.ParallelProjectScanner;
+import com.company.projects.application.ProjectScanner;
+import com.company.projects.application.Reflector;
+import com.company.projects.application.WiringPlan;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs the scan and wiring pipeline against generated graphs of services, far larger than the
+ * example application, and prints wall time per phase, peak heap and loaded classes of every run.
+ *
+ * Arguments, all optional:
+ * <pre>
+ *   --services 10000,50000,100000   graph sizes
+ *   --shapes wide,deep,diamond      graph shapes, see {@link GraphShape}
+ *   --scanner sequential|parallel   the {@link ProjectScanner} to scan with
+ *   --pipeline staged|streaming     complete lists after every phase, or the services streamed
+ *                                   while scanning, measured as a single scan phase
+ *   --dir path                      where to generate, kept afterwards; a temporary directory by default
+ * </pre>
+ *
+ * Every graph is compiled into its own directory and loaded through its own class loader, so the runs
+ * do not share classes. Compilation is not part of the measurements. The larger graphs need a larger
+ * heap than the default, e.g. {@code -Xmx4g}.
+ */
+public class ScaleHarness {
+
+    private static final String PACKAGE = "com.company.generated.scale";
+
+    private final String scanner;
+    private final boolean streaming;
+
+    public ScaleHarness(String scanner, boolean streaming) {
+        this.scanner = scanner;
+        this.streaming = streaming;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        String keptDir = options.get("dir");
+        File root = keptDir != null ? new File(keptDir) : Files.createTempDirectory("reflector-scale").toFile();
+        ScaleHarness harness = new ScaleHarness(options.getOrDefault("scanner", "sequential"),
+                "streaming".equals(options.get("pipeline")));
+
+        System.out.println(ScaleResult.HEADER);
+        try {
+            for (String shape : options.getOrDefault("shapes", "wide,deep,diamond").split(",")) {
+                for (String services : options.getOrDefault("services", "10000,50000,100000").split(",")) {
+                    GraphShape graphShape = GraphShape.valueOf(shape.trim().toUpperCase());
+                    int count = Integer.parseInt(services.trim());
+                    // The scanner derives package names from the path below target/classes
+                    File classesDir = new File(root, graphShape.name().toLowerCase() + "-" + count
+                            + File.separator + "target" + File.separator + "classes");
+                    System.out.println(harness.run(graphShape, count, classesDir));
+                }
+            }
+        } finally {
+            if (keptDir == null) {
+                delete(root.toPath());
+            }
+        }
+    }
+
+    public ScaleResult run(GraphShape shape, int services, File classesDir) throws IOException {
+        ServiceGraphGenerator generator = new ServiceGraphGenerator(PACKAGE, shape, services);
+        long dependencies = generator.compile(classesDir);
+
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classesDir.toURI().toURL()},
+                ScaleHarness.class.getClassLoader());
+             ProjectScanner projectScanner = "parallel".equals(scanner)
+                     ? new ParallelProjectScanner()
+                     : new ProjectScanner()) {
+            thread.setContextClassLoader(classLoader);
+            System.gc();
+            List<MemoryPoolMXBean> heapPools = heapPools();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            long loadedBefore = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+            Reflector reflector = new Reflector(projectScanner);
+
+            long start = System.nanoTime();
+            List<BeanDescriptor> descriptors;
+            long scanned;
+            long collected;
+            int scannedClasses;
+            if (streaming) {
+                try (Stream<BeanDescriptor> stream = reflector.streamServices(generator.getScanName())) {
+                    descriptors = stream.collect(Collectors.toList());
+                }
+                scanned = System.nanoTime();
+                collected = scanned;
+                scannedClasses = descriptors.size();
+            } else {
+                List<Class<?>> classes = reflector.getApplicationClasses(
+                        reflector.getAppPackages(generator.getScanName()));
+                scanned = System.nanoTime();
+                List<Class<?>> serviceClasses = reflector.collectServices(classes);
+                collected = System.nanoTime();
+                descriptors = new ArrayList<>(serviceClasses.size());
+                for (Class<?> service : serviceClasses) {
+                    descriptors.add(reflector.mapDependencies(service));
+                }
+                scannedClasses = classes.size();
+            }
+            long described = System.nanoTime();
+            WiringPlan plan = reflector.planWiring(descriptors);
+            long planned = System.nanoTime();
+            Map<String, Object> beanInstances = new HashMap<>(services * 2);
+            plan.execute(beanInstances);
+            long wired = System.nanoTime();
+
+            long peakHeap = 0;
+            for (MemoryPoolMXBean pool : heapPools) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+            int loadedClasses = (int) (ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount() - loadedBefore);
+            if (beanInstances.size() != services) {
+                throw new IllegalStateException("Wired " + beanInstances.size() + " of " + services
+                        + " generated services, scanned " + scannedClasses + " classes");
+            }
+            return new ScaleResult(shape, services, dependencies, scanned - start, collected - scanned,
+                    described - collected, planned - described, wired - planned, peakHeap, loadedClasses);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pools.add(pool);
+            }
+        }
+        return pools;
+    }
+
+    private static void delete(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
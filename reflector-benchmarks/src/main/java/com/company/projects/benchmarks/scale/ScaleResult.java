@@ -0,0 +1,109 @@
+package com.company.projects.benchmarks.scale;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measurements of one run of the scan and wiring pipeline over a generated graph.
+ */
+public class ScaleResult {
+
+    static final String HEADER = String.format("%-8s %8s %8s %9s %9s %9s %9s %9s %9s %10s %9s",
+            "shape", "services", "deps", "scan ms", "collect", "describe", "plan ms", "wire ms", "total ms",
+            "peak MB", "classes");
+
+    private final GraphShape shape;
+    private final int services;
+    private final long dependencies;
+    private final long scanNanos;
+    private final long collectNanos;
+    private final long describeNanos;
+    private final long planNanos;
+    private final long wireNanos;
+    private final long peakHeapBytes;
+    private final int loadedClasses;
+
+    ScaleResult(GraphShape shape, int services, long dependencies, long scanNanos, long collectNanos,
+                long describeNanos, long planNanos, long wireNanos, long peakHeapBytes, int loadedClasses) {
+        this.shape = shape;
+        this.services = services;
+        this.dependencies = dependencies;
+        this.scanNanos = scanNanos;
+        this.collectNanos = collectNanos;
+        this.describeNanos = describeNanos;
+        this.planNanos = planNanos;
+        this.wireNanos = wireNanos;
+        this.peakHeapBytes = peakHeapBytes;
+        this.loadedClasses = loadedClasses;
+    }
+
+    public GraphShape getShape() {
+        return shape;
+    }
+
+    public int getServices() {
+        return services;
+    }
+
+    public long getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * @return Time spent finding the package and loading its classes
+     */
+    public long getScanNanos() {
+        return scanNanos;
+    }
+
+    /**
+     * @return Time spent filtering the services out of the scanned classes
+     */
+    public long getCollectNanos() {
+        return collectNanos;
+    }
+
+    /**
+     * @return Time spent mapping the dependencies of every service
+     */
+    public long getDescribeNanos() {
+        return describeNanos;
+    }
+
+    public long getPlanNanos() {
+        return planNanos;
+    }
+
+    public long getWireNanos() {
+        return wireNanos;
+    }
+
+    public long getTotalNanos() {
+        return scanNanos + collectNanos + describeNanos + planNanos + wireNanos;
+    }
+
+    /**
+     * @return The sum of the peak usage of every heap memory pool during the run
+     */
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    /**
+     * @return The number of classes loaded during the run, the generated services and whatever the container loaded
+     */
+    public int getLoadedClasses() {
+        return loadedClasses;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-8s %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f %10.1f %9d",
+                shape, services, dependencies, millis(scanNanos), millis(collectNanos), millis(describeNanos),
+                millis(planNanos), millis(wireNanos), millis(getTotalNanos()), peakHeapBytes / (1024.0 * 1024.0),
+                loadedClasses);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,161 @@
+package com.company.projects.benchmarks.scale;
+
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Generates the sources of a graph of {@link IAmService} classes and compiles them in-process.
+ *
+ * Each dependency is injected through the constructor, a setter or a field, in turn, so every graph
+ * mixes the three kinds of injection. Sources are kept in memory and compiled in batches in index
+ * order; since services only depend on services with a lower index, every batch compiles against
+ * the class files of the batches before it.
+ */
+public class ServiceGraphGenerator {
+
+    private static final int BATCH_SIZE = 2000;
+
+    private final String packageName;
+    private final GraphShape shape;
+    private final int services;
+
+    public ServiceGraphGenerator(String packageName, GraphShape shape, int services) {
+        this.packageName = packageName;
+        this.shape = shape;
+        this.services = services;
+    }
+
+    /**
+     * Compiles the services into the package directory below {@code classesDir}.
+     *
+     * @return The number of dependencies of the generated graph
+     * @throws IllegalStateException If no compiler is available or the sources do not compile
+     */
+    public long compile(File classesDir) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("No Java compiler available, the harness must run on a JDK");
+        }
+        if (!classesDir.isDirectory() && !classesDir.mkdirs()) {
+            throw new IOException("Cannot create " + classesDir);
+        }
+        long dependencies = 0;
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(classesDir));
+            fileManager.setLocation(StandardLocation.CLASS_PATH, Arrays.asList(locationOf(IAmService.class), classesDir));
+            for (int from = 0; from < services; from += BATCH_SIZE) {
+                List<JavaFileObject> sources = new ArrayList<>();
+                for (int i = from; i < Math.min(services, from + BATCH_SIZE); i++) {
+                    int[] dependenciesOfService = shape.dependenciesOf(i, services);
+                    dependencies += dependenciesOfService.length;
+                    sources.add(new Source(packageName + "." + className(i), sourceOf(i, dependenciesOfService)));
+                }
+                DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+                boolean compiled = compiler.getTask(null, fileManager, diagnostics,
+                        Arrays.asList("-proc:none", "-g:none"), null, sources).call();
+                if (!compiled) {
+                    throw new IllegalStateException("Generated services do not compile: " + errorsOf(diagnostics));
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * @return A class name inside the generated package, to hand to the scanner, which scans the package of the name
+     */
+    public String getScanName() {
+        return packageName + "." + className(0);
+    }
+
+    String sourceOf(int index, int[] dependencies) {
+        StringBuilder fields = new StringBuilder();
+        StringBuilder parameters = new StringBuilder();
+        StringBuilder assignments = new StringBuilder();
+        StringBuilder setters = new StringBuilder();
+        for (int dependency : dependencies) {
+            String type = className(dependency);
+            String name = "s" + dependency;
+            switch ((index + dependency) % 3) {
+                case 0:
+                    fields.append("    private final ").append(type).append(' ').append(name).append(";\n");
+                    parameters.append(parameters.length() == 0 ? "" : ", ").append(type).append(' ').append(name);
+                    assignments.append("        this.").append(name).append(" = ").append(name).append(";\n");
+                    break;
+                case 1:
+                    fields.append("    private ").append(type).append(' ').append(name).append(";\n");
+                    setters.append("\n    @INeedThis\n    public void set").append(type).append('(')
+                            .append(type).append(' ').append(name).append(") {\n        this.")
+                            .append(name).append(" = ").append(name).append(";\n    }\n");
+                    break;
+                default:
+                    fields.append("    @INeedThis\n    private ").append(type).append(' ').append(name).append(";\n");
+            }
+        }
+        StringBuilder source = new StringBuilder()
+                .append("package ").append(packageName).append(";\n\n")
+                .append("import ").append(IAmService.class.getName()).append(";\n")
+                .append("import ").append(INeedThis.class.getName()).append(";\n\n")
+                .append("@IAmService\npublic class ").append(className(index)).append(" {\n")
+                .append(fields);
+        if (parameters.length() > 0) {
+            source.append("\n    @INeedThis\n    public ").append(className(index)).append('(').append(parameters)
+                    .append(") {\n").append(assignments).append("    }\n");
+        }
+        return source.append(setters).append("}\n").toString();
+    }
+
+    static String className(int index) {
+        return "S" + index;
+    }
+
+    private static File locationOf(Class<?> klass) {
+        try {
+            return new File(klass.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    private static String errorsOf(DiagnosticCollector<JavaFileObject> diagnostics) {
+        StringBuilder errors = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR && errors.length() < 2000) {
+                errors.append('\n').append(diagnostic);
+            }
+        }
+        return errors.toString();
+    }
+
+    private static class Source extends SimpleJavaFileObject {
+
+        private final String code;
+
+        Source(String className, String code) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+}
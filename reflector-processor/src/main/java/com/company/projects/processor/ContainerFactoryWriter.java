@@ -0,0 +1,461 @@
+package com.company.projects.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Emits a {@code ContainerFactory} implementation that creates the whole {@code @IAmService}
+ * graph with plain constructor calls, setter calls and field assignments, in dependency order.
+ *
+ * Beans are created in a depth-first topological order of their dependencies. A cycle that passes
+ * through a method or field injection point is broken there: that injection is deferred until every
+ * bean has been created. Private injection fields are assigned through their {@code set<Name>} setter.
+ *
+ * Interface and abstract dependency types are resolved to the one service implementing them, like
+ * the runtime does. Services the factory cannot create as the runtime would, because they are lazy,
+ * have lazy injection points, need a type no single service provides, are part of a constructor cycle
+ * or have injection points the factory cannot reach, are left out with a warning, together with the
+ * services depending on them; the runtime wires those, or reports why it cannot.
+ */
+class ContainerFactoryWriter {
+
+    static final String FACTORY_INTERFACE = "com.company.projects.application.ContainerFactory";
+    static final String FACTORY_SIMPLE_NAME = "GeneratedContainerFactory";
+    static final String LAZY_ANNOTATION = "com.company.projects.annotations.IAmLazy";
+
+    private final ProcessingEnvironment processingEnv;
+    private final Map<String, Bean> beans = new LinkedHashMap<>();
+    private final List<Bean> order = new ArrayList<>();
+    private final List<String> deferred = new LinkedList<>();
+    private Collection<TypeElement> services;
+    private String factoryPackage;
+
+    ContainerFactoryWriter(ProcessingEnvironment processingEnv) {
+        this.processingEnv = processingEnv;
+    }
+
+    void write(Collection<TypeElement> services) {
+        if (services.isEmpty()) {
+            return;
+        }
+        factoryPackage = commonPackage(services);
+        this.services = services;
+        for (TypeElement service : services) {
+            bean(service);
+        }
+        skipConstructorCycles();
+        skipDependents();
+        Map<Bean, Boolean> visiting = new HashMap<>();
+        for (Bean bean : new ArrayList<>(beans.values())) {
+            if (bean.skipped == null) {
+                visit(bean, visiting);
+            } else {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, bean.type.getSimpleName()
+                        + " is left out of " + FACTORY_SIMPLE_NAME + ": " + bean.skipped, bean.type);
+            }
+        }
+        String factoryName = factoryPackage.isEmpty()
+                ? FACTORY_SIMPLE_NAME
+                : factoryPackage + "." + FACTORY_SIMPLE_NAME;
+        try {
+            writeSource(factoryName, services);
+            FileObject registration = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT,
+                    "", "META-INF/services/" + FACTORY_INTERFACE, services.toArray(new Element[0]));
+            try (PrintWriter out = new PrintWriter(registration.openWriter())) {
+                out.print(factoryName + '\n');
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Could not write " + factoryName + ": " + e.getMessage());
+        }
+    }
+
+    private Bean bean(TypeElement type) {
+        String name = processingEnv.getElementUtils().getBinaryName(type).toString();
+        Bean bean = beans.get(name);
+        if (bean != null) {
+            return bean;
+        }
+        bean = new Bean(type, "bean" + beans.size() + "_" + type.getSimpleName());
+        beans.put(name, bean);
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            bean.skip("it is abstract");
+            return bean;
+        }
+        if (hasAnnotation(type, LAZY_ANNOTATION)) {
+            bean.skip("lazy services are created on first use, which needs the runtime");
+            return bean;
+        }
+        String scope = annotationValue(type, ServiceIndexProcessor.SERVICE_ANNOTATION, "scope");
+        if (scope != null && !"SINGLETON".equals(scope)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.MANDATORY_WARNING, type.getSimpleName()
+                    + " is " + scope.toLowerCase() + " scoped, but " + FACTORY_SIMPLE_NAME
+                    + " creates every service once; use Reflector.createRegistry to respect the scope", type);
+        }
+
+        for (Element member : type.getEnclosedElements()) {
+            if (!hasAnnotation(member, ServiceIndexProcessor.DEPENDENCY_ANNOTATION)) {
+                continue;
+            }
+            if (isLazyPoint(member)) {
+                bean.skip(member.getSimpleName() + " is a lazy injection point, which needs the runtime's proxies");
+                continue;
+            }
+            if (member.getKind() == ElementKind.CONSTRUCTOR && bean.constructor == null) {
+                bean.constructor = (ExecutableElement) member;
+                requireAccessible(bean, member);
+                for (VariableElement parameter : bean.constructor.getParameters()) {
+                    bean.constructorDependencies.add(dependency(bean, parameter.asType()));
+                }
+            } else if (member.getKind() == ElementKind.METHOD) {
+                ExecutableElement method = (ExecutableElement) member;
+                requireAccessible(bean, method);
+                if (method.getParameters().size() == 1) {
+                    bean.injections.add(new Injection(
+                            method.getSimpleName() + "(%s)", dependency(bean, method.getParameters().get(0).asType())));
+                }
+            } else if (member.getKind() == ElementKind.FIELD) {
+                bean.injections.add(new Injection(fieldAssignment(bean, (VariableElement) member),
+                        dependency(bean, member.asType())));
+            }
+        }
+        if (bean.constructor == null) {
+            boolean found = false;
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+                if (constructor.getParameters().isEmpty()) {
+                    requireAccessible(bean, constructor);
+                    found = true;
+                }
+            }
+            if (!found) {
+                bean.skip("it needs a no-argument constructor or an @INeedThis constructor");
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Resolves a dependency type to the service providing it: a concrete service class is its own
+     * provider, an interface or abstract type needs exactly one implementing service. Otherwise the
+     * dependent bean is skipped.
+     */
+    private Bean dependency(Bean dependent, TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind() != TypeKind.DECLARED) {
+            dependent.skip("depends on " + type + ", which is not a service");
+            return null;
+        }
+        TypeElement dependency = (TypeElement) processingEnv.getTypeUtils().asElement(erased);
+        if (dependency.getKind() == ElementKind.CLASS && !dependency.getModifiers().contains(Modifier.ABSTRACT)) {
+            if (hasAnnotation(dependency, ServiceIndexProcessor.SERVICE_ANNOTATION)) {
+                return bean(dependency);
+            }
+            dependent.skip("depends on " + type + ", which is not an @IAmService class");
+            return null;
+        }
+        List<TypeElement> implementations = new ArrayList<>();
+        for (TypeElement service : services) {
+            if (!service.getModifiers().contains(Modifier.ABSTRACT)
+                    && processingEnv.getTypeUtils().isAssignable(
+                            processingEnv.getTypeUtils().erasure(service.asType()), erased)) {
+                implementations.add(service);
+            }
+        }
+        if (implementations.size() != 1) {
+            dependent.skip((implementations.isEmpty() ? "no service implements " : "several services implement ")
+                    + type);
+            return null;
+        }
+        return bean(implementations.get(0));
+    }
+
+    /**
+     * Marks the beans of every cycle through constructor parameters as skipped: none of them can be
+     * created before the others.
+     */
+    private void skipConstructorCycles() {
+        Map<Bean, Boolean> visiting = new HashMap<>();
+        for (Bean bean : beans.values()) {
+            findConstructorCycles(bean, visiting, new LinkedList<>());
+        }
+    }
+
+    private void findConstructorCycles(Bean bean, Map<Bean, Boolean> visiting, LinkedList<Bean> path) {
+        if (bean == null || Boolean.FALSE.equals(visiting.get(bean))) {
+            return;
+        }
+        visiting.put(bean, Boolean.TRUE);
+        path.addLast(bean);
+        for (Bean dependency : bean.constructorDependencies) {
+            if (dependency != null && Boolean.TRUE.equals(visiting.get(dependency))) {
+                String cycle = describe(path, dependency);
+                for (Bean member : path.subList(path.indexOf(dependency), path.size())) {
+                    member.skip("it has a constructor dependency cycle: " + cycle);
+                }
+                continue;
+            }
+            findConstructorCycles(dependency, visiting, path);
+        }
+        path.removeLast();
+        visiting.put(bean, Boolean.FALSE);
+    }
+
+    /**
+     * Marks every bean depending on a skipped bean as skipped too, until nothing changes.
+     */
+    private void skipDependents() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Bean bean : beans.values()) {
+                if (bean.skipped != null) {
+                    continue;
+                }
+                List<Bean> dependencies = new ArrayList<>(bean.constructorDependencies);
+                for (Injection injection : bean.injections) {
+                    dependencies.add(injection.dependency);
+                }
+                for (Bean dependency : dependencies) {
+                    if (dependency != null && dependency.skipped != null) {
+                        bean.skip("depends on " + dependency.type.getSimpleName() + ", which is left out");
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isLazyPoint(Element member) {
+        if (hasAnnotation(member, LAZY_ANNOTATION)) {
+            return true;
+        }
+        if (member instanceof ExecutableElement) {
+            for (VariableElement parameter : ((ExecutableElement) member).getParameters()) {
+                if (hasAnnotation(parameter, LAZY_ANNOTATION)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private String fieldAssignment(Bean bean, VariableElement field) {
+        if (isAccessible(field)) {
+            return field.getSimpleName() + " = %s";
+        }
+        String name = field.getSimpleName().toString();
+        String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (ExecutableElement method : ElementFilter.methodsIn(bean.type.getEnclosedElements())) {
+            if (method.getSimpleName().contentEquals(setterName)
+                    && method.getParameters().size() == 1
+                    && processingEnv.getTypeUtils().isSameType(
+                            processingEnv.getTypeUtils().erasure(method.getParameters().get(0).asType()),
+                            processingEnv.getTypeUtils().erasure(field.asType()))
+                    && isAccessible(method)) {
+                return setterName + "(%s)";
+            }
+        }
+        bean.skip(name + " is not accessible from " + FACTORY_SIMPLE_NAME + " and has no accessible "
+                + setterName + " setter; make it non-private or add the setter to use the generated factory");
+        return name + " = %s";
+    }
+
+    /**
+     * Adds the bean to the order after its dependencies. Constructor cycles were skipped before,
+     * so a dependency still being visited is reached through an injection, which is deferred.
+     */
+    private void visit(Bean bean, Map<Bean, Boolean> visiting) {
+        if (bean == null || visiting.containsKey(bean)) {
+            return;
+        }
+        visiting.put(bean, Boolean.TRUE);
+        for (Bean dependency : bean.constructorDependencies) {
+            visit(dependency, visiting);
+        }
+        for (Injection injection : bean.injections) {
+            if (injection.dependency != null && Boolean.TRUE.equals(visiting.get(injection.dependency))) {
+                injection.deferred = true;
+                continue;
+            }
+            visit(injection.dependency, visiting);
+        }
+        visiting.put(bean, Boolean.FALSE);
+        order.add(bean);
+    }
+
+    private String describe(List<Bean> path, Bean repeated) {
+        StringBuilder cycle = new StringBuilder();
+        for (Bean bean : path.subList(path.indexOf(repeated), path.size())) {
+            cycle.append(bean.type.getSimpleName()).append(" -> ");
+        }
+        return cycle.append(repeated.type.getSimpleName()).toString();
+    }
+
+    private void writeSource(String factoryName, Collection<TypeElement> services) throws IOException {
+        JavaFileObject source = processingEnv.getFiler()
+                .createSourceFile(factoryName, services.toArray(new Element[0]));
+        try (PrintWriter out = new PrintWriter(source.openWriter())) {
+            if (!factoryPackage.isEmpty()) {
+                out.print("package " + factoryPackage + ";\n\n");
+            }
+            out.print("import java.util.LinkedHashMap;\n");
+            out.print("import java.util.Map;\n\n");
+            out.print("/**\n * Generated by " + ServiceIndexProcessor.class.getName() + ". Do not edit.\n */\n");
+            out.print("public final class " + FACTORY_SIMPLE_NAME + " implements " + FACTORY_INTERFACE + " {\n\n");
+            out.print("    @Override\n");
+            out.print("    @SuppressWarnings({\"rawtypes\", \"unchecked\"})\n");
+            out.print("    public Map<String, Object> createBeans() {\n");
+            out.print("        Map<String, Object> beans = new LinkedHashMap<>();\n");
+            for (Bean bean : order) {
+                String type = bean.type.getQualifiedName().toString();
+                List<String> arguments = new ArrayList<>();
+                for (Bean dependency : bean.constructorDependencies) {
+                    arguments.add(dependency.variable);
+                }
+                out.print("        " + type + " " + bean.variable + " = new " + type
+                        + "(" + String.join(", ", arguments) + ");\n");
+                for (Injection injection : bean.injections) {
+                    if (!injection.deferred) {
+                        out.print("        " + bean.variable + "." + injection.statement(injection.dependency.variable) + ";\n");
+                    } else {
+                        deferred.add(bean.variable + "." + injection.statement(injection.dependency.variable) + ";");
+                    }
+                }
+                out.print("        beans.putIfAbsent(\"" + bean.type.getSimpleName() + "\", " + bean.variable + ");\n");
+            }
+            for (String injection : deferred) {
+                out.print("        " + injection + "\n");
+            }
+            out.print("        return beans;\n");
+            out.print("    }\n");
+            out.print("}\n");
+        }
+    }
+
+    private String commonPackage(Collection<TypeElement> services) {
+        String common = null;
+        for (TypeElement service : services) {
+            PackageElement pack = processingEnv.getElementUtils().getPackageOf(service);
+            String name = pack.getQualifiedName().toString();
+            if (common == null) {
+                common = name;
+            }
+            while (!name.equals(common) && !name.startsWith(common + ".") && !common.isEmpty()) {
+                int dot = common.lastIndexOf('.');
+                common = dot < 0 ? "" : common.substring(0, dot);
+            }
+        }
+        return common == null ? "" : common;
+    }
+
+    private void requireAccessible(Bean bean, Element member) {
+        if (!isAccessible(member)) {
+            String name = member.getKind() == ElementKind.CONSTRUCTOR
+                    ? "its constructor"
+                    : member.getSimpleName().toString();
+            bean.skip(name + " is not accessible from " + FACTORY_SIMPLE_NAME
+                    + " in package '" + factoryPackage + "'");
+        }
+    }
+
+    private boolean isAccessible(Element member) {
+        TypeElement owner = (TypeElement) member.getEnclosingElement();
+        if (member.getModifiers().contains(Modifier.PUBLIC) && owner.getModifiers().contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return !member.getModifiers().contains(Modifier.PRIVATE)
+                && !owner.getModifiers().contains(Modifier.PRIVATE)
+                && processingEnv.getElementUtils().getPackageOf(owner).getQualifiedName().contentEquals(factoryPackage);
+    }
+
+    private boolean hasAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) annotation.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(annotationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String annotationValue(Element element, String annotationName, String elementName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) annotation.getAnnotationType().asElement();
+            if (!type.getQualifiedName().contentEquals(annotationName)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value
+                    : annotation.getElementValues().entrySet()) {
+                if (value.getKey().getSimpleName().contentEquals(elementName)) {
+                    return value.getValue().getValue().toString();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static class Bean {
+
+        private final TypeElement type;
+        private final String variable;
+        private ExecutableElement constructor;
+        private final List<Bean> constructorDependencies = new ArrayList<>();
+        private final List<Injection> injections = new ArrayList<>();
+        private String skipped;
+
+        Bean(TypeElement type, String variable) {
+            this.type = type;
+            this.variable = variable;
+        }
+
+        /**
+         * Leaves the bean out of the factory, keeping the first reason given.
+         */
+        void skip(String reason) {
+            if (skipped == null) {
+                skipped = reason;
+            }
+        }
+    }
+
+    private static class Injection {
+
+        private final String statementFormat;
+        private final Bean dependency;
+        private boolean deferred;
+
+        Injection(String statementFormat, Bean dependency) {
+            this.statementFormat = statementFormat;
+            this.dependency = dependency;
+        }
+
+        String statement(String argument) {
+            return String.format(statementFormat, argument);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.company.projects.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records every {@code @IAmService} class and its {@code @INeedThis} injection points
+ * into {@value #INDEX_LOCATION} at compile time, so that the runtime can read the services
+ * directly instead of scanning the class path.
+ *
+ * The index holds one tab separated record per line:
+ * <pre>
+ * S  &lt;service class&gt;
+ * C  &lt;constructor parameter type&gt;...
+ * M  &lt;method name&gt;  &lt;parameter type&gt;
+ * F  &lt;field name&gt;   &lt;field type&gt;
+ * </pre>
+ * C, M and F records belong to the closest preceding S record. All types are binary names.
+ *
+ * An incremental compilation only sees part of the services, so the index left by earlier compilations
+ * is merged in: its services are kept unless they were compiled again, were removed or lost the
+ * annotation. The processor runs in every compilation for that purpose, even without services in it.
+ *
+ * With {@code -A}{@value #GENERATE_FACTORY_OPTION}{@code =true} the processor also emits a
+ * reflection-free container factory for the services, see {@link ContainerFactoryWriter}. It is
+ * built from the same merged services as the index, so it covers the services of earlier compilations.
+ */
+public class ServiceIndexProcessor extends AbstractProcessor {
+
+    public static final String INDEX_LOCATION = "META-INF/reflector/services.index";
+    public static final String GENERATE_FACTORY_OPTION = "reflector.generateFactory";
+
+    static final String SERVICE_ANNOTATION = "com.company.projects.annotations.IAmService";
+    static final String DEPENDENCY_ANNOTATION = "com.company.projects.annotations.INeedThis";
+
+    private final Map<String, List<String>> serviceRecords = new LinkedHashMap<>();
+    private boolean factoryWritten;
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Collections.singleton(GENERATE_FACTORY_OPTION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+        TypeElement serviceAnnotation = processingEnv.getElementUtils().getTypeElement(SERVICE_ANNOTATION);
+        if (serviceAnnotation == null) {
+            return false;
+        }
+        List<TypeElement> services = new LinkedList<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(serviceAnnotation)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+            TypeElement service = (TypeElement) element;
+            services.add(service);
+            serviceRecords.put(binaryName(service), describe(service));
+        }
+        if (Boolean.parseBoolean(processingEnv.getOptions().get(GENERATE_FACTORY_OPTION))) {
+            if (!factoryWritten) {
+                factoryWritten = true;
+                services.addAll(earlierServices());
+                new ContainerFactoryWriter(processingEnv).write(services);
+            } else if (!services.isEmpty()) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "Services generated in later processing rounds are not part of the generated factory");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The services of the index left by earlier compilations that were not compiled again
+     * and still are services
+     */
+    private List<TypeElement> earlierServices() {
+        List<TypeElement> earlier = new LinkedList<>();
+        Map<String, List<String>> previous = readPreviousIndex();
+        if (previous == null) {
+            return earlier;
+        }
+        for (String binaryName : previous.keySet()) {
+            TypeElement service = serviceRecords.containsKey(binaryName) ? null : earlierService(binaryName);
+            if (service != null) {
+                earlier.add(service);
+            }
+        }
+        return earlier;
+    }
+
+    private List<String> describe(TypeElement service) {
+        List<String> records = new LinkedList<>();
+        boolean constructorFound = false;
+        for (Element member : service.getEnclosedElements()) {
+            if (!isDependencyPoint(member)) {
+                continue;
+            }
+            switch (member.getKind()) {
+                case CONSTRUCTOR:
+                    if (constructorFound) {
+                        break;
+                    }
+                    constructorFound = true;
+                    StringBuilder constructor = new StringBuilder("C");
+                    for (VariableElement parameter : ((ExecutableElement) member).getParameters()) {
+                        constructor.append('\t').append(typeName(parameter.asType()));
+                    }
+                    records.add(constructor.toString());
+                    break;
+                case METHOD:
+                    List<? extends VariableElement> parameters = ((ExecutableElement) member).getParameters();
+                    if (parameters.size() != 1) {
+                        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                "@INeedThis methods must take exactly one parameter", member);
+                        break;
+                    }
+                    records.add("M\t" + member.getSimpleName() + '\t' + typeName(parameters.get(0).asType()));
+                    break;
+                case FIELD:
+                    records.add("F\t" + member.getSimpleName() + '\t' + typeName(member.asType()));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return records;
+    }
+
+    private boolean isDependencyPoint(Element member) {
+        for (AnnotationMirror annotation : member.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) annotation.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(DEPENDENCY_ANNOTATION)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The name {@code Class.forName} loads the type by: the binary name of a class, the descriptor
+     * form of an array such as {@code [Ljava.lang.String;}, or the name of a primitive type.
+     */
+    private String typeName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        switch (erased.getKind()) {
+            case DECLARED:
+                return binaryName((TypeElement) processingEnv.getTypeUtils().asElement(erased));
+            case ARRAY:
+                return "[" + descriptor(((ArrayType) erased).getComponentType());
+            default:
+                return erased.toString();
+        }
+    }
+
+    private String descriptor(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        switch (erased.getKind()) {
+            case BOOLEAN:
+                return "Z";
+            case BYTE:
+                return "B";
+            case CHAR:
+                return "C";
+            case SHORT:
+                return "S";
+            case INT:
+                return "I";
+            case LONG:
+                return "J";
+            case FLOAT:
+                return "F";
+            case DOUBLE:
+                return "D";
+            case ARRAY:
+                return "[" + descriptor(((ArrayType) erased).getComponentType());
+            default:
+                return "L" + typeName(erased) + ";";
+        }
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private void writeIndex() {
+        Map<String, List<String>> previous = readPreviousIndex();
+        if (serviceRecords.isEmpty() && previous == null) {
+            return;
+        }
+        Map<String, List<String>> merged = new LinkedHashMap<>();
+        if (previous != null) {
+            for (Map.Entry<String, List<String>> service : previous.entrySet()) {
+                if (!serviceRecords.containsKey(service.getKey()) && earlierService(service.getKey()) != null) {
+                    merged.put(service.getKey(), service.getValue());
+                }
+            }
+        }
+        merged.putAll(serviceRecords);
+        try {
+            FileObject index = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = index.openWriter();
+                 PrintWriter out = new PrintWriter(writer)) {
+                for (Map.Entry<String, List<String>> service : merged.entrySet()) {
+                    out.print("S\t" + service.getKey() + '\n');
+                    for (String record : service.getValue()) {
+                        out.print(record + '\n');
+                    }
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Could not write service index " + INDEX_LOCATION + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return The services of the index in the class output, null if there is none
+     */
+    private Map<String, List<String>> readPreviousIndex() {
+        String content;
+        try {
+            content = processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION)
+                    .getCharContent(false).toString();
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+        Map<String, List<String>> services = new LinkedHashMap<>();
+        List<String> records = null;
+        for (String line : content.split("\n")) {
+            if (line.startsWith("S\t")) {
+                records = new LinkedList<>();
+                services.put(line.substring(2), records);
+            } else if (records != null && !line.isEmpty()) {
+                records.add(line);
+            }
+        }
+        return services;
+    }
+
+    /**
+     * A service of an earlier compilation, if it still exists and is still annotated.
+     * Classes not compiled now are read from the class path.
+     *
+     * @return The service, null if it is gone or no longer a service
+     */
+    private TypeElement earlierService(String binaryName) {
+        TypeElement type = processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.'));
+        if (type == null) {
+            return null;
+        }
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(SERVICE_ANNOTATION)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,173 @@
+package com.company.projects.processor;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.company.projects.processor.TestCompiler.source;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ContainerFactoryWriterTest {
+
+    private static final String FACTORY = "app.GeneratedContainerFactory";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TestCompiler compiler;
+
+    @Before
+    public void setUp() throws Exception {
+        compiler = new TestCompiler(folder.getRoot());
+    }
+
+    @Test
+    public void createsBeansAfterTheirDependencies() throws Exception {
+        assertTrue(compiler.compile(true,
+                service("Top", "final Middle middle;",
+                        "@INeedThis public Top(Middle middle) { this.middle = middle; }"),
+                service("Middle", "@INeedThis Bottom bottom;"),
+                service("Bottom")));
+
+        Map<String, Object> beans = compiler.createBeans(FACTORY);
+
+        assertEquals(Arrays.asList("Bottom", "Middle", "Top"), new ArrayList<>(beans.keySet()));
+        assertSame(beans.get("Middle"), field(beans.get("Top"), "middle"));
+        assertSame(beans.get("Bottom"), field(beans.get("Middle"), "bottom"));
+    }
+
+    @Test
+    public void defersTheFieldAndSetterInjectionsClosingACycle() throws Exception {
+        assertTrue(compiler.compile(true,
+                service("Ping", "@INeedThis Pong pong;"),
+                service("Pong", "Ping ping;", "@INeedThis public void setPing(Ping ping) { this.ping = ping; }")));
+
+        Map<String, Object> beans = compiler.createBeans(FACTORY);
+
+        assertSame(beans.get("Pong"), field(beans.get("Ping"), "pong"));
+        assertSame(beans.get("Ping"), field(beans.get("Pong"), "ping"));
+    }
+
+    @Test
+    public void leavesLazyServicesAndTheirDependentsToTheRuntime() throws Exception {
+        assertTrue(compiler.compile(true,
+                source("app.Lazy", "package app;", "import com.company.projects.annotations.*;",
+                        "@IAmLazy @IAmService public class Lazy { }"),
+                service("UsesLazy", "@INeedThis Lazy lazy;"),
+                service("Eager")));
+
+        assertEquals(Arrays.asList("Eager"), new ArrayList<>(compiler.createBeans(FACTORY).keySet()));
+        assertWarned("Lazy is left out of GeneratedContainerFactory: lazy services");
+        assertWarned("UsesLazy is left out of GeneratedContainerFactory: depends on Lazy");
+    }
+
+    @Test
+    public void warnsAboutInterfacesImplementedBySeveralServices() throws Exception {
+        assertTrue(compiler.compile(true,
+                source("app.Store", "package app;", "public interface Store { }"),
+                service("FileStore implements Store"),
+                service("MemoryStore implements Store"),
+                service("UsesStore", "@INeedThis Store store;")));
+
+        Map<String, Object> beans = compiler.createBeans(FACTORY);
+
+        assertEquals(Arrays.asList("FileStore", "MemoryStore"), new ArrayList<>(beans.keySet()));
+        assertWarned("UsesStore is left out of GeneratedContainerFactory: several services implement app.Store");
+    }
+
+    @Test
+    public void resolvesInterfacesImplementedByOneService() throws Exception {
+        assertTrue(compiler.compile(true,
+                source("app.Store", "package app;", "public interface Store { }"),
+                service("UsesStore", "@INeedThis Store store;"),
+                service("FileStore implements Store")));
+
+        Map<String, Object> beans = compiler.createBeans(FACTORY);
+
+        assertSame(beans.get("FileStore"), field(beans.get("UsesStore"), "store"));
+    }
+
+    @Test
+    public void leavesConstructorCyclesOutInsteadOfFailing() throws Exception {
+        assertTrue(compiler.compile(true,
+                service("Chicken", "@INeedThis public Chicken(Egg egg) { }"),
+                service("Egg", "@INeedThis public Egg(Chicken chicken) { }"),
+                service("Farm")));
+
+        assertEquals(Arrays.asList("Farm"), new ArrayList<>(compiler.createBeans(FACTORY).keySet()));
+        assertWarned("Chicken is left out of GeneratedContainerFactory: it has a constructor dependency cycle");
+        assertWarned("Egg is left out of GeneratedContainerFactory: it has a constructor dependency cycle");
+    }
+
+    @Test
+    public void leavesInaccessibleInjectionPointsOutInsteadOfFailing() throws Exception {
+        assertTrue(compiler.compile(true,
+                service("Hidden", "@INeedThis private Farm farm;"),
+                service("Farm")));
+
+        assertEquals(Arrays.asList("Farm"), new ArrayList<>(compiler.createBeans(FACTORY).keySet()));
+        assertWarned("Hidden is left out of GeneratedContainerFactory: farm is not accessible");
+    }
+
+    @Test
+    public void includesTheServicesOfEarlierCompilations() throws Exception {
+        assertTrue(compiler.compile(true, service("Bottom"), service("Unrelated")));
+
+        assertTrue(compiler.compile(true, service("Top", "@INeedThis Bottom bottom;")));
+
+        Map<String, Object> beans = compiler.createBeans(FACTORY);
+        assertEquals(Arrays.asList("Bottom", "Top", "Unrelated"), sorted(beans));
+        assertSame(beans.get("Bottom"), field(beans.get("Top"), "bottom"));
+    }
+
+    @Test
+    public void writesNoFactoryWithoutTheOption() {
+        assertTrue(compiler.compile(false, service("Farm")));
+
+        assertFalse(compiler.exists(FACTORY));
+    }
+
+    private static List<String> sorted(Map<String, Object> beans) {
+        List<String> names = new ArrayList<>(beans.keySet());
+        names.sort(null);
+        return names;
+    }
+
+    private static JavaFileObject service(String declaration, String... members) {
+        String name = declaration.split(" ")[0];
+        List<String> lines = new ArrayList<>(Arrays.asList("package app;",
+                "import com.company.projects.annotations.*;",
+                "@IAmService public class " + declaration + " {"));
+        lines.addAll(Arrays.asList(members));
+        lines.add("}");
+        return source("app." + name, lines.toArray(new String[0]));
+    }
+
+    private void assertWarned(String message) {
+        List<String> warnings = compiler.messages(Diagnostic.Kind.WARNING);
+        for (String warning : warnings) {
+            if (warning.startsWith(message)) {
+                return;
+            }
+        }
+        throw new AssertionError("No warning starting with \"" + message + "\" in " + warnings);
+    }
+
+    private static Object field(Object bean, String name) throws ReflectiveOperationException {
+        Field field = bean.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(bean);
+    }
+}
@@ -0,0 +1,129 @@
+package com.company.projects.processor;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaFileObject;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.company.projects.processor.TestCompiler.source;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ServiceIndexProcessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TestCompiler compiler;
+
+    @Before
+    public void setUp() throws Exception {
+        compiler = new TestCompiler(folder.getRoot());
+    }
+
+    @Test
+    public void recordsServicesWithTheirInjectionPoints() throws Exception {
+        assertTrue(compiler.compile(false,
+                service("Top", "@INeedThis public Top(Bottom bottom, int size) { }",
+                        "@INeedThis Bottom field;",
+                        "@INeedThis public void setBottom(Bottom bottom) { }"),
+                service("Bottom")));
+
+        Map<String, List<String>> services = services();
+        assertEquals(Arrays.asList("app.Bottom", "app.Top"), new ArrayList<>(services.keySet()));
+        assertEquals(Collections.emptyList(), services.get("app.Bottom"));
+        assertEquals(Arrays.asList("C\tapp.Bottom\tint", "F\tfield\tapp.Bottom", "M\tsetBottom\tapp.Bottom"),
+                services.get("app.Top"));
+    }
+
+    @Test
+    public void writesNestedAndArrayTypesByTheNamesClassForNameLoads() throws Exception {
+        assertTrue(compiler.compile(false,
+                service("Holder",
+                        "@IAmService public static class Inner { }",
+                        "@INeedThis String[] names;",
+                        "@INeedThis int[][] grid;",
+                        "@INeedThis Inner[] inners;",
+                        "@INeedThis java.util.List<String> list;")));
+
+        Map<String, List<String>> services = services();
+        assertEquals(Arrays.asList("app.Holder", "app.Holder$Inner"), new ArrayList<>(services.keySet()));
+        List<String> fields = services.get("app.Holder");
+        assertEquals(Arrays.asList(
+                "F\tnames\t[Ljava.lang.String;",
+                "F\tgrid\t[[I",
+                "F\tinners\t[Lapp.Holder$Inner;",
+                "F\tlist\tjava.util.List"), fields);
+        assertSame(String[].class, Class.forName(fields.get(0).split("\t")[2]));
+        assertSame(int[][].class, Class.forName(fields.get(1).split("\t")[2]));
+    }
+
+    @Test
+    public void keepsTheServicesOfEarlierCompilations() throws Exception {
+        assertTrue(compiler.compile(false, service("Kept", "@INeedThis Recompiled recompiled;"),
+                service("Recompiled")));
+
+        assertTrue(compiler.compile(false, service("Recompiled", "@INeedThis Kept kept;"), service("Added")));
+
+        Map<String, List<String>> services = services();
+        assertEquals(Arrays.asList("app.Added", "app.Kept", "app.Recompiled"), new ArrayList<>(services.keySet()));
+        assertEquals(Arrays.asList("F\trecompiled\tapp.Recompiled"), services.get("app.Kept"));
+        assertEquals(Arrays.asList("F\tkept\tapp.Kept"), services.get("app.Recompiled"));
+    }
+
+    @Test
+    public void dropsEarlierServicesThatAreNoLongerServices() throws Exception {
+        assertTrue(compiler.compile(false, service("Kept"), service("Demoted")));
+
+        assertTrue(compiler.compile(false, source("app.Demoted", "package app;", "public class Demoted { }")));
+
+        assertEquals(Collections.singleton("app.Kept"), services().keySet());
+    }
+
+    @Test
+    public void dropsEarlierServicesWhoseClassIsGone() throws Exception {
+        assertTrue(compiler.compile(false, service("Kept"), service("Deleted")));
+        assertTrue(new File(folder.getRoot(), "classes/app/Deleted.class").delete());
+
+        assertTrue(compiler.compile(false, service("Added")));
+
+        assertEquals(Arrays.asList("app.Added", "app.Kept"), new ArrayList<>(services().keySet()));
+    }
+
+    /**
+     * @return The records of the index by the service they belong to, in the order of the service names
+     */
+    private Map<String, List<String>> services() throws IOException {
+        Map<String, List<String>> services = new TreeMap<>();
+        List<String> records = null;
+        for (String line : compiler.index()) {
+            if (line.startsWith("S\t")) {
+                records = new ArrayList<>();
+                services.put(line.substring(2), records);
+            } else {
+                records.add(line);
+            }
+        }
+        return services;
+    }
+
+    private static JavaFileObject service(String name, String... members) {
+        List<String> lines = new ArrayList<>(Arrays.asList("package app;",
+                "import com.company.projects.annotations.*;",
+                "@IAmService public class " + name + " {"));
+        lines.addAll(Arrays.asList(members));
+        lines.add("}");
+        return source("app." + name, lines.toArray(new String[0]));
+    }
+}
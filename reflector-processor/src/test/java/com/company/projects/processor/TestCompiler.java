@@ -0,0 +1,138 @@
+package com.company.projects.processor;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles sources held in memory with the {@link ServiceIndexProcessor}, against stand-ins for the
+ * annotations and the container factory interface of the runtime, which this module cannot depend on.
+ * Every compilation writes to the same class output, which is also on its class path, like the
+ * incremental compilations of one project.
+ */
+final class TestCompiler {
+
+    private static final List<JavaFileObject> RUNTIME = Arrays.asList(
+            source("com.company.projects.annotations.Scope",
+                    "package com.company.projects.annotations;",
+                    "public enum Scope { SINGLETON, PROTOTYPE, THREAD }"),
+            source("com.company.projects.annotations.IAmService",
+                    "package com.company.projects.annotations;",
+                    "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)",
+                    "public @interface IAmService { Scope scope() default Scope.SINGLETON; }"),
+            source("com.company.projects.annotations.INeedThis",
+                    "package com.company.projects.annotations;",
+                    "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)",
+                    "public @interface INeedThis { }"),
+            source("com.company.projects.annotations.IAmLazy",
+                    "package com.company.projects.annotations;",
+                    "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)",
+                    "public @interface IAmLazy { }"),
+            source("com.company.projects.application.ContainerFactory",
+                    "package com.company.projects.application;",
+                    "public interface ContainerFactory { java.util.Map<String, Object> createBeans(); }"));
+
+    private final File runtime;
+    private final File classes;
+    private final File generated;
+    private final List<Diagnostic<? extends JavaFileObject>> diagnostics = new ArrayList<>();
+
+    TestCompiler(File root) throws IOException {
+        this.runtime = new File(root, "runtime");
+        this.classes = new File(root, "classes");
+        this.generated = new File(root, "generated");
+        for (File dir : new File[]{runtime, classes, generated}) {
+            Files.createDirectories(dir.toPath());
+        }
+        if (!run(RUNTIME, Arrays.asList("-proc:none", "-d", runtime.getPath()))) {
+            throw new IllegalStateException("Stand-ins do not compile: " + diagnostics);
+        }
+    }
+
+    static JavaFileObject source(String className, String... lines) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return String.join("\n", lines);
+            }
+        };
+    }
+
+    /**
+     * @return Whether the sources compiled without errors
+     */
+    boolean compile(boolean generateFactory, JavaFileObject... sources) {
+        List<String> options = new ArrayList<>(Arrays.asList("-d", classes.getPath(), "-s", generated.getPath(),
+                "-classpath", runtime.getPath() + File.pathSeparator + classes.getPath()));
+        if (generateFactory) {
+            options.add("-A" + ServiceIndexProcessor.GENERATE_FACTORY_OPTION + "=true");
+        }
+        return run(Arrays.asList(sources), options);
+    }
+
+    private boolean run(List<JavaFileObject> sources, List<String> options) {
+        diagnostics.clear();
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(collector, null,
+                StandardCharsets.UTF_8)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, collector, options, null, sources);
+            task.setProcessors(Collections.singletonList(new ServiceIndexProcessor()));
+            boolean success = task.call();
+            diagnostics.addAll(collector.getDiagnostics());
+            return success;
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return The messages of the given kind reported by the last compilation
+     */
+    List<String> messages(Diagnostic.Kind kind) {
+        List<String> messages = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+            if (diagnostic.getKind() == kind) {
+                messages.add(diagnostic.getMessage(null));
+            }
+        }
+        return messages;
+    }
+
+    List<String> index() throws IOException {
+        return Files.readAllLines(new File(classes, ServiceIndexProcessor.INDEX_LOCATION).toPath());
+    }
+
+    boolean exists(String className) {
+        return new File(classes, className.replace('.', '/') + ".class").exists();
+    }
+
+    /**
+     * Loads the generated factory from the class output and creates its beans.
+     */
+    @SuppressWarnings("unchecked")
+    Map<String, Object> createBeans(String factoryName) throws Exception {
+        try (URLClassLoader loader = new URLClassLoader(
+                new URL[]{classes.toURI().toURL(), runtime.toURI().toURL()}, null)) {
+            Object factory = loader.loadClass(factoryName).getConstructor().newInstance();
+            return (Map<String, Object>) factory.getClass().getMethod("createBeans").invoke(factory);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.company.projects.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.CONSTRUCTOR;
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * On a service: the service is created on first use instead of at wiring time, and injection
+ * points declared with one of its interfaces receive a proxy.
+ * On an {@link INeedThis} injection point: the point receives a proxy that creates the real
+ * dependency on first use. The point must be declared with an interface type.
+ */
+@Target({TYPE, METHOD, FIELD, CONSTRUCTOR, PARAMETER})
+@Retention(RUNTIME)
+public @interface IAmLazy {
+
+}
@@ -0,0 +1,17 @@
+package com.company.projects.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * On a method without parameters of a service: called when the container shuts down, after every
+ * bean depending on the service was shut down. {@link AutoCloseable} services are closed as well.
+ */
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface IAmLeaving {
+
+}
@@ -0,0 +1,18 @@
+package com.company.projects.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * On a {@link Scope#PROTOTYPE} service: instances returned to the container are kept for reuse,
+ * up to {@link #maxIdle()} of them, so borrowing one skips construction and injection.
+ */
+@Target(TYPE)
+@Retention(RUNTIME)
+public @interface IAmPooled {
+
+    int maxIdle() default 8;
+}
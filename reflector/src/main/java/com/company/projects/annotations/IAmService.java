@@ -10,4 +10,5 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 @Retention(RUNTIME)
 public @interface IAmService {
 
+    Scope scope() default Scope.SINGLETON;
 }
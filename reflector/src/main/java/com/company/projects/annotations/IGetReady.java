@@ -0,0 +1,18 @@
+package com.company.projects.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * On a method without parameters of a service: called once all dependencies of the service are
+ * injected and the services it depends on are ready. The method may return a
+ * {@link java.util.concurrent.CompletionStage}, the service is then ready when the stage completes.
+ */
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface IGetReady {
+
+}
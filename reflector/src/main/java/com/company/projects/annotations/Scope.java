@@ -0,0 +1,23 @@
+package com.company.projects.annotations;
+
+/**
+ * How many instances of a service exist, see {@link IAmService#scope()}.
+ */
+public enum Scope {
+
+    /**
+     * One instance, shared by every bean and every lookup.
+     */
+    SINGLETON,
+
+    /**
+     * A new instance for every injection point and every lookup.
+     */
+    PROTOTYPE,
+
+    /**
+     * One instance per thread. Singletons depending on it receive a proxy, so the point
+     * must be declared with an interface type.
+     */
+    THREAD
+}
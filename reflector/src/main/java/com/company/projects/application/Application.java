@@ -0,0 +1,76 @@
+package com.company.projects.application;
+
+import com.company.projects.services.IService;
+
+import java.io.File;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class Application {
+
+    public static void main(String[] args) throws InterruptedException {
+
+        Reflector reflector = new Reflector();
+
+        List<Class<?>> services = new LinkedList<>();
+        List<BeanDescriptor> beanDescriptors = new LinkedList<>();
+        if (reflector.hasServiceIndex()) {
+            beanDescriptors = reflector.getIndexedServices();
+            beanDescriptors.forEach(d -> services.add(d.getBean()));
+            System.out.println("Services read from the compile-time index, class path scan skipped.");
+        } else {
+            List<File> packages = reflector.getAppPackages(Application.class.getPackage().getName());
+            System.out.println("Packages found in the project:\n==========================");
+            packages.forEach(p -> System.out.println(p.getName()));
+
+            List<Class<?>> classes = reflector.getApplicationClasses(packages);
+            System.out.println("\nClasses found in the project:\n==========================");
+            classes.forEach(c -> System.out.println(c.getSimpleName()));
+
+            services.addAll(reflector.collectServices(classes));
+            for (Class<?> service : services) {
+                BeanDescriptor beanDescriptor = reflector.mapDependencies(service);
+                beanDescriptors.add(beanDescriptor);
+            }
+        }
+        System.out.println("\nProject classes annotated as services:" +
+                "\n=====================================");
+        listServicesAndTheirDependencies(services, beanDescriptors);
+
+        System.out.println("\nAutowiring services:\n===================");
+        Map<String, Object> serviceInstancesMap = new LinkedHashMap<>();
+        try (EventSubscription instantiations = ContainerEvents.subscribe(new ConsoleEventListener(),
+                EnumSet.of(ContainerEvent.Type.INSTANTIATED))) {
+            reflector.wireBeans(beanDescriptors, serviceInstancesMap);
+            instantiations.awaitDelivery(1, TimeUnit.SECONDS);
+        }
+
+        System.out.printf("\nIn summary, %s services were autowired:"
+                         + "\n=====================================\n", serviceInstancesMap.size());
+        serviceInstancesMap
+                .values()
+                .forEach(s -> System.out.print(s.getClass().getSimpleName() + "; "));
+
+        DependencyGraph dependencyGraph = DependencyGraph.of(beanDescriptors);
+        Class<?> mostDependent = dependencyGraph.getMostDependent();
+        System.out.println("\n\nRecursive printing of simple names:"
+                + "\n==================================");
+        ((IService) serviceInstancesMap.get(mostDependent.getSimpleName())).printDeep();
+
+        System.out.println("\n\nStartup metrics:\n===============");
+        System.out.print(ContainerMetrics.snapshot());
+        System.out.println(CriticalPathReport.fromMetrics(reflector.planWiring(beanDescriptors),
+                ContainerMetrics.snapshot()));
+    }
+
+    public static void listServicesAndTheirDependencies(List<Class<?>> services,
+                                                        List<BeanDescriptor> beanDescriptors) {
+        services.forEach(s -> System.out.printf("%s;  ", s.getSimpleName()));
+        System.out.println("\n\nServices dependencies:\n=====================");
+        beanDescriptors.forEach(d -> System.out.printf("Service %s\n", d.listAllDependencies()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,204 @@
+package com.company.projects.application;
+
+import com.google.common.collect.ImmutableList;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.company.projects.utils.Utils.isEmpty;
+
+public class BeanDescriptor {
+
+    private Class<?> bean;
+    private Constructor<?> annotatedConstructor;
+    private List<Class<?>> constructorDependencies;
+    private Map<String, Class<?>> methodDependencies;
+    private Map<String, Class<?>> fieldDependencies;
+    private final Map<String, Method> injectionMethods = new ConcurrentHashMap<>();
+    private final Map<String, Field> injectionFields = new ConcurrentHashMap<>();
+    private volatile BeanInjector injector;
+    private volatile List<Class<?>> allDependencies;
+
+    public BeanDescriptor(Class<?> depender) {
+        this.bean = depender;
+        this.constructorDependencies = new ArrayList<>(0);
+        this.methodDependencies = new HashMap<>();
+        this.fieldDependencies = new HashMap<>();
+    }
+
+    /**
+     * Describes a bean from the dependency types recorded for it, by the service index, a class file
+     * scan or the descriptor cache. The constructor and the injection members are looked up and cached
+     * right away, as {@link Reflector} does for the bean classes it inspects.
+     *
+     * @param constructorDependencies The parameter types of the {@code @INeedThis} constructor, null if there is none
+     * @param methodDependencies The parameter type of every injection method, by method name
+     * @param fieldDependencies The type of every injection field, by field name
+     */
+    public static BeanDescriptor describe(Class<?> bean, List<Class<?>> constructorDependencies,
+                                          Map<String, Class<?>> methodDependencies,
+                                          Map<String, Class<?>> fieldDependencies)
+            throws ReflectiveOperationException {
+        BeanDescriptor descriptor = new BeanDescriptor(bean);
+        if (constructorDependencies != null) {
+            descriptor.setAnnotatedConstructor(
+                    bean.getDeclaredConstructor(constructorDependencies.toArray(new Class<?>[0])));
+            descriptor.setConstructorDependencies(constructorDependencies);
+        }
+        descriptor.setMethodDependencies(methodDependencies);
+        for (Map.Entry<String, Class<?>> dependency : methodDependencies.entrySet()) {
+            descriptor.cacheInjectionMethod(bean.getDeclaredMethod(dependency.getKey(), dependency.getValue()));
+        }
+        descriptor.setFieldDependencies(fieldDependencies);
+        for (String field : fieldDependencies.keySet()) {
+            descriptor.cacheInjectionField(bean.getDeclaredField(field));
+        }
+        return descriptor;
+    }
+
+    public Class<?> getBean() {
+        return bean;
+    }
+
+    public void setBean(Class<?> bean) {
+        this.bean = bean;
+    }
+
+    public Constructor<?> getAnnotatedConstructor() {
+        return annotatedConstructor;
+    }
+
+    public void setAnnotatedConstructor(Constructor<?> annotatedConstructor) {
+        this.annotatedConstructor = annotatedConstructor;
+        this.injector = null;
+    }
+
+    public List<Class<?>> getConstructorDependencies() {
+        return this.constructorDependencies;
+    }
+
+    public void setConstructorDependencies(List<Class<?>> constructorDependencies) {
+        this.constructorDependencies = constructorDependencies;
+        this.injector = null;
+        this.allDependencies = null;
+    }
+
+    public Map<String, Class<?>> getMethodDependencies() {
+        return methodDependencies;
+    }
+
+    public void setMethodDependencies(Map<String, Class<?>> methodDependencies) {
+        this.methodDependencies = methodDependencies;
+        this.injector = null;
+        this.allDependencies = null;
+    }
+
+    public Map<String, Class<?>> getFieldDependencies() {
+        return fieldDependencies;
+    }
+
+    public void setFieldDependencies(Map<String, Class<?>> fieldDependencies) {
+        this.fieldDependencies = fieldDependencies;
+        this.injector = null;
+        this.allDependencies = null;
+    }
+
+    /**
+     * Returns the accessible {@code @INeedThis} method with the given name,
+     * looking it up only on first use.
+     */
+    public Method getInjectionMethod(String name) throws NoSuchMethodException {
+        Method method = injectionMethods.get(name);
+        if (method == null) {
+            method = bean.getDeclaredMethod(name, methodDependencies.get(name));
+            cacheInjectionMethod(method);
+        }
+        return method;
+    }
+
+    public void cacheInjectionMethod(Method method) {
+        method.setAccessible(true);
+        injectionMethods.put(method.getName(), method);
+    }
+
+    /**
+     * Returns the accessible {@code @INeedThis} field with the given name,
+     * looking it up only on first use.
+     */
+    public Field getInjectionField(String name) throws NoSuchFieldException {
+        Field field = injectionFields.get(name);
+        if (field == null) {
+            field = bean.getDeclaredField(name);
+            cacheInjectionField(field);
+        }
+        return field;
+    }
+
+    public void cacheInjectionField(Field field) {
+        field.setAccessible(true);
+        injectionFields.put(field.getName(), field);
+    }
+
+    /**
+     * Returns the method handle based injector of this bean, building it on first use.
+     */
+    public BeanInjector getInjector() throws ReflectiveOperationException {
+        BeanInjector beanInjector = injector;
+        if (beanInjector == null) {
+            synchronized (this) {
+                beanInjector = injector;
+                if (beanInjector == null) {
+                    beanInjector = new BeanInjector(this);
+                    injector = beanInjector;
+                }
+            }
+        }
+        return beanInjector;
+    }
+
+    /**
+     * Returns the constructor, method and field dependencies, in that order. The list is built once and
+     * shared. Dependencies added to the maps directly after the first call are not seen, use the setters
+     * to change a described bean.
+     */
+    public List<Class<?>> collectAllDependencies() {
+        List<Class<?>> dependencies = allDependencies;
+        if (dependencies == null) {
+            dependencies = ImmutableList.<Class<?>>builder()
+                    .addAll(constructorDependencies)
+                    .addAll(methodDependencies.values())
+                    .addAll(fieldDependencies.values())
+                    .build();
+            allDependencies = dependencies;
+        }
+        return dependencies;
+    }
+
+    public String listAllDependencies() {
+        List<Class<?>> allDependencies = collectAllDependencies();
+        if (isEmpty(allDependencies)) {
+            return bean.getSimpleName() + " has no dependencies";
+        }
+        StringBuilder lister = new StringBuilder();
+        for (int i = 0; i < allDependencies.size(); i++) {
+            Class<?> cl = allDependencies.get(i);
+            if(lister.toString().isEmpty()) {
+                lister.append(bean.getSimpleName() + " depends on ");
+                lister.append(allDependencies.size() == 1
+                        ? cl.getSimpleName()
+                        : cl.getSimpleName() + ", ");
+            } else if (i == allDependencies.size() - 1) {
+                lister.append(cl.getSimpleName());
+            } else {
+                lister.append(cl.getSimpleName() + ", ");
+            }
+        }
+        return lister.toString();
+    }
+}
@@ -0,0 +1,130 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IGetReady;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Calls the {@link IGetReady} methods of beans. Methods of superclasses run first, so that a subclass
+ * can rely on what its superclass prepared. A method returning a {@link CompletionStage} keeps the bean
+ * from being ready until the stage completes, the next method is called right away so that the warm-ups
+ * of a bean overlap as well.
+ */
+final class BeanInitializer {
+
+    private static final ClassValue<List<Method>> INIT_METHODS = new ClassValue<List<Method>>() {
+        @Override
+        protected List<Method> computeValue(Class<?> type) {
+            return initMethodsOf(type);
+        }
+    };
+
+    private static final CompletableFuture<Void> READY = CompletableFuture.completedFuture(null);
+
+    private BeanInitializer() {
+    }
+
+    /**
+     * Calls the init methods of the bean on the calling thread.
+     *
+     * @return A future completing once every stage returned by the methods has completed,
+     *         failing with the first exception thrown or returned by a method
+     */
+    static CompletableFuture<Void> initialize(Object bean) {
+        List<Method> methods = INIT_METHODS.get(bean.getClass());
+        if (methods.isEmpty()) {
+            return READY;
+        }
+        ContainerMetrics.Probe probe = ContainerMetrics.start(StartupPhase.BEAN_INITIALIZATION);
+        List<CompletableFuture<?>> pending = new ArrayList<>(methods.size());
+        for (Method method : methods) {
+            try {
+                Object result = method.invoke(bean);
+                if (result instanceof CompletionStage) {
+                    pending.add(((CompletionStage<?>) result).toCompletableFuture());
+                }
+            } catch (InvocationTargetException e) {
+                return failed(probe, bean, e.getCause());
+            } catch (IllegalAccessException | RuntimeException e) {
+                return failed(probe, bean, e);
+            }
+        }
+        CompletableFuture<Void> ready = pending.isEmpty()
+                ? READY
+                : CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]));
+        return ready.whenComplete((ignored, failure) -> {
+            probe.stop(bean.getClass().getName());
+            if (failure != null) {
+                ContainerEvents.failed("initialization of " + bean.getClass().getName(),
+                        failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+            } else {
+                ContainerEvents.publish(ContainerEvent.Type.READY, bean.getClass().getName());
+            }
+        });
+    }
+
+    /**
+     * Waits for the future of {@link #initialize(Object)} and rethrows its failure unchecked.
+     */
+    static void await(CompletableFuture<?> ready) {
+        try {
+            ready.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw cause instanceof RuntimeException
+                    ? (RuntimeException) cause
+                    : new RuntimeException(cause.getMessage(), cause);
+        }
+    }
+
+    private static CompletableFuture<Void> failed(ContainerMetrics.Probe probe, Object bean, Throwable failure) {
+        probe.stop(bean.getClass().getName());
+        ContainerEvents.failed("initialization of " + bean.getClass().getName(), failure);
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        future.completeExceptionally(failure);
+        return future;
+    }
+
+    private static List<Method> initMethodsOf(Class<?> type) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> klass = type; klass != null && klass != Object.class; klass = klass.getSuperclass()) {
+            hierarchy.add(klass);
+        }
+        Collections.reverse(hierarchy);
+        // Walking down from the top, an overriding method replaces the one of its superclass
+        List<Method> methods = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (Class<?> klass : hierarchy) {
+            for (Method method : klass.getDeclaredMethods()) {
+                if (!method.isAnnotationPresent(IGetReady.class)) {
+                    continue;
+                }
+                if (method.getParameterCount() != 0 || Modifier.isStatic(method.getModifiers())) {
+                    throw new IllegalStateException("Init method " + klass.getName() + "." + method.getName()
+                            + " must be an instance method without parameters");
+                }
+                if (method.getReturnType() != void.class
+                        && !CompletionStage.class.isAssignableFrom(method.getReturnType())) {
+                    throw new IllegalStateException("Init method " + klass.getName() + "." + method.getName()
+                            + " must return void or a CompletionStage");
+                }
+                method.setAccessible(true);
+                if (!names.add(method.getName())) {
+                    methods.removeIf(inherited -> inherited.getName().equals(method.getName()));
+                }
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+}
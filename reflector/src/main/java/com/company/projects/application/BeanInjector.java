@@ -0,0 +1,105 @@
+package com.company.projects.application;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.company.projects.utils.Utils.isEmpty;
+
+/**
+ * Instantiator and injection-point setters of one bean, built once from its descriptor
+ * as {@link MethodHandle}s of erased type so that they can be invoked exactly.
+ * Access checks are done when the handles are created, not on every call.
+ * The handles are held in fields, so they are not constants the JIT could inline;
+ * what they save over reflection is the per-call checks and argument boxing.
+ *
+ * Setters are numbered, method setters first, and a {@link WiringPlan} resolves every injection point
+ * to its number once, so that injecting does not look anything up by name.
+ */
+public class BeanInjector {
+
+    private static final MethodType INSTANTIATOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final MethodHandle instantiator;
+    private final MethodHandle[] setters;
+    private final Map<String, Integer> methodSetters = new HashMap<>();
+    private final Map<String, Integer> fieldSetters = new HashMap<>();
+
+    BeanInjector(BeanDescriptor descriptor) throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Class<?> bean = descriptor.getBean();
+
+        Constructor<?> constructor = isEmpty(descriptor.getConstructorDependencies())
+                ? bean.getDeclaredConstructor()
+                : descriptor.getAnnotatedConstructor();
+        constructor.setAccessible(true);
+        this.instantiator = lookup.unreflectConstructor(constructor)
+                .asSpreader(Object[].class, constructor.getParameterCount())
+                .asType(INSTANTIATOR_TYPE);
+
+        this.setters = new MethodHandle[descriptor.getMethodDependencies().size()
+                + descriptor.getFieldDependencies().size()];
+        int setter = 0;
+        for (String methodName : descriptor.getMethodDependencies().keySet()) {
+            Method method = descriptor.getInjectionMethod(methodName);
+            setters[setter] = lookup.unreflect(method).asType(SETTER_TYPE);
+            methodSetters.put(methodName, setter++);
+        }
+        for (String fieldName : descriptor.getFieldDependencies().keySet()) {
+            Field field = descriptor.getInjectionField(fieldName);
+            setters[setter] = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+            fieldSetters.put(fieldName, setter++);
+        }
+    }
+
+    /**
+     * @param byMethod Whether the injection point is a method or a field
+     * @return The number of the setter of the injection point, for {@link #inject(Object, int, Object)}
+     * @throws IllegalArgumentException If the bean has no such injection point
+     */
+    public int setterOf(boolean byMethod, String name) {
+        Integer setter = (byMethod ? methodSetters : fieldSetters).get(name);
+        if (setter == null) {
+            throw new IllegalArgumentException("No injection " + (byMethod ? "method " : "field ") + name);
+        }
+        return setter;
+    }
+
+    public Object newInstance(Object[] dependencies) throws Exception {
+        try {
+            return (Object) instantiator.invokeExact(dependencies);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    public void injectByMethod(Object beanInstance, String methodName, Object dependency) throws Exception {
+        inject(beanInstance, setterOf(true, methodName), dependency);
+    }
+
+    public void injectByField(Object beanInstance, String fieldName, Object dependency) throws Exception {
+        inject(beanInstance, setterOf(false, fieldName), dependency);
+    }
+
+    /**
+     * @param setter The number of the setter, see {@link #setterOf(boolean, String)}
+     */
+    public void inject(Object beanInstance, int setter, Object dependency) throws Exception {
+        try {
+            setters[setter].invokeExact(beanInstance, dependency);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+}
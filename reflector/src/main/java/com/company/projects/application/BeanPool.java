@@ -0,0 +1,48 @@
+package com.company.projects.application;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, lock-free pool of idle instances of one prototype bean. Borrowing from an empty pool
+ * creates a new instance, returning an instance to a full pool drops it.
+ */
+class BeanPool {
+
+    private final Supplier<Object> factory;
+    private final int maxIdle;
+    private final Queue<Object> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    BeanPool(Supplier<Object> factory, int maxIdle) {
+        this.factory = factory;
+        this.maxIdle = maxIdle;
+    }
+
+    Object borrow() {
+        Object bean = idle.poll();
+        if (bean == null) {
+            return factory.get();
+        }
+        idleCount.decrementAndGet();
+        return bean;
+    }
+
+    /**
+     * @return Whether the instance was kept for reuse
+     */
+    boolean release(Object bean) {
+        if (idleCount.incrementAndGet() > maxIdle) {
+            idleCount.decrementAndGet();
+            return false;
+        }
+        idle.offer(bean);
+        return true;
+    }
+
+    int getIdle() {
+        return idleCount.get();
+    }
+}
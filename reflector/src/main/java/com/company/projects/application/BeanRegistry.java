@@ -0,0 +1,276 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IAmLeaving;
+import com.company.projects.annotations.IAmPooled;
+import com.company.projects.annotations.IGetReady;
+import com.company.projects.annotations.Scope;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Thread-safe container of the beans of a {@link WiringPlan}, looked up by type or by name.
+ *
+ * Beans are created on first request, together with the beans they need. The lookup tables are
+ * built once and never change, and complete beans are published through an atomic array, so a
+ * request for an existing bean is two reads without any locking. Creation locks each bean on its
+ * own, so first requests for unrelated beans do not wait for each other.
+ *
+ * Beans are registered under their class, their fully qualified name and, when no other bean
+ * shares it, their simple name. They can also be requested by any interface or superclass,
+ * resolved through a {@link TypeIndex}.
+ *
+ * Beans are returned once their {@link IGetReady} methods have completed, and those of the beans they need.
+ *
+ * Every request for a prototype bean returns a new instance, and every request for a thread-scoped
+ * bean the instance of the calling thread. Prototypes annotated {@link IAmPooled} can also be borrowed
+ * and returned, so hot paths reuse instances instead of creating and injecting them each time.
+ *
+ * Closing the registry destroys the singletons created so far in reverse dependency order.
+ * Prototype and thread-scoped beans are not tracked and have to be destroyed by their users.
+ */
+public class BeanRegistry implements AutoCloseable {
+
+    private static final Object PREPARED = new Object();
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final WiringPlan plan;
+    private final WiringPlan.Execution execution;
+    private final Map<Class<?>, Integer> indexByType = new HashMap<>();
+    private final Map<String, Integer> indexByName = new HashMap<>();
+    private final Map<String, Set<String>> ambiguousNames = new HashMap<>();
+    private final TypeIndex types;
+    private final AtomicReferenceArray<Object> ready;
+    private final BeanPool[] pools;
+    private volatile DependencyGraph dependencyGraph;
+    private final AtomicBoolean shutDown = new AtomicBoolean();
+
+    BeanRegistry(WiringPlan plan, WiringPlan.Execution execution) {
+        this.plan = plan;
+        this.execution = execution;
+        this.ready = new AtomicReferenceArray<>(plan.size());
+        this.pools = new BeanPool[plan.size()];
+        Map<String, Integer> simpleNames = new HashMap<>();
+        List<Class<?>> beans = new ArrayList<>(plan.size());
+        for (int i = 0; i < plan.size(); i++) {
+            Class<?> bean = plan.beanAt(i);
+            beans.add(bean);
+            IAmPooled pooled = bean.getAnnotation(IAmPooled.class);
+            if (pooled != null) {
+                if (plan.scopeAt(i) != Scope.PROTOTYPE) {
+                    throw new IllegalStateException("Bean " + bean.getName() + " is pooled but not a prototype");
+                }
+                int index = i;
+                pools[i] = new BeanPool(() -> getBean(index), pooled.maxIdle());
+            }
+            indexByType.put(bean, i);
+            indexByName.put(bean.getName(), i);
+            Integer previous = simpleNames.put(bean.getSimpleName(), i);
+            if (previous != null) {
+                ambiguousNames.computeIfAbsent(bean.getSimpleName(), name -> new LinkedHashSet<>())
+                        .add(plan.beanAt(previous).getName());
+                ambiguousNames.get(bean.getSimpleName()).add(bean.getName());
+            }
+        }
+        simpleNames.keySet().removeAll(ambiguousNames.keySet());
+        simpleNames.forEach(indexByName::putIfAbsent);
+        this.types = new TypeIndex(beans);
+    }
+
+    /**
+     * @param type The class of the bean, or an interface or superclass implemented by a single bean
+     * @return The bean, created on first request
+     * @throws NoSuchBeanException If no bean or several beans are of this type
+     */
+    public <T> T getBean(Class<T> type) {
+        return type.cast(getBean(indexOf(type)));
+    }
+
+    /**
+     * @return All beans assignable to the given type, created on first request, in plan order
+     */
+    public <T> List<T> getBeansOfType(Class<T> type) {
+        List<T> beans = new ArrayList<>();
+        for (Class<?> implementation : types.getImplementations(type)) {
+            beans.add(type.cast(getBean(indexByType.get(implementation))));
+        }
+        return beans;
+    }
+
+    /**
+     * @param name The fully qualified or, if unique, simple class name of the bean
+     * @return The bean, created on first request
+     * @throws NoSuchBeanException If no bean or several beans have this name
+     */
+    public Object getBean(String name) {
+        Integer index = indexByName.get(name);
+        if (index == null) {
+            Set<String> candidates = ambiguousNames.get(name);
+            throw new NoSuchBeanException(candidates == null
+                    ? "No bean named " + name
+                    : "No unique bean named " + name + ": " + candidates);
+        }
+        return getBean(index);
+    }
+
+    /**
+     * Takes an idle instance of a pooled prototype, or creates one if none is idle.
+     * The instance should be given back with {@link #release(Object)} once it is no longer used.
+     *
+     * @throws NoSuchBeanException If the type does not match a single bean
+     * @throws IllegalArgumentException If the bean is not pooled
+     */
+    public <T> T borrow(Class<T> type) {
+        return type.cast(poolOf(indexOf(type)).borrow());
+    }
+
+    /**
+     * Gives back an instance obtained from {@link #borrow(Class)}. The instance must not be used afterwards.
+     *
+     * @return Whether the instance was kept for reuse, false if the pool was full
+     */
+    public boolean release(Object bean) {
+        Integer index = indexByType.get(bean.getClass());
+        if (index == null) {
+            throw new NoSuchBeanException("No bean of type " + bean.getClass().getName());
+        }
+        return poolOf(index).release(bean);
+    }
+
+    /**
+     * Drops the thread-scoped beans of the calling thread, which get new instances on their next use.
+     */
+    public void endThreadScope() {
+        execution.endThreadScope();
+    }
+
+    /**
+     * Destroys the singletons created so far with a timeout of {@value #CLOSE_TIMEOUT_SECONDS} seconds
+     * per bean, on a thread pool created for the purpose, see {@link #shutdown(Executor, long, TimeUnit)}.
+     *
+     * @throws IllegalStateException If a bean failed to be destroyed or ran out of time
+     */
+    @Override
+    public void close() {
+        if (shutDown.get()) {
+            return;
+        }
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "reflector-shutdown");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            ShutdownReport report = shutdown(executor, CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (!report.isSuccessful()) {
+                throw new IllegalStateException("Shutdown incomplete: " + report);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Destroys the singletons created so far, each once every bean depending on it was destroyed,
+     * independent beans concurrently on the executor. Calls their {@link IAmLeaving} methods and
+     * closes them if they are {@link AutoCloseable}. The registry must not be used afterwards.
+     *
+     * @param timeout The time each bean has to be destroyed
+     * @throws IllegalStateException If the registry was already shut down
+     */
+    public ShutdownReport shutdown(Executor executor, long timeout, TimeUnit unit) {
+        if (!shutDown.compareAndSet(false, true)) {
+            throw new IllegalStateException("Registry already shut down");
+        }
+        return plan.shutdown(execution.createdSingletons(), executor, timeout, unit);
+    }
+
+    public boolean containsBean(Class<?> type) {
+        return indexByType.containsKey(type) || !types.getImplementations(type).isEmpty();
+    }
+
+    public boolean containsBean(String name) {
+        return indexByName.containsKey(name);
+    }
+
+    /**
+     * @return The classes of all beans of the registry, created or not
+     */
+    public Set<Class<?>> getBeanTypes() {
+        return Collections.unmodifiableSet(indexByType.keySet());
+    }
+
+    public int size() {
+        return plan.size();
+    }
+
+    /**
+     * @return The dependency graph of the beans of the registry, built on first use
+     */
+    public DependencyGraph getDependencyGraph() {
+        DependencyGraph graph = dependencyGraph;
+        if (graph == null) {
+            graph = DependencyGraph.of(plan.getOrder());
+            dependencyGraph = graph;
+        }
+        return graph;
+    }
+
+    private int indexOf(Class<?> type) {
+        Integer index = indexByType.get(type);
+        if (index == null) {
+            List<Class<?>> implementations = types.getImplementations(type);
+            if (implementations.size() != 1) {
+                throw new NoSuchBeanException(implementations.isEmpty()
+                        ? "No bean of type " + type.getName()
+                        : "No unique bean of type " + type.getName()
+                                + ", candidates: " + TypeIndex.names(implementations));
+            }
+            index = indexByType.get(implementations.get(0));
+        }
+        return index;
+    }
+
+    private BeanPool poolOf(int index) {
+        BeanPool pool = pools[index];
+        if (pool == null) {
+            throw new IllegalArgumentException("Bean " + plan.beanAt(index).getName() + " is not pooled");
+        }
+        return pool;
+    }
+
+    private Object getBean(int index) {
+        Object bean = ready.get(index);
+        if (bean == null) {
+            bean = prepare(index);
+        }
+        return bean == PREPARED ? execution.obtain(index) : bean;
+    }
+
+    /**
+     * Creates the singletons the bean needs, and the bean itself if it is a singleton, then publishes
+     * them. A singleton is published only after its deferred injections, so other threads never see
+     * it half wired. Prototype and thread-scoped beans are marked as prepared, they are created on
+     * every request or once per thread.
+     */
+    private Object prepare(int index) {
+        for (int singleton : execution.prepare(index)) {
+            ready.compareAndSet(singleton, null, execution.obtain(singleton));
+        }
+        if (plan.scopeAt(index) != Scope.SINGLETON) {
+            ready.compareAndSet(index, null, PREPARED);
+        }
+        return ready.get(index);
+    }
+}
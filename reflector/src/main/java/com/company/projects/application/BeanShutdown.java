@@ -0,0 +1,267 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IAmLeaving;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the destroy callbacks of the beans of a plan in reverse dependency order: a bean is destroyed
+ * once every bean depending on it has been, and beans that do not depend on each other are destroyed
+ * concurrently on the executor. Shutdown therefore takes as long as the longest chain of callbacks,
+ * not their sum.
+ *
+ * Lazy and deferred injections can make beans depend on each other in a cycle. The beans of a cycle
+ * are destroyed in reverse plan order, the order they would have been destroyed in without the cycle.
+ *
+ * Each bean has the given time to be destroyed. Once it fails or runs out of time, the beans it depends
+ * on are destroyed anyway, so that one stuck callback cannot keep the rest from being released.
+ */
+class BeanShutdown {
+
+    private static final ClassValue<List<Method>> DESTROY_METHODS = new ClassValue<List<Method>>() {
+        @Override
+        protected List<Method> computeValue(Class<?> type) {
+            return destroyMethodsOf(type);
+        }
+    };
+
+    private final Object[] instances;
+    private final String[] names;
+    private final int[][] dependencies;
+
+    /**
+     * @param instances    The beans in plan order, null for beans that were not created
+     * @param dependencies For every bean, the beans it depends on, in any order of the plan
+     */
+    BeanShutdown(Object[] instances, String[] names, int[][] dependencies) {
+        this.instances = instances;
+        this.names = names;
+        this.dependencies = withoutCycles(dependencies);
+    }
+
+    /**
+     * @return Whether the class has anything to call on shutdown
+     */
+    static boolean hasDestroyCallbacks(Class<?> type) {
+        return AutoCloseable.class.isAssignableFrom(type) || !DESTROY_METHODS.get(type).isEmpty();
+    }
+
+    ShutdownReport run(Executor executor, long timeout, TimeUnit unit) {
+        long start = System.nanoTime();
+        int size = instances.length;
+        List<List<CompletableFuture<Void>>> dependents = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            dependents.add(new ArrayList<>());
+        }
+        Queue<String> destroyed = new ConcurrentLinkedQueue<>();
+        Map<String, Throwable> failures = Collections.synchronizedMap(new LinkedHashMap<>());
+        Queue<String> timedOut = new ConcurrentLinkedQueue<>();
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "reflector-shutdown-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        List<CompletableFuture<Void>> done = new ArrayList<>(size);
+        List<CompletableFuture<Void>> released = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                int index = i;
+                CompletableFuture<Void> destroyedOrFailed = new CompletableFuture<>();
+                done.add(destroyedOrFailed);
+                // Failures are recorded, the beans it depends on are released either way
+                released.add(destroyedOrFailed.handle((ignored, failure) -> {
+                    if (failure instanceof TimeoutException) {
+                        timedOut.add(names[index]);
+                    } else if (failure != null) {
+                        failures.put(names[index], failure);
+                    } else if (instances[index] != null && hasDestroyCallbacks(instances[index].getClass())) {
+                        destroyed.add(names[index]);
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < size; i++) {
+                for (int dependency : dependencies[i]) {
+                    dependents.get(dependency).add(released.get(i));
+                }
+            }
+            // Every future exists before the first bean is scheduled, dependents may come anywhere in the plan
+            for (int i = size - 1; i >= 0; i--) {
+                int index = i;
+                CompletableFuture<Void> destroyedOrFailed = done.get(i);
+                CompletableFuture.allOf(dependents.get(i).toArray(new CompletableFuture<?>[0])).whenComplete(
+                        (ignored, failure) -> destroy(index, executor, timer, timeout, unit, destroyedOrFailed));
+            }
+            CompletableFuture.allOf(released.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            timer.shutdownNow();
+        }
+        return new ShutdownReport(new ArrayList<>(destroyed), new LinkedHashMap<>(failures), new ArrayList<>(timedOut),
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Drops the dependencies closing a cycle: between beans of the same strongly connected component,
+     * only dependencies on beans earlier in plan order are kept. What is left has no cycle, as the
+     * components themselves depend on each other without one.
+     */
+    private static int[][] withoutCycles(int[][] dependencies) {
+        int[] component = components(dependencies);
+        int[][] acyclic = new int[dependencies.length][];
+        for (int i = 0; i < dependencies.length; i++) {
+            int index = i;
+            acyclic[i] = Arrays.stream(dependencies[i])
+                    .filter(dependency -> dependency < index || component[dependency] != component[index])
+                    .toArray();
+        }
+        return acyclic;
+    }
+
+    /**
+     * Iterative Tarjan, as in {@link DependencyGraph}.
+     *
+     * @return For every bean, the id of its strongly connected component
+     */
+    private static int[] components(int[][] dependencies) {
+        int size = dependencies.length;
+        int[] index = new int[size];
+        int[] low = new int[size];
+        int[] component = new int[size];
+        boolean[] onStack = new boolean[size];
+        Arrays.fill(index, -1);
+        int[] stack = new int[size];
+        int stackTop = 0;
+        int[] callNode = new int[size];
+        int[] callEdge = new int[size];
+        int counter = 0;
+        int components = 0;
+
+        for (int root = 0; root < size; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int callTop = 0;
+            callNode[callTop] = root;
+            callEdge[callTop++] = 0;
+            index[root] = low[root] = counter++;
+            stack[stackTop++] = root;
+            onStack[root] = true;
+            while (callTop > 0) {
+                int node = callNode[callTop - 1];
+                int edge = callEdge[callTop - 1];
+                if (edge < dependencies[node].length) {
+                    callEdge[callTop - 1]++;
+                    int dependency = dependencies[node][edge];
+                    if (index[dependency] < 0) {
+                        index[dependency] = low[dependency] = counter++;
+                        stack[stackTop++] = dependency;
+                        onStack[dependency] = true;
+                        callNode[callTop] = dependency;
+                        callEdge[callTop++] = 0;
+                    } else if (onStack[dependency]) {
+                        low[node] = Math.min(low[node], index[dependency]);
+                    }
+                    continue;
+                }
+                callTop--;
+                if (callTop > 0) {
+                    int caller = callNode[callTop - 1];
+                    low[caller] = Math.min(low[caller], low[node]);
+                }
+                if (low[node] == index[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackTop];
+                        onStack[member] = false;
+                        component[member] = components;
+                    } while (member != node);
+                    components++;
+                }
+            }
+        }
+        return component;
+    }
+
+    private void destroy(int index, Executor executor, ScheduledThreadPoolExecutor timer, long timeout,
+                         TimeUnit unit, CompletableFuture<Void> done) {
+        Object bean = instances[index];
+        if (bean == null || !hasDestroyCallbacks(bean.getClass())) {
+            done.complete(null);
+            return;
+        }
+        timer.schedule(() -> done.completeExceptionally(new TimeoutException(
+                "Bean " + names[index] + " was not destroyed within " + timeout + " " + unit)), timeout, unit);
+        try {
+            executor.execute(() -> {
+                try {
+                    invokeDestroyCallbacks(bean);
+                    done.complete(null);
+                } catch (Throwable e) {
+                    done.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            done.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Calls the {@link IAmLeaving} methods of the bean, then {@link AutoCloseable#close()} unless
+     * it is one of them.
+     */
+    static void invokeDestroyCallbacks(Object bean) throws Exception {
+        boolean closed = false;
+        for (Method method : DESTROY_METHODS.get(bean.getClass())) {
+            try {
+                method.invoke(bean);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+                throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+            }
+            closed |= method.getName().equals("close");
+        }
+        if (!closed && bean instanceof AutoCloseable) {
+            ((AutoCloseable) bean).close();
+        }
+    }
+
+    private static List<Method> destroyMethodsOf(Class<?> type) {
+        List<Method> methods = new ArrayList<>();
+        Set<String> overridden = new HashSet<>();
+        for (Class<?> klass = type; klass != null && klass != Object.class; klass = klass.getSuperclass()) {
+            for (Method method : klass.getDeclaredMethods()) {
+                if (!method.isAnnotationPresent(IAmLeaving.class) || !overridden.add(method.getName())) {
+                    continue;
+                }
+                if (method.getParameterCount() != 0 || Modifier.isStatic(method.getModifiers())) {
+                    throw new IllegalStateException("Destroy method " + klass.getName() + "." + method.getName()
+                            + " must be an instance method without parameters");
+                }
+                method.setAccessible(true);
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+}
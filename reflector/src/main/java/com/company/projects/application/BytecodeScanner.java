@@ -0,0 +1,78 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds {@code @IAmService} classes and their {@code @INeedThis} members by reading class files
+ * with {@link ClassFileReader}. Only the services and their dependency types are loaded,
+ * none of them is initialized, and every other class of the scanned packages stays untouched.
+ */
+public class BytecodeScanner {
+
+    private static final String SERVICE_DESCRIPTOR = ClassFileReader.descriptorOf(IAmService.class);
+    private static final String DEPENDENCY_DESCRIPTOR = ClassFileReader.descriptorOf(INeedThis.class);
+
+    private final ProjectScanner projectScanner;
+    private final ClassLoader classLoader;
+
+    public BytecodeScanner(ProjectScanner projectScanner, ClassLoader classLoader) {
+        this.projectScanner = projectScanner;
+        this.classLoader = classLoader;
+    }
+
+    public List<BeanDescriptor> getServices(String packageName) throws IOException, ReflectiveOperationException {
+        List<ClassFileReader.ClassInfo> services = new LinkedList<>();
+        projectScanner.forEachClassFile(packageName, (className, classFile) -> {
+            ClassFileReader.ClassInfo classInfo = ClassFileReader.read(classFile, SERVICE_DESCRIPTOR);
+            if (classInfo != null && classInfo.isAnnotatedWith(SERVICE_DESCRIPTOR)) {
+                services.add(classInfo);
+            }
+        });
+        List<BeanDescriptor> descriptors = new LinkedList<>();
+        for (ClassFileReader.ClassInfo service : services) {
+            descriptors.add(describe(service));
+        }
+        return descriptors;
+    }
+
+    private BeanDescriptor describe(ClassFileReader.ClassInfo service) throws ReflectiveOperationException {
+        List<Class<?>> constructorDependencies = null;
+        Map<String, Class<?>> methodDependencies = new HashMap<>();
+        Map<String, Class<?>> fieldDependencies = new HashMap<>();
+        for (ClassFileReader.MemberInfo member : service.getMembers()) {
+            if (!member.isAnnotatedWith(DEPENDENCY_DESCRIPTOR)) {
+                continue;
+            }
+            if (member.getKind() == ClassFileReader.MemberInfo.Kind.FIELD) {
+                fieldDependencies.put(member.getName(), loadType(member.getDescriptor()));
+            } else if (member.isConstructor()) {
+                if (constructorDependencies == null) {
+                    constructorDependencies = loadParameterTypes(member.getDescriptor());
+                }
+            } else {
+                methodDependencies.put(member.getName(), loadParameterTypes(member.getDescriptor()).get(0));
+            }
+        }
+        return BeanDescriptor.describe(ServiceIndex.loadClass(service.getName(), classLoader),
+                constructorDependencies, methodDependencies, fieldDependencies);
+    }
+
+    private List<Class<?>> loadParameterTypes(String methodDescriptor) throws ClassNotFoundException {
+        List<Class<?>> parameterTypes = new LinkedList<>();
+        for (String parameter : ClassFileReader.parameterDescriptors(methodDescriptor)) {
+            parameterTypes.add(loadType(parameter));
+        }
+        return parameterTypes;
+    }
+
+    private Class<?> loadType(String descriptor) throws ClassNotFoundException {
+        return ServiceIndex.loadClass(ClassFileReader.typeName(descriptor), classLoader);
+    }
+}
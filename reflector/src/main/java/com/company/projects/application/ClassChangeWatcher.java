@@ -0,0 +1,493 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IAmService;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches the class directories below a package and re-wires the part of the bean graph
+ * affected by changed class files: the changed services and every bean depending on them,
+ * directly or transitively. Unaffected beans keep their instances.
+ *
+ * A class cannot be redefined in the class loader that loaded it, so every batch of changes
+ * is loaded by a new generation class loader. It defines the changed classes and the affected
+ * services from their class files and delegates everything else to the previous generation,
+ * so unaffected beans and the new ones share their types. A modified class that is not a service
+ * may be used by any bean, and forces all beans to be rebuilt, from a generation defining every
+ * watched class again so that none of them is still linked to the old version.
+ *
+ * Once the new beans are wired, the beans they replace and the beans of removed services are
+ * destroyed, dependents first, as on shutdown, and only then swapped out of the bean map.
+ *
+ * A batch is applied as a whole or not at all: if a changed class cannot be loaded, for instance
+ * because its class file is still being written, or the beans cannot be wired, the previous
+ * services and beans stay in place and the batch is tried again with the next changes.
+ *
+ * Only exploded class directories can be watched; services in jars are never re-wired.
+ * The bean map is updated from the thread processing the changes, so it should be a
+ * concurrent map if beans are looked up while the watcher is running.
+ */
+public class ClassChangeWatcher implements Closeable {
+
+    private static final long QUIET_PERIOD_MILLIS = 200;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final Reflector reflector;
+    private final Map<String, Object> beanInstances;
+    private final Map<String, BeanDescriptor> services = new LinkedHashMap<>();
+    private final Map<Path, String> roots = new LinkedHashMap<>();
+    private final Map<String, Path> classFiles = new HashMap<>();
+    private final Map<String, Long> fingerprints = new HashMap<>();
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private final Set<String> pendingChanged = new LinkedHashSet<>();
+    private final Set<String> pendingAdded = new LinkedHashSet<>();
+    private final Set<String> pendingRemoved = new LinkedHashSet<>();
+    private ClassLoader classLoader;
+    private Thread thread;
+
+    /**
+     * @param packageName   The package whose parent package is watched, as for {@link ProjectScanner#getClassNames(String)}
+     * @param descriptors   The services currently wired
+     * @param beanInstances The beans currently wired, updated on every change
+     */
+    public ClassChangeWatcher(Reflector reflector, String packageName, List<BeanDescriptor> descriptors,
+                              Map<String, Object> beanInstances) throws IOException {
+        this.reflector = reflector;
+        this.beanInstances = beanInstances;
+        this.classLoader = Thread.currentThread().getContextClassLoader();
+        for (BeanDescriptor descriptor : descriptors) {
+            services.put(descriptor.getBean().getName(), descriptor);
+        }
+        this.watchService = FileSystems.getDefault().newWatchService();
+
+        String path = packageName.replace(".", "/");
+        String parentPath = path.substring(0, path.lastIndexOf("/"));
+        Enumeration<URL> resources = classLoader.getResources(parentPath);
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            if ("file".equals(resource.getProtocol())) {
+                Path root = ProjectScanner.toFile(resource).toPath();
+                roots.put(root, parentPath.replace("/", "."));
+                register(root);
+            }
+        }
+        for (Path directory : directories.values()) {
+            for (Map.Entry<String, Path> classFile : listClassFiles(directory).entrySet()) {
+                classFiles.put(classFile.getKey(), classFile.getValue());
+                fingerprints.put(classFile.getKey(), fingerprint(classFile.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Processes changes on a daemon thread until the watcher is closed.
+     *
+     * @param listener Receives the report of every batch of changes
+     */
+    public synchronized void start(Consumer<RewireReport> listener) {
+        if (thread != null) {
+            throw new IllegalStateException("Class change watcher already started");
+        }
+        thread = new Thread(() -> {
+            try {
+                while (true) {
+                    listener.accept(awaitChanges());
+                }
+            } catch (ClosedWatchServiceException | InterruptedException e) {
+                // closed
+            } catch (IOException e) {
+                ContainerEvents.failed("watching of class files", e);
+            }
+        }, "reflector-class-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Waits for class files to change, collects further changes until none arrived for a short
+     * quiet period, so that a whole compilation is handled at once, and re-wires the affected beans.
+     */
+    public RewireReport awaitChanges() throws IOException, InterruptedException {
+        Set<Path> touched = new LinkedHashSet<>();
+        WatchKey key = watchService.take();
+        while (key != null) {
+            collectTouchedDirectories(key, touched);
+            key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        List<String> changed = new ArrayList<>();
+        Set<String> added = new LinkedHashSet<>();
+        List<String> removed = new ArrayList<>();
+        diff(touched, changed, added, removed);
+        addPending(changed, added, removed);
+        RewireReport report = rewire(changed, added, removed);
+        if (!report.isSuccessful()) {
+            pendingChanged.addAll(changed);
+            pendingAdded.addAll(added);
+            pendingRemoved.addAll(removed);
+        }
+        return report;
+    }
+
+    /**
+     * Adds the changes of failed batches that still apply to the current one, and forgets them.
+     */
+    private void addPending(List<String> changed, Set<String> added, List<String> removed) {
+        for (String className : pendingChanged) {
+            if (classFiles.containsKey(className) && !changed.contains(className)) {
+                changed.add(className);
+            }
+        }
+        for (String className : pendingAdded) {
+            if (classFiles.containsKey(className)) {
+                added.add(className);
+            }
+        }
+        for (String className : pendingRemoved) {
+            if (!classFiles.containsKey(className) && !removed.contains(className)) {
+                removed.add(className);
+            }
+        }
+        pendingChanged.clear();
+        pendingAdded.clear();
+        pendingRemoved.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void collectTouchedDirectories(WatchKey key, Set<Path> touched) throws IOException {
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                touched.addAll(directories.values());
+                continue;
+            }
+            Path child = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child)) {
+                touched.addAll(register(child));
+            }
+            touched.add(directory);
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+    }
+
+    private void diff(Set<Path> touched, List<String> changed, Set<String> added, List<String> removed) {
+        for (Path directory : touched) {
+            if (!Files.isDirectory(directory)) {
+                continue;
+            }
+            for (Map.Entry<String, Path> classFile : listClassFiles(directory).entrySet()) {
+                long fingerprint = fingerprint(classFile.getValue());
+                Long previous = fingerprints.put(classFile.getKey(), fingerprint);
+                classFiles.put(classFile.getKey(), classFile.getValue());
+                if (previous == null) {
+                    added.add(classFile.getKey());
+                }
+                if (previous == null || previous != fingerprint) {
+                    changed.add(classFile.getKey());
+                }
+            }
+        }
+        for (Map.Entry<String, Path> classFile : new ArrayList<>(classFiles.entrySet())) {
+            if (isBelow(classFile.getValue(), touched) && !Files.exists(classFile.getValue())) {
+                removed.add(classFile.getKey());
+                classFiles.remove(classFile.getKey());
+                fingerprints.remove(classFile.getKey());
+            }
+        }
+    }
+
+    private RewireReport rewire(List<String> changed, Set<String> added, List<String> removed) {
+        long start = System.nanoTime();
+        Set<String> changedServices = new LinkedHashSet<>();
+        List<String> addedClasses = new ArrayList<>();
+        boolean fullRewire = false;
+        for (String className : changed) {
+            String owner = topLevelName(className);
+            if (services.containsKey(owner)) {
+                changedServices.add(owner);
+            } else if (!added.contains(className)) {
+                fullRewire = true;
+            } else if (owner.equals(className)) {
+                addedClasses.add(className);
+            }
+        }
+        for (String className : removed) {
+            String owner = topLevelName(className);
+            if (services.containsKey(owner)) {
+                changedServices.add(owner);
+            } else {
+                fullRewire = true;
+            }
+        }
+
+        Set<String> affected = fullRewire ? new LinkedHashSet<>(services.keySet()) : dependentsOf(changedServices);
+        Map<String, Path> redefined = new HashMap<>();
+        for (String className : changed) {
+            redefined.put(className, classFiles.get(className));
+        }
+        for (String className : affected) {
+            for (Map.Entry<String, Path> classFile : classFiles.entrySet()) {
+                if (classFile.getKey().equals(className) || classFile.getKey().startsWith(className + "$")) {
+                    redefined.put(classFile.getKey(), classFile.getValue());
+                }
+            }
+        }
+        if (fullRewire) {
+            for (Map.Entry<String, Path> classFile : classFiles.entrySet()) {
+                if (!isContainerClass(classFile.getKey())) {
+                    redefined.put(classFile.getKey(), classFile.getValue());
+                }
+            }
+        }
+        GenerationClassLoader generation = new GenerationClassLoader(classLoader, redefined);
+
+        // The next generation is built aside and only replaces the current one once it is wired
+        Map<String, BeanDescriptor> nextServices = new LinkedHashMap<>(services);
+        Map<String, Object> nextInstances = new HashMap<>(beanInstances);
+        List<String> rebuiltBeans = new ArrayList<>();
+        List<String> removedBeans = new ArrayList<>();
+        try {
+            for (String className : affected) {
+                BeanDescriptor previous = nextServices.remove(className);
+                nextInstances.remove(previous.getBean().getSimpleName());
+                if (!classFiles.containsKey(className)) {
+                    removedBeans.add(previous.getBean().getSimpleName());
+                    continue;
+                }
+                Class<?> klass = Class.forName(className, false, generation);
+                if (Reflector.isService(klass)) {
+                    nextServices.put(className, reflector.mapDependencies(klass));
+                    rebuiltBeans.add(klass.getSimpleName());
+                } else {
+                    removedBeans.add(previous.getBean().getSimpleName());
+                }
+            }
+            for (String className : addedClasses) {
+                Class<?> klass = Class.forName(className, false, generation);
+                if (Reflector.isService(klass)) {
+                    nextServices.put(className, reflector.mapDependencies(klass));
+                    rebuiltBeans.add(klass.getSimpleName());
+                }
+            }
+            reflector.wireBeans(new LinkedList<>(nextServices.values()), nextInstances);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return failed(changed, removed, fullRewire, start, new RuntimeException(e.getMessage(), e));
+        } catch (RuntimeException e) {
+            return failed(changed, removed, fullRewire, start, e);
+        }
+
+        Map<String, Object> retired = new HashMap<>();
+        for (String className : affected) {
+            String name = services.get(className).getBean().getSimpleName();
+            Object bean = beanInstances.get(name);
+            if (bean != null && nextInstances.get(name) != bean) {
+                retired.put(name, bean);
+            }
+        }
+        ShutdownReport shutdown = retire(retired);
+
+        services.clear();
+        services.putAll(nextServices);
+        classLoader = generation;
+        beanInstances.keySet().retainAll(nextInstances.keySet());
+        for (Map.Entry<String, Object> bean : nextInstances.entrySet()) {
+            if (beanInstances.get(bean.getKey()) != bean.getValue()) {
+                beanInstances.put(bean.getKey(), bean.getValue());
+            }
+        }
+        return new RewireReport(changed, removed, rebuiltBeans, removedBeans, fullRewire, shutdown,
+                System.nanoTime() - start, null);
+    }
+
+    private static RewireReport failed(List<String> changed, List<String> removed, boolean fullRewire, long start,
+                                       RuntimeException failure) {
+        return new RewireReport(changed, removed, new ArrayList<>(), new ArrayList<>(), fullRewire, null,
+                System.nanoTime() - start, failure);
+    }
+
+    /**
+     * Destroys the given beans of the current generation, each once the retired beans depending on it were,
+     * on a thread pool created for the purpose.
+     */
+    private ShutdownReport retire(Map<String, Object> retired) {
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "reflector-rewire-shutdown");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            return reflector.shutdownBeans(new ArrayList<>(services.values()), retired, executor,
+                    SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * The given services and every service depending on one of them, through its exact type
+     * or through a supertype it implements.
+     */
+    private Set<String> dependentsOf(Set<String> changedServices) {
+        Set<String> affected = new LinkedHashSet<>(changedServices);
+        Deque<String> queue = new ArrayDeque<>(changedServices);
+        while (!queue.isEmpty()) {
+            Class<?> changedBean = services.get(queue.poll()).getBean();
+            for (BeanDescriptor descriptor : services.values()) {
+                String className = descriptor.getBean().getName();
+                if (affected.contains(className)) {
+                    continue;
+                }
+                for (Class<?> dependency : descriptor.collectAllDependencies()) {
+                    if (dependency.isAssignableFrom(changedBean)) {
+                        affected.add(className);
+                        queue.add(className);
+                        break;
+                    }
+                }
+            }
+        }
+        return affected;
+    }
+
+    private List<Path> register(Path start) throws IOException {
+        List<Path> registered = new ArrayList<>();
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                directories.put(key, dir);
+                registered.add(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return registered;
+    }
+
+    private Map<String, Path> listClassFiles(Path directory) {
+        Map<String, Path> found = new LinkedHashMap<>();
+        File[] files = directory.toFile().listFiles();
+        if (files == null) {
+            return found;
+        }
+        for (File file : files) {
+            if (file.isFile() && file.getName().endsWith(".class")) {
+                String className = classNameOf(file.toPath());
+                if (className != null) {
+                    found.put(className, file.toPath());
+                }
+            }
+        }
+        return found;
+    }
+
+    private String classNameOf(Path classFile) {
+        for (Map.Entry<Path, String> root : roots.entrySet()) {
+            if (classFile.startsWith(root.getKey())) {
+                String relative = root.getKey().relativize(classFile).toString();
+                return root.getValue() + "." + relative.substring(0, relative.length() - ".class".length())
+                        .replace(File.separatorChar, '.');
+            }
+        }
+        return null;
+    }
+
+    private static boolean isBelow(Path path, Set<Path> directories) {
+        for (Path directory : directories) {
+            if (path.startsWith(directory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long fingerprint(Path classFile) {
+        File file = classFile.toFile();
+        return ProjectScanner.fingerprint(file.length(), file.lastModified());
+    }
+
+    /**
+     * @return Whether the class belongs to the container, which the beans of every generation share
+     */
+    private static boolean isContainerClass(String className) {
+        return className.startsWith(Reflector.class.getPackage().getName() + ".")
+                || className.startsWith(IAmService.class.getPackage().getName() + ".");
+    }
+
+    private static String topLevelName(String className) {
+        int nested = className.indexOf('$');
+        return nested < 0 ? className : className.substring(0, nested);
+    }
+
+    /**
+     * Defines the given classes from their class files, child first,
+     * and leaves every other class to the previous generation.
+     */
+    private static class GenerationClassLoader extends ClassLoader {
+
+        private final Map<String, Path> classFiles;
+
+        GenerationClassLoader(ClassLoader parent, Map<String, Path> classFiles) {
+            super(parent);
+            this.classFiles = classFiles;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            Path classFile = classFiles.get(name);
+            if (classFile == null) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> klass = findLoadedClass(name);
+                if (klass == null) {
+                    try {
+                        byte[] bytes = Files.readAllBytes(classFile);
+                        klass = defineClass(name, bytes, 0, bytes.length);
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+                if (resolve) {
+                    resolveClass(klass);
+                }
+                return klass;
+            }
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.company.projects.application;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Minimal class-file parser that reads the constant pool, the class hierarchy and the
+ * RuntimeVisibleAnnotations of a class and its members without loading the class.
+ *
+ * {@link #read(byte[], String)} gives up right after the constant pool when the requested
+ * annotation descriptor does not occur in it, which is the case for most classes of a package.
+ */
+public class ClassFileReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private final ByteBuffer buffer;
+    private int[] utf8Offsets;
+    private String[] utf8;
+    private int[] classNameIndexes;
+
+    private ClassFileReader(byte[] bytes) {
+        this.buffer = ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * @param bytes              The class file
+     * @param requiredAnnotation An annotation descriptor such as {@code Lcom/company/Annotation;}
+     *                           that must occur in the constant pool, or null to always parse
+     * @return The parsed class, or null when the required annotation cannot be present
+     * @throws IOException when the bytes are not a valid class file
+     */
+    public static ClassInfo read(byte[] bytes, String requiredAnnotation) throws IOException {
+        try {
+            return new ClassFileReader(bytes).parse(requiredAnnotation);
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed class file: " + e, e);
+        }
+    }
+
+    public static String descriptorOf(Class<?> annotation) {
+        return "L" + annotation.getName().replace('.', '/') + ";";
+    }
+
+    private ClassInfo parse(String requiredAnnotation) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        buffer.getShort();
+        buffer.getShort();
+        if (!readConstantPool(requiredAnnotation)) {
+            return null;
+        }
+        int access = buffer.getShort() & 0xFFFF;
+        String name = className(buffer.getShort() & 0xFFFF);
+        int superIndex = buffer.getShort() & 0xFFFF;
+        String superName = superIndex == 0 ? null : className(superIndex);
+        int interfaceCount = buffer.getShort() & 0xFFFF;
+        List<String> interfaces = new ArrayList<>(interfaceCount);
+        for (int i = 0; i < interfaceCount; i++) {
+            interfaces.add(className(buffer.getShort() & 0xFFFF));
+        }
+        List<MemberInfo> members = new LinkedList<>();
+        readMembers(MemberInfo.Kind.FIELD, members);
+        readMembers(MemberInfo.Kind.METHOD, members);
+        List<String> annotations = readAttributes();
+        return new ClassInfo(access, name, superName, interfaces, annotations, members);
+    }
+
+    private boolean readConstantPool(String requiredAnnotation) throws IOException {
+        int count = buffer.getShort() & 0xFFFF;
+        utf8Offsets = new int[count];
+        utf8 = new String[count];
+        classNameIndexes = new int[count];
+        byte[] required = requiredAnnotation == null ? null : requiredAnnotation.getBytes(StandardCharsets.UTF_8);
+        boolean found = required == null;
+        for (int i = 1; i < count; i++) {
+            int tag = buffer.get() & 0xFF;
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    utf8Offsets[i] = buffer.position();
+                    int length = buffer.getShort() & 0xFFFF;
+                    if (!found && length == required.length) {
+                        found = regionMatches(buffer.position(), required);
+                    }
+                    skip(length);
+                    break;
+                case CONSTANT_CLASS:
+                    classNameIndexes[i] = buffer.getShort() & 0xFFFF;
+                    break;
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    skip(2);
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    skip(3);
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_FIELDREF:
+                case CONSTANT_METHODREF:
+                case CONSTANT_INTERFACE_METHODREF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    skip(4);
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    skip(8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+        return found;
+    }
+
+    private void readMembers(MemberInfo.Kind kind, List<MemberInfo> members) {
+        int count = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            int access = buffer.getShort() & 0xFFFF;
+            String name = utf8(buffer.getShort() & 0xFFFF);
+            String descriptor = utf8(buffer.getShort() & 0xFFFF);
+            List<String> annotations = readAttributes();
+            members.add(new MemberInfo(kind, access, name, descriptor, annotations));
+        }
+    }
+
+    private List<String> readAttributes() {
+        int count = buffer.getShort() & 0xFFFF;
+        List<String> annotations = Collections.emptyList();
+        for (int i = 0; i < count; i++) {
+            String name = utf8(buffer.getShort() & 0xFFFF);
+            int length = buffer.getInt();
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+                int end = buffer.position() + length;
+                annotations = readAnnotations();
+                buffer.position(end);
+            } else {
+                skip(length);
+            }
+        }
+        return annotations;
+    }
+
+    private List<String> readAnnotations() {
+        int count = buffer.getShort() & 0xFFFF;
+        List<String> annotations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            annotations.add(readAnnotation());
+        }
+        return annotations;
+    }
+
+    private String readAnnotation() {
+        String type = utf8(buffer.getShort() & 0xFFFF);
+        int pairs = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < pairs; i++) {
+            skip(2);
+            skipElementValue();
+        }
+        return type;
+    }
+
+    private void skipElementValue() {
+        int tag = buffer.get() & 0xFF;
+        switch (tag) {
+            case 'e':
+                skip(4);
+                break;
+            case '@':
+                readAnnotation();
+                break;
+            case '[':
+                int values = buffer.getShort() & 0xFFFF;
+                for (int i = 0; i < values; i++) {
+                    skipElementValue();
+                }
+                break;
+            default:
+                skip(2);
+                break;
+        }
+    }
+
+    private String className(int classIndex) {
+        return utf8(classNameIndexes[classIndex]).replace('/', '.');
+    }
+
+    private boolean regionMatches(int start, byte[] expected) {
+        byte[] array = buffer.array();
+        for (int i = 0; i < expected.length; i++) {
+            if (array[start + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String utf8(int index) {
+        if (utf8[index] == null) {
+            utf8[index] = decodeUtf8(utf8Offsets[index]);
+        }
+        return utf8[index];
+    }
+
+    private String decodeUtf8(int offset) {
+        byte[] array = buffer.array();
+        int length = ((array[offset] & 0xFF) << 8) | (array[offset + 1] & 0xFF);
+        int start = offset + 2;
+        boolean ascii = true;
+        for (int i = start; i < start + length; i++) {
+            if (array[i] <= 0) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            return new String(array, start, length, StandardCharsets.ISO_8859_1);
+        }
+        // modified UTF-8 differs from UTF-8 only for NUL and supplementary characters,
+        // neither of which occurs in the names and descriptors that are looked up here
+        return new String(array, start, length, StandardCharsets.UTF_8);
+    }
+
+    private void skip(int bytes) {
+        buffer.position(buffer.position() + bytes);
+    }
+
+    /**
+     * Converts a field descriptor such as {@code Lcom/company/Office;} or {@code I}
+     * into the name accepted by {@link ServiceIndex#loadClass(String, ClassLoader)}.
+     */
+    public static String typeName(String descriptor) {
+        switch (descriptor.charAt(0)) {
+            case 'Z': return "boolean";
+            case 'B': return "byte";
+            case 'C': return "char";
+            case 'S': return "short";
+            case 'I': return "int";
+            case 'J': return "long";
+            case 'F': return "float";
+            case 'D': return "double";
+            case 'L': return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+            default: return descriptor.replace('/', '.');
+        }
+    }
+
+    /**
+     * Splits a method descriptor such as {@code (Lcom/company/Info;I)V} into its parameter descriptors.
+     */
+    public static List<String> parameterDescriptors(String methodDescriptor) {
+        List<String> parameters = new ArrayList<>();
+        int i = 1;
+        while (methodDescriptor.charAt(i) != ')') {
+            int start = i;
+            while (methodDescriptor.charAt(i) == '[') {
+                i++;
+            }
+            if (methodDescriptor.charAt(i) == 'L') {
+                i = methodDescriptor.indexOf(';', i);
+            }
+            i++;
+            parameters.add(methodDescriptor.substring(start, i));
+        }
+        return parameters;
+    }
+
+    public static class ClassInfo {
+
+        private final int access;
+        private final String name;
+        private final String superName;
+        private final List<String> interfaces;
+        private final List<String> annotations;
+        private final List<MemberInfo> members;
+
+        ClassInfo(int access, String name, String superName, List<String> interfaces,
+                  List<String> annotations, List<MemberInfo> members) {
+            this.access = access;
+            this.name = name;
+            this.superName = superName;
+            this.interfaces = interfaces;
+            this.annotations = annotations;
+            this.members = members;
+        }
+
+        public int getAccess() {
+            return access;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSuperName() {
+            return superName;
+        }
+
+        public List<String> getInterfaces() {
+            return interfaces;
+        }
+
+        public List<String> getAnnotations() {
+            return annotations;
+        }
+
+        public List<MemberInfo> getMembers() {
+            return members;
+        }
+
+        public boolean isAnnotatedWith(String annotationDescriptor) {
+            return annotations.contains(annotationDescriptor);
+        }
+    }
+
+    public static class MemberInfo {
+
+        public enum Kind { FIELD, METHOD }
+
+        private final Kind kind;
+        private final int access;
+        private final String name;
+        private final String descriptor;
+        private final List<String> annotations;
+
+        MemberInfo(Kind kind, int access, String name, String descriptor, List<String> annotations) {
+            this.kind = kind;
+            this.access = access;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.annotations = annotations;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public int getAccess() {
+            return access;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescriptor() {
+            return descriptor;
+        }
+
+        public boolean isConstructor() {
+            return kind == Kind.METHOD && "<init>".equals(name);
+        }
+
+        public boolean isAnnotatedWith(String annotationDescriptor) {
+            return annotations.contains(annotationDescriptor);
+        }
+    }
+}
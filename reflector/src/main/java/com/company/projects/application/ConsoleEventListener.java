@@ -0,0 +1,50 @@
+package com.company.projects.application;
+
+import java.io.PrintStream;
+
+/**
+ * Prints container events to a stream, by default {@code System.out}, one line per event.
+ * Classes are printed by their simple name.
+ */
+public class ConsoleEventListener implements ContainerEventListener {
+
+    private final PrintStream out;
+
+    public ConsoleEventListener() {
+        this(System.out);
+    }
+
+    public ConsoleEventListener(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void onEvent(ContainerEvent event) {
+        switch (event.getType()) {
+            case SCANNED:
+                out.printf("Package %s is scanned.%n", event.getSubject());
+                break;
+            case LOADED:
+                out.printf("%s is loaded.%n", simpleName(event.getSubject()));
+                break;
+            case INSTANTIATED:
+                out.printf("%s is instantiated.%n", simpleName(event.getSubject()));
+                break;
+            case INJECTED:
+                out.printf("%s is injected.%n", simpleName(event.getSubject()));
+                break;
+            case READY:
+                out.printf("%s is ready.%n", simpleName(event.getSubject()));
+                break;
+            case FAILED:
+                out.println("Exception occurred during " + event.getSubject() + ":" + event.getFailure().getMessage());
+                break;
+            default:
+                out.println(event);
+        }
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(Math.max(className.lastIndexOf('.'), className.lastIndexOf('$')) + 1);
+    }
+}
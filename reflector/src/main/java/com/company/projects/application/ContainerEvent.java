@@ -0,0 +1,91 @@
+package com.company.projects.application;
+
+/**
+ * Something that happened in the container, published through {@link ContainerEvents}.
+ */
+public final class ContainerEvent {
+
+    public enum Type {
+
+        /**
+         * A package directory was found below a scan root, the subject is the package directory
+         */
+        SCANNED,
+
+        /**
+         * A scanned class was loaded and initialized, the subject is the class
+         */
+        LOADED,
+
+        /**
+         * The constructor of a bean returned, the subject is the bean class
+         */
+        INSTANTIATED,
+
+        /**
+         * The method and field dependencies of a bean were injected, the subject is the bean class
+         */
+        INJECTED,
+
+        /**
+         * The init methods of a bean completed, the subject is the bean class
+         */
+        READY,
+
+        /**
+         * Something went wrong, the subject describes what was being done
+         */
+        FAILED
+    }
+
+    private final Type type;
+    private final String subject;
+    private final Throwable failure;
+    private final String thread;
+    private final long nanoTime;
+
+    ContainerEvent(Type type, String subject, Throwable failure) {
+        this.type = type;
+        this.subject = subject;
+        this.failure = failure;
+        this.thread = Thread.currentThread().getName();
+        this.nanoTime = System.nanoTime();
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The fully qualified class name, the package directory or, for failures, the activity that failed
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * @return The exception of a {@link Type#FAILED} event, null for the other types
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return The name of the thread that published the event
+     */
+    public String getThread() {
+        return thread;
+    }
+
+    /**
+     * @return The {@link System#nanoTime()} at which the event was published
+     */
+    public long getNanoTime() {
+        return nanoTime;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + subject + (failure != null ? ": " + failure : "");
+    }
+}
@@ -0,0 +1,11 @@
+package com.company.projects.application;
+
+/**
+ * Receives {@link ContainerEvent}s on the dispatch thread of its {@link EventSubscription},
+ * one at a time and in the order each publishing thread published them.
+ */
+@FunctionalInterface
+public interface ContainerEventListener {
+
+    void onEvent(ContainerEvent event);
+}
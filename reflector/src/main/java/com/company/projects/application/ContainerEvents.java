@@ -0,0 +1,140 @@
+package com.company.projects.application;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide stream of {@link ContainerEvent}s, published by the scanners, the {@link Reflector} and
+ * the {@link WiringPlan} as they run, and delivered asynchronously to the subscribed listeners.
+ *
+ * Publishing never blocks and never waits for a listener: every {@link EventSubscription} has its own
+ * bounded lock-free ring and dispatch thread, and drops what does not fit. When no subscription wants
+ * an event type, publishing it is a single volatile read and nothing is allocated.
+ *
+ * A {@link ConsoleEventListener} printing failures is subscribed from the start, unless the
+ * {@code reflector.events.console=false} system property is set.
+ */
+public final class ContainerEvents {
+
+    /**
+     * Ring capacity of a subscription unless another one is given
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final Object LOCK = new Object();
+    private static volatile EventSubscription[] subscriptions = new EventSubscription[0];
+    private static volatile int observedTypes;
+    private static final EventSubscription CONSOLE = "false".equals(System.getProperty("reflector.events.console"))
+            ? null
+            : subscribe(new ConsoleEventListener(), EnumSet.of(ContainerEvent.Type.FAILED));
+
+    private ContainerEvents() {
+    }
+
+    /**
+     * Subscribes the listener to every event type.
+     */
+    public static EventSubscription subscribe(ContainerEventListener listener) {
+        return subscribe(listener, EnumSet.allOf(ContainerEvent.Type.class));
+    }
+
+    public static EventSubscription subscribe(ContainerEventListener listener, Set<ContainerEvent.Type> types) {
+        return subscribe(listener, types, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity The number of events that can wait for the listener, rounded up to a power of two
+     * @return The subscription, to be closed to unsubscribe
+     */
+    public static EventSubscription subscribe(ContainerEventListener listener, Set<ContainerEvent.Type> types,
+                                              int capacity) {
+        if (types.isEmpty()) {
+            throw new IllegalArgumentException("No event types to subscribe to");
+        }
+        EventSubscription subscription = new EventSubscription(listener, types, capacity);
+        synchronized (LOCK) {
+            EventSubscription[] current = subscriptions;
+            EventSubscription[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = subscription;
+            update(updated);
+        }
+        return subscription;
+    }
+
+    /**
+     * @return The console subscription printing failures, null if it was disabled with the system property
+     */
+    public static EventSubscription getConsoleSubscription() {
+        return CONSOLE;
+    }
+
+    /**
+     * Waits until every subscription has handled the events published before the call,
+     * for instance before printing something that must come after them.
+     *
+     * @return Whether they did so in time
+     */
+    public static boolean awaitDelivery(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (EventSubscription subscription : subscriptions) {
+            if (!subscription.awaitDelivery(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isObserved(ContainerEvent.Type type) {
+        return (observedTypes & (1 << type.ordinal())) != 0;
+    }
+
+    static void publish(ContainerEvent.Type type, String subject) {
+        if (isObserved(type)) {
+            dispatch(new ContainerEvent(type, subject, null));
+        }
+    }
+
+    /**
+     * @param activity What was being done, such as "collection of project classes"
+     */
+    static void failed(String activity, Throwable failure) {
+        if (isObserved(ContainerEvent.Type.FAILED)) {
+            dispatch(new ContainerEvent(ContainerEvent.Type.FAILED, activity, failure));
+        }
+    }
+
+    static void unsubscribe(EventSubscription subscription) {
+        synchronized (LOCK) {
+            EventSubscription[] current = subscriptions;
+            int index = Arrays.asList(current).indexOf(subscription);
+            if (index < 0) {
+                return;
+            }
+            EventSubscription[] updated = new EventSubscription[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, updated.length - index);
+            update(updated);
+        }
+    }
+
+    private static void dispatch(ContainerEvent event) {
+        for (EventSubscription subscription : subscriptions) {
+            if (subscription.accepts(event.getType())) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    private static void update(EventSubscription[] updated) {
+        int types = 0;
+        for (EventSubscription subscription : updated) {
+            for (ContainerEvent.Type type : subscription.getTypes()) {
+                types |= 1 << type.ordinal();
+            }
+        }
+        subscriptions = updated;
+        observedTypes = types;
+    }
+}
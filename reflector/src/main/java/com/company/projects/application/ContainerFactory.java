@@ -0,0 +1,19 @@
+package com.company.projects.application;
+
+import java.util.Map;
+
+/**
+ * Creates the service graph without reflection. Implementations are generated by the
+ * reflector-processor module when it runs with {@code -Areflector.generateFactory=true}
+ * (the generate-factory Maven profile), and are registered for {@link java.util.ServiceLoader}.
+ *
+ * Services the processor cannot create as the runtime would, such as lazy ones, are left out
+ * with a compile warning.
+ */
+public interface ContainerFactory {
+
+    /**
+     * @return The service instances keyed by simple class name, as filled in by {@link Reflector#wireBeans}
+     */
+    Map<String, Object> createBeans();
+}
@@ -0,0 +1,137 @@
+package com.company.projects.application;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide measurements of container startup, collected by the scanners, the {@link Reflector}
+ * and the {@link WiringPlan} as they run.
+ *
+ * Every phase of {@link StartupPhase} has a latency histogram, and every class or package measured
+ * in it its own count, total and maximum, so slow constructors, static initializers and scan roots
+ * can be found from inside the application with {@link #snapshot()}. Recording is lock-free and can
+ * be turned off with {@link #setEnabled(boolean)} or the {@code reflector.metrics=false} system property.
+ *
+ * Each measurement is also committed as a Java Flight Recorder event of the phase, category
+ * "Reflector", when a recording is running and the JVM supports it.
+ */
+public final class ContainerMetrics {
+
+    private static final PhaseEvents FLIGHT_RECORDER = loadFlightRecorderEvents();
+    private static final Map<StartupPhase, LatencyHistogram> PHASES = new EnumMap<>(StartupPhase.class);
+    private static final Map<StartupPhase, Map<String, LatencyHistogram>> CLASSES = new EnumMap<>(StartupPhase.class);
+    private static final Probe DISABLED = new Probe(null, null);
+
+    private static volatile boolean enabled = !"false".equals(System.getProperty("reflector.metrics"));
+
+    static {
+        for (StartupPhase phase : StartupPhase.values()) {
+            PHASES.put(phase, new LatencyHistogram(true));
+            CLASSES.put(phase, new ConcurrentHashMap<>());
+        }
+    }
+
+    private ContainerMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        ContainerMetrics.enabled = enabled;
+    }
+
+    /**
+     * @return A copy of everything recorded since startup or the last {@link #reset()}
+     */
+    public static MetricsSnapshot snapshot() {
+        Map<StartupPhase, LatencySummary> phases = new EnumMap<>(StartupPhase.class);
+        Map<StartupPhase, Map<String, LatencySummary>> classes = new EnumMap<>(StartupPhase.class);
+        synchronized (PHASES) {
+            for (StartupPhase phase : StartupPhase.values()) {
+                phases.put(phase, PHASES.get(phase).summarize());
+                Map<String, LatencySummary> summaries = new HashMap<>();
+                CLASSES.get(phase).forEach((name, histogram) -> summaries.put(name, histogram.summarize()));
+                classes.put(phase, summaries);
+            }
+        }
+        return new MetricsSnapshot(phases, classes);
+    }
+
+    /**
+     * Drops everything recorded so far. Measurements running concurrently may be lost.
+     */
+    public static void reset() {
+        synchronized (PHASES) {
+            for (StartupPhase phase : StartupPhase.values()) {
+                PHASES.get(phase).reset();
+                CLASSES.get(phase).clear();
+            }
+        }
+    }
+
+    /**
+     * Starts measuring one occurrence of a phase, finished with {@link Probe#stop(String)}.
+     */
+    static Probe start(StartupPhase phase) {
+        Object event = FLIGHT_RECORDER != null ? FLIGHT_RECORDER.begin(phase) : null;
+        return enabled || event != null ? new Probe(phase, event) : DISABLED;
+    }
+
+    private static void record(StartupPhase phase, String name, long nanos) {
+        PHASES.get(phase).record(nanos);
+        if (name != null) {
+            CLASSES.get(phase).computeIfAbsent(name, key -> new LatencyHistogram(false)).record(nanos);
+        }
+    }
+
+    /**
+     * @return The flight recorder events, or null if the JVM has no flight recorder
+     *         or cannot load classes compiled for release 11
+     */
+    private static PhaseEvents loadFlightRecorderEvents() {
+        ClassLoader classLoader = ContainerMetrics.class.getClassLoader();
+        try {
+            Class.forName("jdk.jfr.Event", false, classLoader);
+            return (PhaseEvents) Class.forName(ContainerMetrics.class.getPackage().getName() + ".StartupEvents",
+                    true, classLoader).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * One running measurement.
+     */
+    static final class Probe {
+
+        private final StartupPhase phase;
+        private final Object event;
+        private final long start;
+
+        private Probe(StartupPhase phase, Object event) {
+            this.phase = phase;
+            this.event = event;
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * @param name The class or package measured, or null if the measurement is only counted for the phase
+         */
+        void stop(String name) {
+            if (phase == null) {
+                return;
+            }
+            long nanos = System.nanoTime() - start;
+            if (enabled) {
+                record(phase, name, nanos);
+            }
+            if (event != null) {
+                FLIGHT_RECORDER.commit(event, name);
+            }
+        }
+    }
+}
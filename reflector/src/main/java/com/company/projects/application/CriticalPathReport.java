@@ -0,0 +1,289 @@
+package com.company.projects.application;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Critical path of the startup of a {@link WiringPlan}, weighted by the time every bean takes.
+ *
+ * A bean can only be created once the beans it depends on exist, the same constraint
+ * {@link WiringPlan#executeParallel} schedules by. The longest chain of such dependencies is the
+ * critical path: however many threads wire the beans, startup takes at least that long. Every
+ * other bean has slack, the time its creation can be delayed, or grow, before it lengthens startup.
+ * Beans on the critical path are the ones worth making faster or lazy.
+ *
+ * The report can be exported as a Graphviz graph with {@link #toDot()} or as JSON with {@link #toJson()}.
+ */
+public class CriticalPathReport {
+
+    private final List<BeanTiming> beans;
+    private final List<BeanTiming> criticalPath;
+    private final Map<Class<?>, BeanTiming> byClass = new HashMap<>();
+    private final int[][] dependencies;
+    private final long criticalPathNanos;
+    private final long totalNanos;
+
+    /**
+     * @param durations The time each bean takes to be created and injected, in nanoseconds
+     */
+    public CriticalPathReport(WiringPlan plan, ToLongFunction<Class<?>> durations) {
+        int size = plan.size();
+        long[] duration = new long[size];
+        long[] earliestFinish = new long[size];
+        dependencies = new int[size][];
+        long critical = 0;
+        long total = 0;
+        int last = -1;
+        // Plan order is topological: dependencies always come first
+        for (int i = 0; i < size; i++) {
+            duration[i] = Math.max(0, durations.applyAsLong(plan.beanAt(i)));
+            dependencies[i] = plan.dependenciesAt(i);
+            long start = 0;
+            for (int dependency : dependencies[i]) {
+                start = Math.max(start, earliestFinish[dependency]);
+            }
+            earliestFinish[i] = start + duration[i];
+            total += duration[i];
+            if (last < 0 || earliestFinish[i] > critical) {
+                critical = earliestFinish[i];
+                last = i;
+            }
+        }
+        long[] latestFinish = new long[size];
+        for (int i = 0; i < size; i++) {
+            latestFinish[i] = critical;
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            for (int dependency : dependencies[i]) {
+                latestFinish[dependency] = Math.min(latestFinish[dependency], latestFinish[i] - duration[i]);
+            }
+        }
+
+        List<BeanTiming> timings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BeanTiming timing = new BeanTiming(plan.beanAt(i), duration[i], earliestFinish[i] - duration[i],
+                    latestFinish[i] - earliestFinish[i]);
+            timings.add(timing);
+            byClass.put(timing.bean, timing);
+        }
+        List<BeanTiming> path = new ArrayList<>();
+        for (int i = last; i >= 0; ) {
+            path.add(timings.get(i));
+            int previous = -1;
+            for (int dependency : dependencies[i]) {
+                if (previous < 0 || earliestFinish[dependency] > earliestFinish[previous]) {
+                    previous = dependency;
+                }
+            }
+            i = previous;
+        }
+        Collections.reverse(path);
+        for (BeanTiming timing : path) {
+            timing.critical = true;
+        }
+        this.beans = Collections.unmodifiableList(timings);
+        this.criticalPath = Collections.unmodifiableList(path);
+        this.criticalPathNanos = critical;
+        this.totalNanos = total;
+    }
+
+    /**
+     * Report weighted by the construction and injection times recorded in the metrics, the mean
+     * per creation for beans created more than once. Beans that were not measured weigh nothing.
+     */
+    public static CriticalPathReport fromMetrics(WiringPlan plan, MetricsSnapshot metrics) {
+        Map<String, LatencySummary> constructions = metrics.getClasses(StartupPhase.BEAN_CONSTRUCTION);
+        Map<String, LatencySummary> injections = metrics.getClasses(StartupPhase.BEAN_INJECTION);
+        return new CriticalPathReport(plan, bean -> meanOf(constructions.get(bean.getName()))
+                + meanOf(injections.get(bean.getName())));
+    }
+
+    /**
+     * @return Every bean of the plan, in plan order
+     */
+    public List<BeanTiming> getBeans() {
+        return beans;
+    }
+
+    /**
+     * @return The chain of beans bounding startup, from the first bean created to the last
+     */
+    public List<BeanTiming> getCriticalPath() {
+        return criticalPath;
+    }
+
+    public BeanTiming getBean(Class<?> bean) {
+        BeanTiming timing = byClass.get(bean);
+        if (timing == null) {
+            throw new NoSuchBeanException("No bean of type " + bean.getName());
+        }
+        return timing;
+    }
+
+    /**
+     * @return The length of the critical path, the shortest possible startup with unlimited threads
+     */
+    public long getCriticalPathNanos() {
+        return criticalPathNanos;
+    }
+
+    /**
+     * @return The time of all beans together, the startup with a single thread
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return How many threads, on average, parallel wiring can keep busy
+     */
+    public double getParallelism() {
+        return criticalPathNanos == 0 ? 1 : totalNanos / (double) criticalPathNanos;
+    }
+
+    /**
+     * Graphviz graph of the beans, edges pointing from a bean to the beans depending on it.
+     * The critical path is drawn in red, every bean is labelled with its time and slack.
+     */
+    public String toDot() {
+        StringBuilder dot = new StringBuilder("digraph startup {\n    rankdir=LR;\n    node [shape=box];\n");
+        for (int i = 0; i < beans.size(); i++) {
+            BeanTiming timing = beans.get(i);
+            dot.append("    n").append(i).append(" [label=\"").append(timing.bean.getSimpleName())
+                    .append(String.format("\\n%.3f ms\\nslack %.3f ms\"", millis(timing.durationNanos),
+                            millis(timing.slackNanos)))
+                    .append(timing.critical ? ", color=red, penwidth=2" : "").append("];\n");
+        }
+        for (int i = 0; i < beans.size(); i++) {
+            for (int dependency : dependencies[i]) {
+                boolean critical = beans.get(i).critical && beans.get(dependency).critical
+                        && beans.get(dependency).getEarliestFinishNanos() == beans.get(i).earliestStartNanos;
+                dot.append("    n").append(dependency).append(" -> n").append(i)
+                        .append(critical ? " [color=red, penwidth=2]" : "").append(";\n");
+            }
+        }
+        return dot.append("}\n").toString();
+    }
+
+    /**
+     * JSON object with the totals, the critical path as bean names and every bean with its timings
+     * in nanoseconds and the beans it depends on.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n  \"criticalPathNanos\": ").append(criticalPathNanos)
+                .append(",\n  \"totalNanos\": ").append(totalNanos)
+                .append(",\n  \"criticalPath\": [");
+        for (int i = 0; i < criticalPath.size(); i++) {
+            json.append(i == 0 ? "" : ", ").append(quote(criticalPath.get(i).bean.getName()));
+        }
+        json.append("],\n  \"beans\": [");
+        for (int i = 0; i < beans.size(); i++) {
+            BeanTiming timing = beans.get(i);
+            json.append(i == 0 ? "\n" : ",\n").append("    {\"name\": ").append(quote(timing.bean.getName()))
+                    .append(", \"durationNanos\": ").append(timing.durationNanos)
+                    .append(", \"earliestStartNanos\": ").append(timing.earliestStartNanos)
+                    .append(", \"slackNanos\": ").append(timing.slackNanos)
+                    .append(", \"critical\": ").append(timing.critical)
+                    .append(", \"dependencies\": [");
+            for (int d = 0; d < dependencies[i].length; d++) {
+                json.append(d == 0 ? "" : ", ").append(quote(beans.get(dependencies[i][d]).bean.getName()));
+            }
+            json.append("]}");
+        }
+        return json.append("\n  ]\n}\n").toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format(
+                "Critical path %.3f ms of %.3f ms in total, parallelism %.1f:",
+                millis(criticalPathNanos), millis(totalNanos), getParallelism()));
+        for (BeanTiming timing : criticalPath) {
+            report.append(String.format("%n    %s %.3f ms", timing.bean.getSimpleName(), millis(timing.durationNanos)));
+        }
+        return report.toString();
+    }
+
+    private static long meanOf(LatencySummary summary) {
+        return summary == null ? 0 : summary.getMeanNanos();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Timings of one bean of the report.
+     */
+    public static class BeanTiming {
+
+        private final Class<?> bean;
+        private final long durationNanos;
+        private final long earliestStartNanos;
+        private final long slackNanos;
+        private boolean critical;
+
+        BeanTiming(Class<?> bean, long durationNanos, long earliestStartNanos, long slackNanos) {
+            this.bean = bean;
+            this.durationNanos = durationNanos;
+            this.earliestStartNanos = earliestStartNanos;
+            this.slackNanos = slackNanos;
+        }
+
+        public Class<?> getBean() {
+            return bean;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * @return When the bean can be created at the earliest, once all its dependencies exist
+         */
+        public long getEarliestStartNanos() {
+            return earliestStartNanos;
+        }
+
+        public long getEarliestFinishNanos() {
+            return earliestStartNanos + durationNanos;
+        }
+
+        /**
+         * @return How much later the bean can be finished without delaying startup
+         */
+        public long getSlackNanos() {
+            return slackNanos;
+        }
+
+        public boolean isCritical() {
+            return critical;
+        }
+
+        @Override
+        public String toString() {
+            return bean.getSimpleName() + String.format(": %.3f ms, starts at %.3f ms, slack %.3f ms",
+                    millis(durationNanos), millis(earliestStartNanos), millis(slackNanos))
+                    + (critical ? ", critical" : "");
+        }
+    }
+}
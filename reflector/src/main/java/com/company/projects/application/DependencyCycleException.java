@@ -0,0 +1,35 @@
+package com.company.projects.application;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Thrown when beans depend on each other through constructor parameters only,
+ * so that none of them can be created first, or when a cycle passes through a
+ * prototype or thread-scoped bean, which would need a new instance at every turn.
+ */
+public class DependencyCycleException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Class<?>> cycle;
+
+    public DependencyCycleException(List<Class<?>> cycle) {
+        this("Constructor dependency cycle", cycle);
+    }
+
+    public DependencyCycleException(String description, List<Class<?>> cycle) {
+        super(description + ": " + cycle.stream()
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(" -> ")));
+        this.cycle = Collections.unmodifiableList(cycle);
+    }
+
+    /**
+     * @return The beans of the cycle, starting and ending with the same bean
+     */
+    public List<Class<?>> getCycle() {
+        return cycle;
+    }
+}
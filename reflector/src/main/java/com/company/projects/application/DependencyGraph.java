@@ -0,0 +1,352 @@
+package com.company.projects.application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Queries over the dependency graph of a set of beans: direct and transitive dependencies and
+ * dependents, and how deep a bean sits in the graph.
+ *
+ * The graph is built once from a {@link DescriptorStore}. Dependencies on an interface or abstract
+ * type lead to every bean implementing it. Both directions are kept in compressed sparse row layout,
+ * so direct queries are array reads. The depth of every bean is computed up front, in topological order
+ * of the graph with its cycles collapsed. Transitive closures are computed on first query as bitsets
+ * and memoized, reusing the memoized closures of the beans they reach, so repeated queries and
+ * {@link #dependsOn(Class, Class)} take constant time. All closures at once would take
+ * {@code size * size / 8} bytes, which is why they are only kept for the beans queried, and
+ * {@link #getMostDependent()}, which needs the size of every closure, counts them without keeping any.
+ *
+ * A graph is immutable and safe to query from several threads.
+ */
+public class DependencyGraph {
+
+    private final DescriptorStore store;
+    private final int[] dependencyOffsets;
+    private final int[] dependencies;
+    private final int[] dependentOffsets;
+    private final int[] dependents;
+    private final int[] depths;
+    private final AtomicReferenceArray<BitSet> dependencyClosures;
+    private final AtomicReferenceArray<BitSet> dependentClosures;
+
+    public DependencyGraph(DescriptorStore store) {
+        this.store = store;
+        int size = store.size();
+        List<Class<?>> beans = new ArrayList<>(size);
+        for (int id = 0; id < size; id++) {
+            beans.add(store.getClass(id));
+        }
+        TypeIndex types = new TypeIndex(beans);
+
+        dependencyOffsets = new int[size + 1];
+        int[] targets = new int[Math.max(16, store.getEdgeCount())];
+        // seen[bean] == ~id once bean is a dependency of id, to drop duplicates
+        int[] seen = new int[size];
+        int count = 0;
+        for (int id = 0; id < size; id++) {
+            dependencyOffsets[id] = count;
+            for (int edge = store.getDependencyStart(id); edge < store.getDependencyEnd(id); edge++) {
+                int target = store.getTarget(edge);
+                if (store.isBean(target)) {
+                    if (seen[target] != ~id) {
+                        seen[target] = ~id;
+                        targets = push(targets, count++, target);
+                    }
+                    continue;
+                }
+                for (Class<?> implementation : types.getImplementations(store.getClass(target))) {
+                    int bean = store.idOf(implementation);
+                    if (seen[bean] != ~id) {
+                        seen[bean] = ~id;
+                        targets = push(targets, count++, bean);
+                    }
+                }
+            }
+        }
+        dependencyOffsets[size] = count;
+        dependencies = Arrays.copyOf(targets, count);
+
+        dependentOffsets = new int[size + 1];
+        for (int dependency : dependencies) {
+            dependentOffsets[dependency + 1]++;
+        }
+        for (int id = 0; id < size; id++) {
+            dependentOffsets[id + 1] += dependentOffsets[id];
+        }
+        dependents = new int[count];
+        int[] next = Arrays.copyOf(dependentOffsets, size);
+        for (int id = 0; id < size; id++) {
+            for (int i = dependencyOffsets[id]; i < dependencyOffsets[id + 1]; i++) {
+                dependents[next[dependencies[i]]++] = id;
+            }
+        }
+        depths = computeDepths();
+        dependencyClosures = new AtomicReferenceArray<>(size);
+        dependentClosures = new AtomicReferenceArray<>(size);
+    }
+
+    public static DependencyGraph of(List<BeanDescriptor> descriptors) {
+        return new DependencyGraph(DescriptorStore.of(descriptors));
+    }
+
+    public DescriptorStore getStore() {
+        return store;
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * @return The beans the bean needs directly, interface dependencies resolved to their implementations
+     */
+    public List<Class<?>> getDependencies(Class<?> bean) {
+        int id = idOf(bean);
+        return classes(dependencies, dependencyOffsets[id], dependencyOffsets[id + 1]);
+    }
+
+    /**
+     * @return The beans needing the bean directly
+     */
+    public List<Class<?>> getDependents(Class<?> bean) {
+        int id = idOf(bean);
+        return classes(dependents, dependentOffsets[id], dependentOffsets[id + 1]);
+    }
+
+    /**
+     * @return Every bean the bean needs directly or through other beans, in store order.
+     * The bean itself is not included, even if it is part of a cycle.
+     */
+    public List<Class<?>> getTransitiveDependencies(Class<?> bean) {
+        return classes(closure(idOf(bean), dependencyOffsets, dependencies, dependencyClosures));
+    }
+
+    /**
+     * @return Every bean needing the bean directly or through other beans, in store order,
+     * the beans that must be rebuilt when it changes
+     */
+    public List<Class<?>> getTransitiveDependents(Class<?> bean) {
+        return classes(closure(idOf(bean), dependentOffsets, dependents, dependentClosures));
+    }
+
+    public int countTransitiveDependencies(Class<?> bean) {
+        return closure(idOf(bean), dependencyOffsets, dependencies, dependencyClosures).cardinality();
+    }
+
+    public int countTransitiveDependents(Class<?> bean) {
+        return closure(idOf(bean), dependentOffsets, dependents, dependentClosures).cardinality();
+    }
+
+    /**
+     * @return Whether {@code bean} needs {@code dependency}, directly or through other beans
+     */
+    public boolean dependsOn(Class<?> bean, Class<?> dependency) {
+        return closure(idOf(bean), dependencyOffsets, dependencies, dependencyClosures).get(idOf(dependency));
+    }
+
+    /**
+     * @return The length of the longest chain of dependencies below the bean, 0 for a bean without
+     * dependencies. Beans of a cycle have the same depth.
+     */
+    public int getDepth(Class<?> bean) {
+        return depths[idOf(bean)];
+    }
+
+    /**
+     * @return The bean with the most transitive dependencies, the first in store order on ties,
+     * or null for an empty graph
+     */
+    public Class<?> getMostDependent() {
+        // Every closure is walked and counted, none is kept: memoizing them all would take size * size / 8 bytes
+        int[] visited = new int[size()];
+        int[] stack = new int[size()];
+        Class<?> most = null;
+        int max = -1;
+        for (int id = 0; id < size(); id++) {
+            BitSet memoized = dependencyClosures.get(id);
+            int count = memoized != null ? memoized.cardinality() : countReachable(id, visited, stack);
+            if (count > max) {
+                max = count;
+                most = store.getClass(id);
+            }
+        }
+        return most;
+    }
+
+    /**
+     * Counts the beans reachable from the bean through its dependencies, the bean itself excluded.
+     *
+     * @param visited Marks the beans reached from bean {@code id} with {@code id + 1}, so the array
+     *                can be reused for every bean without clearing it
+     * @param stack   Room for every bean, each is pushed at most once
+     */
+    private int countReachable(int id, int[] visited, int[] stack) {
+        int mark = id + 1;
+        visited[id] = mark;
+        int top = 0;
+        int count = 0;
+        stack[top++] = id;
+        while (top > 0) {
+            int bean = stack[--top];
+            for (int i = dependencyOffsets[bean]; i < dependencyOffsets[bean + 1]; i++) {
+                int dependency = dependencies[i];
+                if (visited[dependency] != mark) {
+                    visited[dependency] = mark;
+                    stack[top++] = dependency;
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int idOf(Class<?> bean) {
+        int id = store.idOf(bean);
+        if (id < 0 || !store.isBean(id)) {
+            throw new NoSuchBeanException("No bean of type " + bean.getName());
+        }
+        return id;
+    }
+
+    /**
+     * Beans reachable from the bean through the given adjacency. A bean reached whose own closure is
+     * already memoized is not walked again, its closure is added as a whole.
+     */
+    private BitSet closure(int id, int[] offsets, int[] adjacent, AtomicReferenceArray<BitSet> memo) {
+        BitSet closure = memo.get(id);
+        if (closure != null) {
+            return closure;
+        }
+        BitSet reached = new BitSet(size());
+        int[] stack = new int[16];
+        int top = 0;
+        for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+            stack = push(stack, top++, adjacent[i]);
+        }
+        while (top > 0) {
+            int bean = stack[--top];
+            if (reached.get(bean)) {
+                continue;
+            }
+            reached.set(bean);
+            BitSet memoized = memo.get(bean);
+            if (memoized != null) {
+                reached.or(memoized);
+                continue;
+            }
+            for (int i = offsets[bean]; i < offsets[bean + 1]; i++) {
+                if (!reached.get(adjacent[i])) {
+                    stack = push(stack, top++, adjacent[i]);
+                }
+            }
+        }
+        reached.clear(id);
+        memo.compareAndSet(id, null, reached);
+        return memo.get(id);
+    }
+
+    private static int[] push(int[] ids, int count, int id) {
+        int[] grown = count == ids.length ? Arrays.copyOf(ids, count * 2) : ids;
+        grown[count] = id;
+        return grown;
+    }
+
+    /**
+     * Iterative Tarjan: strongly connected components are completed dependencies first,
+     * so the depth of each follows from the depths of the components it depends on.
+     */
+    private int[] computeDepths() {
+        int size = size();
+        int[] index = new int[size];
+        int[] low = new int[size];
+        int[] component = new int[size];
+        boolean[] onStack = new boolean[size];
+        Arrays.fill(index, -1);
+        int[] stack = new int[size];
+        int stackTop = 0;
+        int[] callNode = new int[size];
+        int[] callEdge = new int[size];
+        List<Integer> componentDepths = new ArrayList<>();
+        int counter = 0;
+
+        for (int root = 0; root < size; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int callTop = 0;
+            callNode[callTop] = root;
+            callEdge[callTop++] = dependencyOffsets[root];
+            index[root] = low[root] = counter++;
+            stack[stackTop++] = root;
+            onStack[root] = true;
+            while (callTop > 0) {
+                int node = callNode[callTop - 1];
+                int edge = callEdge[callTop - 1];
+                if (edge < dependencyOffsets[node + 1]) {
+                    callEdge[callTop - 1]++;
+                    int dependency = dependencies[edge];
+                    if (index[dependency] < 0) {
+                        index[dependency] = low[dependency] = counter++;
+                        stack[stackTop++] = dependency;
+                        onStack[dependency] = true;
+                        callNode[callTop] = dependency;
+                        callEdge[callTop++] = dependencyOffsets[dependency];
+                    } else if (onStack[dependency]) {
+                        low[node] = Math.min(low[node], index[dependency]);
+                    }
+                    continue;
+                }
+                callTop--;
+                if (callTop > 0) {
+                    int caller = callNode[callTop - 1];
+                    low[caller] = Math.min(low[caller], low[node]);
+                }
+                if (low[node] == index[node]) {
+                    int id = componentDepths.size();
+                    int member;
+                    int first = stackTop;
+                    do {
+                        member = stack[--stackTop];
+                        onStack[member] = false;
+                        component[member] = id;
+                    } while (member != node);
+                    int depth = 0;
+                    for (int i = stackTop; i < first; i++) {
+                        int bean = stack[i];
+                        for (int d = dependencyOffsets[bean]; d < dependencyOffsets[bean + 1]; d++) {
+                            int dependencyComponent = component[dependencies[d]];
+                            if (dependencyComponent != id) {
+                                depth = Math.max(depth, componentDepths.get(dependencyComponent) + 1);
+                            }
+                        }
+                    }
+                    componentDepths.add(depth);
+                }
+            }
+        }
+        int[] depths = new int[size];
+        for (int id = 0; id < size; id++) {
+            depths[id] = componentDepths.get(component[id]);
+        }
+        return depths;
+    }
+
+    private List<Class<?>> classes(int[] ids, int from, int to) {
+        List<Class<?>> classes = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            classes.add(store.getClass(ids[i]));
+        }
+        return classes;
+    }
+
+    private List<Class<?>> classes(BitSet ids) {
+        List<Class<?>> classes = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            classes.add(store.getClass(id));
+        }
+        return classes;
+    }
+}
@@ -0,0 +1,305 @@
+package com.company.projects.application;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Binary cache of the services found below a package and of their descriptors, so that a restart
+ * with unchanged class files needs neither to load the non-service classes nor to reflect on
+ * the services' members.
+ *
+ * Every scanned class file is recorded with the fingerprint {@link ProjectScanner#getClassFingerprints(String)}
+ * computed for it. On the next run the cache file is memory-mapped, and only the classes that are new
+ * or whose fingerprint differs are loaded and described again. The file is rewritten when anything changed.
+ * A cache file that cannot be read, or was written for another package, is ignored.
+ *
+ * File layout: magic, version, string table, package name, then one record per class file:
+ * name, fingerprint, service flag and, for services, the constructor, method and field dependencies.
+ * Strings are stored once in the table and referenced by index.
+ */
+public class DescriptorCache {
+
+    private static final int MAGIC = 0x52464C43;
+    private static final int VERSION = 1;
+    private static final int NO_CONSTRUCTOR = -1;
+
+    private final File file;
+    private final ProjectScanner projectScanner;
+    private final ClassLoader classLoader;
+    private int reused;
+    private int rescanned;
+    private int removed;
+
+    public DescriptorCache(File file, ProjectScanner projectScanner, ClassLoader classLoader) {
+        this.file = file;
+        this.projectScanner = projectScanner;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * @param packageName The package whose parent package is scanned, as for {@link ProjectScanner#getClassNames(String)}
+     * @param describer   Describes the services that have to be scanned again
+     * @return The descriptors of all services below the package
+     */
+    public List<BeanDescriptor> getServices(String packageName, Function<Class<?>, BeanDescriptor> describer)
+            throws IOException, ReflectiveOperationException {
+        Map<String, Record> cached = read(packageName);
+        Map<String, Long> fingerprints = projectScanner.getClassFingerprints(packageName);
+        List<Record> records = new ArrayList<>(fingerprints.size());
+        List<BeanDescriptor> descriptors = new LinkedList<>();
+        reused = 0;
+        rescanned = 0;
+        for (Map.Entry<String, Long> fingerprint : fingerprints.entrySet()) {
+            Record record = cached.remove(fingerprint.getKey());
+            if (record != null && record.fingerprint == fingerprint.getValue()) {
+                reused++;
+                if (record.isService()) {
+                    descriptors.add(describe(record));
+                }
+            } else {
+                rescanned++;
+                Class<?> klass = ServiceIndex.loadClass(fingerprint.getKey(), classLoader);
+                if (Reflector.isService(klass)) {
+                    BeanDescriptor descriptor = describer.apply(klass);
+                    descriptors.add(descriptor);
+                    record = Record.of(descriptor, fingerprint.getValue());
+                } else {
+                    record = new Record(fingerprint.getKey(), fingerprint.getValue());
+                }
+            }
+            records.add(record);
+        }
+        removed = cached.size();
+        if (rescanned > 0 || removed > 0) {
+            write(packageName, records);
+        }
+        return descriptors;
+    }
+
+    /**
+     * @return The number of class files taken from the cache by the last {@link #getServices}
+     */
+    public int getReused() {
+        return reused;
+    }
+
+    /**
+     * @return The number of class files loaded and described again by the last {@link #getServices}
+     */
+    public int getRescanned() {
+        return rescanned;
+    }
+
+    /**
+     * @return The number of cached class files that no longer exist
+     */
+    public int getRemoved() {
+        return removed;
+    }
+
+    private BeanDescriptor describe(Record record) throws ReflectiveOperationException {
+        List<Class<?>> constructorDependencies = null;
+        if (record.constructorDependencies != null) {
+            constructorDependencies = new ArrayList<>(record.constructorDependencies.length);
+            for (String parameter : record.constructorDependencies) {
+                constructorDependencies.add(ServiceIndex.loadClass(parameter, classLoader));
+            }
+        }
+        return BeanDescriptor.describe(ServiceIndex.loadClass(record.className, classLoader), constructorDependencies,
+                loadNamedTypes(record.methodDependencies), loadNamedTypes(record.fieldDependencies));
+    }
+
+    /**
+     * @param namesAndTypes Member names alternating with their type names
+     */
+    private Map<String, Class<?>> loadNamedTypes(String[] namesAndTypes) throws ClassNotFoundException {
+        Map<String, Class<?>> types = new HashMap<>();
+        for (int i = 0; i < namesAndTypes.length; i += 2) {
+            types.put(namesAndTypes[i], ServiceIndex.loadClass(namesAndTypes[i + 1], classLoader));
+        }
+        return types;
+    }
+
+    private Map<String, Record> read(String packageName) {
+        Map<String, Record> records = new HashMap<>();
+        if (!file.isFile()) {
+            return records;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return records;
+            }
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            if (!packageName.equals(strings[buffer.getInt()])) {
+                return records;
+            }
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                Record record = new Record(strings[buffer.getInt()], buffer.getLong());
+                if (buffer.get() != 0) {
+                    int constructorCount = buffer.getInt();
+                    record.constructorDependencies = constructorCount == NO_CONSTRUCTOR
+                            ? null
+                            : readStrings(buffer, strings, constructorCount);
+                    record.methodDependencies = readStrings(buffer, strings, buffer.getInt() * 2);
+                    record.fieldDependencies = readStrings(buffer, strings, buffer.getInt() * 2);
+                }
+                records.put(record.className, record);
+            }
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException
+                | NegativeArraySizeException e) {
+            ContainerEvents.failed("reading of the descriptor cache, it is rebuilt", e);
+            records.clear();
+        }
+        return records;
+    }
+
+    private static String[] readStrings(ByteBuffer buffer, String[] strings, int count) {
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = strings[buffer.getInt()];
+        }
+        return values;
+    }
+
+    private void write(String packageName, List<Record> records) throws IOException {
+        Map<String, Integer> stringIds = new LinkedHashMap<>();
+        stringId(stringIds, packageName);
+        for (Record record : records) {
+            stringId(stringIds, record.className);
+            if (record.isService()) {
+                if (record.constructorDependencies != null) {
+                    for (String type : record.constructorDependencies) {
+                        stringId(stringIds, type);
+                    }
+                }
+                for (String value : record.methodDependencies) {
+                    stringId(stringIds, value);
+                }
+                for (String value : record.fieldDependencies) {
+                    stringId(stringIds, value);
+                }
+            }
+        }
+
+        Path directory = file.getAbsoluteFile().getParentFile().toPath();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getName(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(stringIds.size());
+            for (String string : stringIds.keySet()) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(stringIds.get(packageName));
+            out.writeInt(records.size());
+            for (Record record : records) {
+                out.writeInt(stringIds.get(record.className));
+                out.writeLong(record.fingerprint);
+                out.writeByte(record.isService() ? 1 : 0);
+                if (record.isService()) {
+                    if (record.constructorDependencies == null) {
+                        out.writeInt(NO_CONSTRUCTOR);
+                    } else {
+                        writeStrings(out, stringIds, record.constructorDependencies, record.constructorDependencies.length);
+                    }
+                    writeStrings(out, stringIds, record.methodDependencies, record.methodDependencies.length / 2);
+                    writeStrings(out, stringIds, record.fieldDependencies, record.fieldDependencies.length / 2);
+                }
+            }
+        }
+        try {
+            Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void stringId(Map<String, Integer> stringIds, String string) {
+        stringIds.putIfAbsent(string, stringIds.size());
+    }
+
+    private static void writeStrings(DataOutputStream out, Map<String, Integer> stringIds,
+                                     String[] values, int count) throws IOException {
+        out.writeInt(count);
+        for (String value : values) {
+            out.writeInt(stringIds.get(value));
+        }
+    }
+
+    /**
+     * One cached class file. Method and field dependencies are stored as name, type name pairs.
+     */
+    private static class Record {
+
+        private final String className;
+        private final long fingerprint;
+        private String[] constructorDependencies;
+        private String[] methodDependencies;
+        private String[] fieldDependencies;
+
+        Record(String className, long fingerprint) {
+            this.className = className;
+            this.fingerprint = fingerprint;
+        }
+
+        static Record of(BeanDescriptor descriptor, long fingerprint) {
+            Record record = new Record(descriptor.getBean().getName(), fingerprint);
+            if (descriptor.getAnnotatedConstructor() != null) {
+                record.constructorDependencies = typeNames(descriptor.getConstructorDependencies());
+            }
+            record.methodDependencies = pairs(descriptor.getMethodDependencies());
+            record.fieldDependencies = pairs(descriptor.getFieldDependencies());
+            return record;
+        }
+
+        boolean isService() {
+            return methodDependencies != null;
+        }
+
+        private static String[] typeNames(List<Class<?>> types) {
+            String[] names = new String[types.size()];
+            int i = 0;
+            for (Class<?> type : types) {
+                names[i++] = type.getName();
+            }
+            return names;
+        }
+
+        private static String[] pairs(Map<String, Class<?>> dependencies) {
+            String[] pairs = new String[dependencies.size() * 2];
+            int i = 0;
+            for (Map.Entry<String, Class<?>> dependency : dependencies.entrySet()) {
+                pairs[i++] = dependency.getKey();
+                pairs[i++] = dependency.getValue().getName();
+            }
+            return pairs;
+        }
+    }
+}
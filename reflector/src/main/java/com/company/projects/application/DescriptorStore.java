@@ -0,0 +1,315 @@
+package com.company.projects.application;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact, immutable store of the dependencies of a set of beans.
+ *
+ * Every bean is given an int id, in the order the descriptors were given, and every dependency type
+ * that is not one of the beans an id after them. The dependencies of all beans are kept in one array
+ * of ids in compressed sparse row layout: the dependencies of bean {@code id} are the entries from
+ * {@link #getDependencyStart(int)} to {@link #getDependencyEnd(int)}, constructor dependencies first
+ * in parameter order, then method and then field dependencies. Iterating over them allocates nothing:
+ *
+ * <pre>
+ *   for (int edge = store.getDependencyStart(id); edge &lt; store.getDependencyEnd(id); edge++) {
+ *       int dependency = store.getTarget(edge);
+ *   }
+ * </pre>
+ *
+ * The existing descriptor API is available as a view over the store: {@link #getDescriptor(int)} returns a
+ * read-only descriptor whose {@link BeanDescriptor#collectAllDependencies()} is the store's list of the bean.
+ * The given descriptors are only read, as they may be shared with other stores and the {@link Reflector}
+ * caches them process-wide; the views delegate to them for everything else.
+ */
+public class DescriptorStore {
+
+    /**
+     * How a dependency is injected
+     */
+    public enum Injection { CONSTRUCTOR, METHOD, FIELD }
+
+    private static final int KINDS = 3;
+
+    private final BeanDescriptor[] descriptors;
+    private final Class<?>[] classes;
+    private final Map<Class<?>, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final String[] points;
+    private final StoredDescriptor[] views;
+
+    private DescriptorStore(BeanDescriptor[] descriptors, Class<?>[] classes, Map<Class<?>, Integer> ids,
+                            int[] offsets, int[] targets, String[] points) {
+        this.descriptors = descriptors;
+        this.classes = classes;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.points = points;
+        this.views = new StoredDescriptor[descriptors.length];
+        for (int id = 0; id < descriptors.length; id++) {
+            views[id] = new StoredDescriptor(descriptors[id], new DependencyList(id));
+        }
+    }
+
+    /**
+     * Stores the given descriptors. A class described more than once is stored once, with its first descriptor.
+     */
+    public static DescriptorStore of(List<BeanDescriptor> beanDescriptors) {
+        Map<Class<?>, Integer> ids = new HashMap<>(beanDescriptors.size() * 2);
+        List<BeanDescriptor> beans = new ArrayList<>(beanDescriptors.size());
+        for (BeanDescriptor descriptor : beanDescriptors) {
+            if (ids.putIfAbsent(descriptor.getBean(), beans.size()) == null) {
+                beans.add(descriptor);
+            }
+        }
+        List<Class<?>> classes = new ArrayList<>(beans.size());
+        int edges = 0;
+        for (BeanDescriptor descriptor : beans) {
+            classes.add(descriptor.getBean());
+            edges += descriptor.getConstructorDependencies().size() + descriptor.getMethodDependencies().size()
+                    + descriptor.getFieldDependencies().size();
+        }
+        int[] offsets = new int[beans.size() * KINDS + 1];
+        int[] targets = new int[edges];
+        String[] points = new String[edges];
+        int edge = 0;
+        for (int id = 0; id < beans.size(); id++) {
+            BeanDescriptor descriptor = beans.get(id);
+            offsets[id * KINDS] = edge;
+            for (Class<?> dependency : descriptor.getConstructorDependencies()) {
+                targets[edge++] = idOf(dependency, ids, classes);
+            }
+            offsets[id * KINDS + 1] = edge;
+            for (Map.Entry<String, Class<?>> dependency : descriptor.getMethodDependencies().entrySet()) {
+                points[edge] = dependency.getKey();
+                targets[edge++] = idOf(dependency.getValue(), ids, classes);
+            }
+            offsets[id * KINDS + 2] = edge;
+            for (Map.Entry<String, Class<?>> dependency : descriptor.getFieldDependencies().entrySet()) {
+                points[edge] = dependency.getKey();
+                targets[edge++] = idOf(dependency.getValue(), ids, classes);
+            }
+        }
+        offsets[beans.size() * KINDS] = edge;
+        return new DescriptorStore(beans.toArray(new BeanDescriptor[0]), classes.toArray(new Class<?>[0]),
+                ids, offsets, targets, points);
+    }
+
+    private static int idOf(Class<?> type, Map<Class<?>, Integer> ids, List<Class<?>> classes) {
+        Integer id = ids.get(type);
+        if (id == null) {
+            id = classes.size();
+            ids.put(type, id);
+            classes.add(type);
+        }
+        return id;
+    }
+
+    /**
+     * @return The number of beans, whose ids are 0 to size - 1
+     */
+    public int size() {
+        return descriptors.length;
+    }
+
+    /**
+     * @return The number of ids, of beans and of dependency types that are not beans
+     */
+    public int getClassCount() {
+        return classes.length;
+    }
+
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * @return The id of the class, or -1 if it is neither a bean nor a dependency of one
+     */
+    public int idOf(Class<?> type) {
+        Integer id = ids.get(type);
+        return id == null ? -1 : id;
+    }
+
+    public Class<?> getClass(int id) {
+        return classes[id];
+    }
+
+    public boolean isBean(int id) {
+        return id < descriptors.length;
+    }
+
+    /**
+     * @return The read-only view of the bean's descriptor, whose dependencies are served by this store
+     */
+    public BeanDescriptor getDescriptor(int id) {
+        return views[id];
+    }
+
+    public int getDependencyStart(int id) {
+        return offsets[id * KINDS];
+    }
+
+    public int getDependencyEnd(int id) {
+        return offsets[id * KINDS + KINDS];
+    }
+
+    /**
+     * @return The first edge of the bean injected the given way; they end where the next way starts
+     */
+    public int getDependencyStart(int id, Injection injection) {
+        return offsets[id * KINDS + injection.ordinal()];
+    }
+
+    public int getDependencyEnd(int id, Injection injection) {
+        return offsets[id * KINDS + injection.ordinal() + 1];
+    }
+
+    public int getDependencyCount(int id) {
+        return getDependencyEnd(id) - getDependencyStart(id);
+    }
+
+    /**
+     * @return The id of the dependency at the given edge
+     */
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * @return The name of the method or field of a method or field dependency, null for a constructor dependency
+     */
+    public String getPointName(int edge) {
+        return points[edge];
+    }
+
+    /**
+     * @return The dependency types of the bean, constructor dependencies first, as an unmodifiable view of the store
+     */
+    public List<Class<?>> getDependencies(int id) {
+        return views[id].dependencies;
+    }
+
+    /**
+     * A descriptor of the store, delegating to the descriptor it was given. It cannot be changed, since
+     * the store would not see the change.
+     */
+    private static class StoredDescriptor extends BeanDescriptor {
+
+        private final BeanDescriptor descriptor;
+        private final List<Class<?>> dependencies;
+
+        StoredDescriptor(BeanDescriptor descriptor, List<Class<?>> dependencies) {
+            super(descriptor.getBean());
+            this.descriptor = descriptor;
+            this.dependencies = dependencies;
+        }
+
+        @Override
+        public Constructor<?> getAnnotatedConstructor() {
+            return descriptor.getAnnotatedConstructor();
+        }
+
+        @Override
+        public List<Class<?>> getConstructorDependencies() {
+            return Collections.unmodifiableList(descriptor.getConstructorDependencies());
+        }
+
+        @Override
+        public Map<String, Class<?>> getMethodDependencies() {
+            return Collections.unmodifiableMap(descriptor.getMethodDependencies());
+        }
+
+        @Override
+        public Map<String, Class<?>> getFieldDependencies() {
+            return Collections.unmodifiableMap(descriptor.getFieldDependencies());
+        }
+
+        @Override
+        public Method getInjectionMethod(String name) throws NoSuchMethodException {
+            return descriptor.getInjectionMethod(name);
+        }
+
+        @Override
+        public void cacheInjectionMethod(Method method) {
+            descriptor.cacheInjectionMethod(method);
+        }
+
+        @Override
+        public Field getInjectionField(String name) throws NoSuchFieldException {
+            return descriptor.getInjectionField(name);
+        }
+
+        @Override
+        public void cacheInjectionField(Field field) {
+            descriptor.cacheInjectionField(field);
+        }
+
+        @Override
+        public BeanInjector getInjector() throws ReflectiveOperationException {
+            return descriptor.getInjector();
+        }
+
+        @Override
+        public List<Class<?>> collectAllDependencies() {
+            return dependencies;
+        }
+
+        @Override
+        public void setBean(Class<?> bean) {
+            throw new UnsupportedOperationException("The descriptors of a store cannot be changed");
+        }
+
+        @Override
+        public void setAnnotatedConstructor(Constructor<?> annotatedConstructor) {
+            throw new UnsupportedOperationException("The descriptors of a store cannot be changed");
+        }
+
+        @Override
+        public void setConstructorDependencies(List<Class<?>> constructorDependencies) {
+            throw new UnsupportedOperationException("The descriptors of a store cannot be changed");
+        }
+
+        @Override
+        public void setMethodDependencies(Map<String, Class<?>> methodDependencies) {
+            throw new UnsupportedOperationException("The descriptors of a store cannot be changed");
+        }
+
+        @Override
+        public void setFieldDependencies(Map<String, Class<?>> fieldDependencies) {
+            throw new UnsupportedOperationException("The descriptors of a store cannot be changed");
+        }
+    }
+
+    private class DependencyList extends AbstractList<Class<?>> {
+
+        private final int id;
+
+        DependencyList(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public Class<?> get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + ", size " + size());
+            }
+            return classes[targets[getDependencyStart(id) + index]];
+        }
+
+        @Override
+        public int size() {
+            return getDependencyCount(id);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.company.projects.application;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue of events with many producers and a single consumer.
+ *
+ * Producers claim a sequence number with a compare-and-set on the tail, then store the event in its
+ * slot. The consumer takes the slot at the head once the event is there, clears it and advances the
+ * head, which frees the slot for the producer claiming the sequence number one capacity later. A full
+ * ring rejects the event instead of waiting for the consumer.
+ */
+final class EventRing {
+
+    private final AtomicReferenceArray<ContainerEvent> slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity Rounded up to a power of two
+     */
+    EventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return Whether the event was queued, false if the ring is full
+     */
+    boolean offer(ContainerEvent event) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head.get() > mask) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.lazySet((int) sequence & mask, event);
+        return true;
+    }
+
+    /**
+     * Only called by the consumer.
+     *
+     * @return The next event, or null if the ring is empty or the next event is still being stored
+     */
+    ContainerEvent poll() {
+        long sequence = head.get();
+        int slot = (int) sequence & mask;
+        ContainerEvent event = slots.get(slot);
+        if (event == null) {
+            return null;
+        }
+        slots.lazySet(slot, null);
+        head.lazySet(sequence + 1);
+        return event;
+    }
+
+    boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    /**
+     * @return The number of events queued since the ring was created
+     */
+    long queued() {
+        return tail.get();
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,135 @@
+package com.company.projects.application;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link ContainerEventListener} registered with {@link ContainerEvents}, with its own ring of pending
+ * events and its own daemon thread delivering them. Publishing only queues the event, so a slow listener
+ * delays nobody but itself: once its ring is full, further events are dropped and counted.
+ *
+ * Exceptions thrown by the listener are counted and otherwise ignored.
+ */
+public final class EventSubscription implements AutoCloseable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final ContainerEventListener listener;
+    private final Set<ContainerEvent.Type> types;
+    private final EventRing ring;
+    private final Thread thread;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong listenerFailures = new AtomicLong();
+    private volatile boolean idle;
+    private volatile boolean closed;
+
+    EventSubscription(ContainerEventListener listener, Set<ContainerEvent.Type> types, int capacity) {
+        this.listener = listener;
+        this.types = EnumSet.copyOf(types);
+        this.ring = new EventRing(capacity);
+        this.thread = new Thread(this::dispatch, "reflector-events-" + listener.getClass().getSimpleName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public Set<ContainerEvent.Type> getTypes() {
+        return Collections.unmodifiableSet(types);
+    }
+
+    /**
+     * @return The number of events dropped because the listener fell behind
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public long getListenerFailureCount() {
+        return listenerFailures.get();
+    }
+
+    public int getCapacity() {
+        return ring.capacity();
+    }
+
+    /**
+     * Waits until the listener has handled every event queued before the call.
+     *
+     * @return Whether it did so in time
+     */
+    public boolean awaitDelivery(long timeout, TimeUnit unit) throws InterruptedException {
+        long target = ring.queued();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (delivered.get() < target) {
+            if (System.nanoTime() - deadline >= 0 || !thread.isAlive()) {
+                return false;
+            }
+            LockSupport.unpark(thread);
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    /**
+     * Unsubscribes the listener. Events queued so far are still delivered, the dispatch thread ends afterwards.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            ContainerEvents.unsubscribe(this);
+            LockSupport.unpark(thread);
+        }
+    }
+
+    boolean accepts(ContainerEvent.Type type) {
+        return types.contains(type);
+    }
+
+    void offer(ContainerEvent event) {
+        if (!ring.offer(event)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (idle) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void dispatch() {
+        while (true) {
+            ContainerEvent event = ring.poll();
+            if (event != null) {
+                try {
+                    listener.onEvent(event);
+                } catch (RuntimeException e) {
+                    listenerFailures.incrementAndGet();
+                }
+                delivered.lazySet(delivered.get() + 1);
+                continue;
+            }
+            if (!ring.isEmpty()) {
+                // An event is claimed but not stored yet
+                Thread.yield();
+                continue;
+            }
+            if (closed) {
+                return;
+            }
+            // Parking is bounded, so an unpark missed between the check and the park only delays delivery
+            idle = true;
+            if (ring.isEmpty() && !closed) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            idle = false;
+        }
+    }
+}
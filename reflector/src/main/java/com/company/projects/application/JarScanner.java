@@ -0,0 +1,323 @@
+package com.company.projects.application;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Lists class entries of a jar straight from its zip central directory.
+ *
+ * The jar file is memory-mapped once and the central directory is walked in a single pass.
+ * Entry names are compared with the requested prefix byte by byte, so only matching entries
+ * are decoded and nothing is inflated until {@link #readEntry(Entry)} asks for it.
+ * Nested jars, as in {@code jar:file:/app.jar!/BOOT-INF/lib/lib.jar!/com/company}, are read
+ * from a slice of the outer mapping when stored and inflated into memory when compressed.
+ */
+public class JarScanner {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_EXTRA_FIELD = 0x0001;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+    private static final String JAR_SEPARATOR = "!/";
+
+    private final ByteBuffer jar;
+    private final String prefix;
+
+    private JarScanner(ByteBuffer jar, String prefix) {
+        this.jar = jar.order(ByteOrder.LITTLE_ENDIAN);
+        this.prefix = prefix;
+    }
+
+    /**
+     * Opens the innermost jar of a {@code jar:} URL, descending through nested jars.
+     * The path after the last {@code !/} becomes the prefix used by {@link #listClasses()}.
+     */
+    public static JarScanner open(URL jarUrl) throws IOException {
+        String spec = jarUrl.toString();
+        if (!spec.startsWith("jar:")) {
+            throw new IOException("Not a jar URL: " + spec);
+        }
+        String[] parts = spec.substring("jar:".length()).split(JAR_SEPARATOR);
+        ByteBuffer current = map(toPath(parts[0]));
+        int last = parts.length - 1;
+        if (parts.length > 1 && parts[last].endsWith(".jar")) {
+            last = parts.length;
+        }
+        for (int i = 1; i < last; i++) {
+            JarScanner outer = new JarScanner(current, "");
+            Entry nested = outer.findEntry(parts[i]);
+            if (nested == null) {
+                throw new IOException("Nested jar " + parts[i] + " not found in " + spec);
+            }
+            current = outer.entryData(nested);
+        }
+        String prefix = last > 0 && last < parts.length ? parts[last] : "";
+        return new JarScanner(current, prefix.isEmpty() || prefix.endsWith("/") ? prefix : prefix + "/");
+    }
+
+    /**
+     * @return the class entries below this scanner's prefix, in central directory order
+     */
+    public List<Entry> listClasses() throws IOException {
+        byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+        byte[] suffixBytes = ".class".getBytes(StandardCharsets.UTF_8);
+        List<Entry> entries = new ArrayList<>();
+        int position = centralDirectoryOffset();
+        long count = centralDirectoryEntries();
+        for (long i = 0; i < count; i++) {
+            checkSignature(position, CENTRAL_HEADER_SIGNATURE);
+            int nameLength = unsignedShort(position + 28);
+            int extraLength = unsignedShort(position + 30);
+            int commentLength = unsignedShort(position + 32);
+            int nameStart = position + 46;
+            if (regionMatches(nameStart, nameLength, prefixBytes, 0)
+                    && regionMatches(nameStart, nameLength, suffixBytes, nameLength - suffixBytes.length)) {
+                entries.add(readCentralHeader(position));
+            }
+            position = nameStart + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    /**
+     * Inflates a single entry previously returned by {@link #listClasses()}.
+     */
+    public byte[] readEntry(Entry entry) throws IOException {
+        ByteBuffer data = entryData(entry);
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        return bytes;
+    }
+
+    private Entry findEntry(String name) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int position = centralDirectoryOffset();
+        long count = centralDirectoryEntries();
+        for (long i = 0; i < count; i++) {
+            checkSignature(position, CENTRAL_HEADER_SIGNATURE);
+            int nameLength = unsignedShort(position + 28);
+            int extraLength = unsignedShort(position + 30);
+            int commentLength = unsignedShort(position + 32);
+            if (nameLength == nameBytes.length && regionMatches(position + 46, nameLength, nameBytes, 0)) {
+                return readCentralHeader(position);
+            }
+            position += 46 + nameLength + extraLength + commentLength;
+        }
+        return null;
+    }
+
+    private Entry readCentralHeader(int position) throws IOException {
+        int method = unsignedShort(position + 10);
+        long crc = unsignedInt(position + 16);
+        long compressedSize = unsignedInt(position + 20);
+        long size = unsignedInt(position + 24);
+        int nameLength = unsignedShort(position + 28);
+        int extraLength = unsignedShort(position + 30);
+        long localHeaderOffset = unsignedInt(position + 42);
+
+        int extra = position + 46 + nameLength;
+        int extraEnd = extra + extraLength;
+        while (extra + 4 <= extraEnd) {
+            int headerId = unsignedShort(extra);
+            int dataSize = unsignedShort(extra + 2);
+            if (headerId == ZIP64_EXTRA_FIELD) {
+                int field = extra + 4;
+                if (size == 0xFFFFFFFFL) {
+                    size = jar.getLong(field);
+                    field += 8;
+                }
+                if (compressedSize == 0xFFFFFFFFL) {
+                    compressedSize = jar.getLong(field);
+                    field += 8;
+                }
+                if (localHeaderOffset == 0xFFFFFFFFL) {
+                    localHeaderOffset = jar.getLong(field);
+                }
+                break;
+            }
+            extra += 4 + dataSize;
+        }
+
+        byte[] name = new byte[nameLength];
+        ByteBuffer nameBuffer = jar.duplicate();
+        nameBuffer.position(position + 46);
+        nameBuffer.get(name);
+        return new Entry(new String(name, StandardCharsets.UTF_8), method,
+                crc, compressedSize, size, localHeaderOffset);
+    }
+
+    private ByteBuffer entryData(Entry entry) throws IOException {
+        int local = toInt(entry.localHeaderOffset);
+        checkSignature(local, LOCAL_HEADER_SIGNATURE);
+        int dataStart = local + 30 + unsignedShort(local + 26) + unsignedShort(local + 28);
+        ByteBuffer compressed = jar.duplicate();
+        compressed.position(dataStart);
+        compressed.limit(dataStart + toInt(entry.compressedSize));
+        compressed = compressed.slice();
+
+        if (entry.method == STORED) {
+            return compressed;
+        }
+        if (entry.method != DEFLATED) {
+            throw new IOException("Unsupported compression method " + entry.method + " of " + entry.name);
+        }
+        byte[] input = new byte[compressed.remaining()];
+        compressed.get(input);
+        byte[] output = new byte[toInt(entry.size)];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            int inflated = 0;
+            while (inflated < output.length && !inflater.finished()) {
+                int read = inflater.inflate(output, inflated, output.length - inflated);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += read;
+            }
+            if (inflated != output.length) {
+                throw new IOException("Truncated entry " + entry.name);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt entry " + entry.name + ": " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(output);
+    }
+
+    private int centralDirectoryOffset() throws IOException {
+        int end = endOfCentralDirectory();
+        int locator = end - 20;
+        if (locator >= 0 && jar.getInt(locator) == ZIP64_LOCATOR_SIGNATURE) {
+            int zip64End = toInt(jar.getLong(locator + 8));
+            checkSignature(zip64End, ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE);
+            return toInt(jar.getLong(zip64End + 48));
+        }
+        return toInt(unsignedInt(end + 16));
+    }
+
+    private long centralDirectoryEntries() throws IOException {
+        int end = endOfCentralDirectory();
+        int locator = end - 20;
+        if (locator >= 0 && jar.getInt(locator) == ZIP64_LOCATOR_SIGNATURE) {
+            int zip64End = toInt(jar.getLong(locator + 8));
+            return jar.getLong(zip64End + 32);
+        }
+        return unsignedShort(end + 10);
+    }
+
+    private int endOfCentralDirectory() throws IOException {
+        int lowest = Math.max(0, jar.limit() - END_OF_CENTRAL_DIRECTORY_SIZE - MAX_COMMENT_SIZE);
+        for (int position = jar.limit() - END_OF_CENTRAL_DIRECTORY_SIZE; position >= lowest; position--) {
+            if (jar.getInt(position) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                return position;
+            }
+        }
+        throw new IOException("End of central directory not found, not a jar file");
+    }
+
+    private boolean regionMatches(int nameStart, int nameLength, byte[] expected, int offset) {
+        if (offset < 0 || offset + expected.length > nameLength) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (jar.get(nameStart + offset + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkSignature(int position, int signature) throws IOException {
+        if (position < 0 || position + 4 > jar.limit() || jar.getInt(position) != signature) {
+            throw new IOException(String.format("Corrupt jar: expected signature %08x at %d", signature, position));
+        }
+    }
+
+    private int unsignedShort(int position) {
+        return jar.getShort(position) & 0xFFFF;
+    }
+
+    private long unsignedInt(int position) {
+        return jar.getInt(position) & 0xFFFFFFFFL;
+    }
+
+    private static int toInt(long value) throws IOException {
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("Jars larger than 2GB are not supported");
+        }
+        return (int) value;
+    }
+
+    private static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static Path toPath(String fileUrl) throws IOException {
+        try {
+            return Paths.get(new URI(fileUrl));
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new IOException("Unsupported jar location " + fileUrl, e);
+        }
+    }
+
+    public static class Entry {
+
+        private final String name;
+        private final int method;
+        private final long crc;
+        private final long compressedSize;
+        private final long size;
+        private final long localHeaderOffset;
+
+        Entry(String name, int method, long crc, long compressedSize, long size, long localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getClassName() {
+            return name.substring(0, name.length() - ".class".length()).replace('/', '.');
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * @return The CRC-32 of the uncompressed entry, as recorded in the central directory
+         */
+        public long getCrc() {
+            return crc;
+        }
+    }
+}
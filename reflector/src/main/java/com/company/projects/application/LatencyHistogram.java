@@ -0,0 +1,58 @@
+package com.company.projects.application;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free recorder of latencies. With buckets, latencies are also counted in power of two
+ * buckets, bucket {@code b} holding latencies below {@code 2^(b+1)} nanoseconds. Without them
+ * only count, total and maximum are kept, which is cheap enough to have one per class.
+ */
+class LatencyHistogram {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray buckets;
+
+    LatencyHistogram(boolean withBuckets) {
+        this.buckets = withBuckets ? new AtomicLongArray(Long.SIZE) : null;
+    }
+
+    void record(long nanos) {
+        long latency = Math.max(0, nanos);
+        count.increment();
+        total.add(latency);
+        max.accumulate(latency);
+        if (buckets != null) {
+            buckets.incrementAndGet(latency == 0 ? 0 : Long.SIZE - 1 - Long.numberOfLeadingZeros(latency));
+        }
+    }
+
+    void reset() {
+        count.reset();
+        total.reset();
+        max.reset();
+        if (buckets != null) {
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, 0);
+            }
+        }
+    }
+
+    LatencySummary summarize() {
+        long[] counts = null;
+        if (buckets != null) {
+            counts = new long[buckets.length()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buckets.get(i);
+            }
+        }
+        return new LatencySummary(count.sum(), total.sum(), max.get(), counts);
+    }
+
+    static long upperBound(int bucket) {
+        return bucket >= Long.SIZE - 2 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+    }
+}
@@ -0,0 +1,78 @@
+package com.company.projects.application;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable summary of the latencies recorded for a phase or for one class in a phase.
+ * Percentiles are only available for phases, whose latencies are kept in a histogram
+ * with power of two buckets; they are the upper bound of the bucket the percentile falls in.
+ */
+public class LatencySummary {
+
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long[] buckets;
+
+    LatencySummary(long count, long totalNanos, long maxNanos, long[] buckets) {
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.buckets = buckets;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    public boolean hasPercentiles() {
+        return buckets != null;
+    }
+
+    /**
+     * @param percentile Between 0 and 100
+     * @return An upper bound of the given percentile of the latencies, never above the maximum
+     * @throws IllegalStateException If the summary has no histogram
+     */
+    public long getPercentileNanos(double percentile) {
+        if (buckets == null) {
+            throw new IllegalStateException("No histogram was kept for these latencies");
+        }
+        long rank = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            seen += buckets[bucket];
+            if (seen >= rank && seen > 0) {
+                return Math.min(maxNanos, LatencyHistogram.upperBound(bucket));
+            }
+        }
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        String summary = String.format("count %d, total %.3f ms, mean %.1f us, max %.1f us",
+                count, millis(totalNanos), getMeanNanos() / 1000.0, maxNanos / 1000.0);
+        if (buckets != null && count > 0) {
+            summary += String.format(", p50 %.1f us, p99 %.1f us",
+                    getPercentileNanos(50) / 1000.0, getPercentileNanos(99) / 1000.0);
+        }
+        return summary;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
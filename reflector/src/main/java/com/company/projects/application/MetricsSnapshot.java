@@ -0,0 +1,59 @@
+package com.company.projects.application;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copy of the {@link ContainerMetrics} taken at one point in time.
+ */
+public class MetricsSnapshot {
+
+    private final Map<StartupPhase, LatencySummary> phases;
+    private final Map<StartupPhase, Map<String, LatencySummary>> classes;
+
+    MetricsSnapshot(Map<StartupPhase, LatencySummary> phases,
+                    Map<StartupPhase, Map<String, LatencySummary>> classes) {
+        this.phases = Collections.unmodifiableMap(new EnumMap<>(phases));
+        this.classes = Collections.unmodifiableMap(new EnumMap<>(classes));
+    }
+
+    /**
+     * @return The latencies of the phase, with percentiles
+     */
+    public LatencySummary getPhase(StartupPhase phase) {
+        return phases.get(phase);
+    }
+
+    /**
+     * @return The latencies of every class in the phase, by class or package name
+     */
+    public Map<String, LatencySummary> getClasses(StartupPhase phase) {
+        return classes.get(phase);
+    }
+
+    /**
+     * @return The classes that took the most time in the phase, slowest first
+     */
+    public List<Map.Entry<String, LatencySummary>> getSlowest(StartupPhase phase, int limit) {
+        List<Map.Entry<String, LatencySummary>> slowest = new ArrayList<>(classes.get(phase).entrySet());
+        slowest.sort(Comparator.comparingLong(
+                (Map.Entry<String, LatencySummary> entry) -> entry.getValue().getTotalNanos()).reversed());
+        return slowest.subList(0, Math.min(limit, slowest.size()));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder();
+        for (StartupPhase phase : StartupPhase.values()) {
+            summary.append(phase).append(": ").append(phases.get(phase)).append('\n');
+            for (Map.Entry<String, LatencySummary> slow : getSlowest(phase, 3)) {
+                summary.append("    ").append(slow.getKey()).append(": ").append(slow.getValue()).append('\n');
+            }
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,14 @@
+package com.company.projects.application;
+
+/**
+ * Thrown when a bean is requested from a {@link BeanRegistry} that has no bean,
+ * or more than one bean, matching the request.
+ */
+public class NoSuchBeanException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public NoSuchBeanException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,267 @@
+package com.company.projects.application;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Drop-in replacement for {@link ProjectScanner} that walks the class path roots and their
+ * subdirectories as fork/join tasks.
+ *
+ * Every directory is listed once per scan: the listings and package names taken by
+ * {@link #getPackages(String)} are reused by the following {@link #getClasses(List)} and dropped once
+ * it is done, so a scanner that is kept sees the class files of the next scan and holds on to nothing
+ * in between. Classes reachable through several roots are returned
+ * once. Classes are loaded in parallel without being initialized, so that concurrent static
+ * initializers cannot deadlock each other; the Class objects are the same.
+ *
+ * The scanner owns a fork/join pool, which {@link #close()} shuts down.
+ */
+public class ParallelProjectScanner extends ProjectScanner {
+
+    private static final int LOAD_BATCH_SIZE = 32;
+
+    private final ForkJoinPool pool;
+    private final Map<File, File[]> listings = new ConcurrentHashMap<>();
+    private final Map<File, String> packageNames = new ConcurrentHashMap<>();
+
+    public ParallelProjectScanner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelProjectScanner(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    @Override
+    public List<File> getPackages(String packageName) throws IOException {
+        String path = packageName.replace(".", "/");
+        String parentPath = path.substring(0, path.lastIndexOf("/"));
+        String parentPackage = parentPath.replace("/", ".");
+        listings.clear();
+        packageNames.clear();
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        Enumeration<URL> resources = classLoader.getResources(parentPath);
+
+        List<File> roots = new ArrayList<>();
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            if ("file".equals(resource.getProtocol())) {
+                File root = toFile(resource);
+                roots.add(root);
+                packageNames.put(root, parentPackage);
+            }
+        }
+        return pool.invoke(new PackagesTask(roots, parentPackage));
+    }
+
+    @Override
+    public List<Class<?>> getClasses(List<File> packages) throws ClassNotFoundException {
+        Set<String> classNames = new LinkedHashSet<>();
+        List<ClassNamesTask> tasks = new ArrayList<>();
+        for (File pack : packages) {
+            String packName = packageNames.get(pack);
+            tasks.add(new ClassNamesTask(pack, packName != null ? packName : packageNameOf(pack)));
+        }
+        for (ClassNamesTask task : tasks) {
+            pool.execute(task);
+        }
+        for (ClassNamesTask task : tasks) {
+            classNames.addAll(task.join());
+        }
+        listings.clear();
+        packageNames.clear();
+        try {
+            return pool.invoke(new LoadTask(new ArrayList<>(classNames), 0, classNames.size(),
+                    Thread.currentThread().getContextClassLoader()));
+        } catch (LoadException e) {
+            throw (ClassNotFoundException) e.getCause();
+        }
+    }
+
+    /**
+     * Shuts the pool down, the scanner cannot be used afterwards.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private File[] list(File dir) {
+        return listings.computeIfAbsent(dir, d -> {
+            File[] files = d.listFiles();
+            return files == null ? new File[0] : files;
+        });
+    }
+
+    private class PackagesTask extends RecursiveTask<List<File>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<File> roots;
+        private final String parentPackage;
+
+        PackagesTask(List<File> roots, String parentPackage) {
+            this.roots = roots;
+            this.parentPackage = parentPackage;
+        }
+
+        @Override
+        protected List<File> compute() {
+            List<ListTask> rootTasks = forkListings(roots);
+            List<File> children = new ArrayList<>();
+            for (ListTask rootTask : rootTasks) {
+                for (File child : rootTask.join()) {
+                    if (child.isDirectory()) {
+                        children.add(child);
+                        packageNames.put(child, parentPackage + "." + child.getName());
+                    }
+                }
+            }
+            List<ListTask> childTasks = forkListings(children);
+
+            List<File> packages = new ArrayList<>();
+            collectPackagesWithClasses(rootTasks, packages);
+            collectPackagesWithClasses(childTasks, packages);
+            return packages;
+        }
+
+        private List<ListTask> forkListings(List<File> dirs) {
+            List<ListTask> tasks = new ArrayList<>(dirs.size());
+            for (File dir : dirs) {
+                ListTask task = new ListTask(dir);
+                task.fork();
+                tasks.add(task);
+            }
+            return tasks;
+        }
+
+        private void collectPackagesWithClasses(List<ListTask> tasks, List<File> packages) {
+            for (ListTask task : tasks) {
+                for (File file : task.join()) {
+                    if (file.getName().endsWith(".class")) {
+                        packages.add(task.dir);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private class ListTask extends RecursiveTask<File[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final File dir;
+
+        ListTask(File dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        protected File[] compute() {
+            return list(dir);
+        }
+    }
+
+    private class ClassNamesTask extends RecursiveTask<List<String>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final File dir;
+        private final String packName;
+
+        ClassNamesTask(File dir, String packName) {
+            this.dir = dir;
+            this.packName = packName;
+        }
+
+        @Override
+        protected List<String> compute() {
+            File[] files = list(dir);
+            Object[] results = new Object[files.length];
+            for (int i = 0; i < files.length; i++) {
+                File file = files[i];
+                if (file.isDirectory()) {
+                    ClassNamesTask subTask = new ClassNamesTask(file, packName + "." + file.getName());
+                    subTask.fork();
+                    results[i] = subTask;
+                } else if (file.getName().endsWith(".class")) {
+                    results[i] = packName + '.' + file.getName().substring(0, file.getName().length() - 6);
+                }
+            }
+            List<String> classNames = new ArrayList<>();
+            for (Object result : results) {
+                if (result instanceof String) {
+                    classNames.add((String) result);
+                } else if (result != null) {
+                    classNames.addAll(((ClassNamesTask) result).join());
+                }
+            }
+            return classNames;
+        }
+    }
+
+    private static class LoadTask extends RecursiveTask<List<Class<?>>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> classNames;
+        private final int from;
+        private final int to;
+        private final ClassLoader classLoader;
+
+        LoadTask(List<String> classNames, int from, int to, ClassLoader classLoader) {
+            this.classNames = classNames;
+            this.from = from;
+            this.to = to;
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected List<Class<?>> compute() {
+            if (to - from > LOAD_BATCH_SIZE) {
+                int middle = (from + to) >>> 1;
+                LoadTask right = new LoadTask(classNames, middle, to, classLoader);
+                right.fork();
+                List<Class<?>> classes = new LoadTask(classNames, from, middle, classLoader).compute();
+                classes.addAll(right.join());
+                return classes;
+            }
+            List<Class<?>> classes = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                ContainerMetrics.Probe probe = ContainerMetrics.start(StartupPhase.CLASS_LOADING);
+                try {
+                    classes.add(Class.forName(classNames.get(i), false, classLoader));
+                    probe.stop(classNames.get(i));
+                    ContainerEvents.publish(ContainerEvent.Type.LOADED, classNames.get(i));
+                } catch (ClassNotFoundException e) {
+                    throw new LoadException(e);
+                }
+            }
+            return classes;
+        }
+    }
+
+    private static class LoadException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        LoadException(ClassNotFoundException cause) {
+            super(cause);
+        }
+    }
+}
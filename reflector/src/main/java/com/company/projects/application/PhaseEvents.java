@@ -0,0 +1,16 @@
+package com.company.projects.application;
+
+/**
+ * Receives the measurements of {@link ContainerMetrics} as events of another recorder.
+ * Implemented by {@code StartupEvents} for the Java Flight Recorder, which is compiled on its own
+ * because release 8 has no {@code jdk.jfr}, and loaded only when the JVM provides it.
+ */
+interface PhaseEvents {
+
+    /**
+     * @return A started event, or null if no recording is interested in the phase
+     */
+    Object begin(StartupPhase phase);
+
+    void commit(Object started, String className);
+}
@@ -0,0 +1,307 @@
+package com.company.projects.application;
+
+import wiremock.org.apache.commons.collections4.CollectionUtils;
+
+import com.google.common.collect.Lists;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+public class ProjectScanner implements AutoCloseable {
+
+    private final String STANDARD_CLASS_FILES_LOCATION = "target/classes";
+
+    public List<File> getPackages(String packageName) throws IOException {
+        String path = packageName.replace(".", "/");
+        String parentPath = path.substring(0, path.lastIndexOf("/"));
+        List<File> resources = getResources(parentPath);
+        List<File> packages = resources.stream()
+                .filter(pack -> isPackageWithClasses(pack))
+                .collect(Collectors.toList());
+        return packages;
+    }
+
+    private boolean isPackageWithClasses(File pack) {
+        return pack.isDirectory() && Arrays.stream(pack.listFiles())
+                .filter(file -> file.getPath().endsWith(".class"))
+                .collect(Collectors.toList())
+                .size() > 0;
+    }
+
+
+    public List<Class<?>> getClasses(List<File> packages) throws ClassNotFoundException {
+        List<Class<?>> classes = new LinkedList<>();
+        for (File pack : packages) {
+            classes.addAll(Lists.newArrayList(findClasses(pack, packageNameOf(pack),
+                    Thread.currentThread().getContextClassLoader())));
+        }
+        return classes;
+    }
+
+    protected String packageNameOf(File pack) {
+        String path = pack.getPath();
+        return path.substring(path.indexOf(STANDARD_CLASS_FILES_LOCATION)
+                + STANDARD_CLASS_FILES_LOCATION.length() + 1).replace(File.separator, ".");
+    }
+
+    /**
+     * Recursive method used to find all classes in a given directory and subdirs.
+     *
+     * @param pack   The base directory
+     * @param packName The package name for classes found inside the base directory
+     * @param classLoader The loader the directory was found through
+     * @return The classes
+     * @throws ClassNotFoundException
+     */
+    private static List<Class<?>> findClasses(File pack, String packName, ClassLoader classLoader) throws ClassNotFoundException {
+        List<Class<?>> classes = new ArrayList<>();
+        if (!pack.exists()) {
+            return classes;
+        }
+        File[] files = pack.listFiles();
+        for (File file : files) {
+            if (file.isDirectory()) {
+                assert !file.getName().contains(".");
+                classes.addAll(findClasses(file, packName + "." + file.getName(), classLoader));
+            } else if (file.getName().endsWith(".class")) {
+                String className = packName.replace("/", ".") + '.'
+                        + file.getName().substring(0, file.getName().length() - 6);
+                ContainerMetrics.Probe probe = ContainerMetrics.start(StartupPhase.CLASS_LOADING);
+                classes.add(Class.forName(className, true, classLoader));
+                probe.stop(className);
+                ContainerEvents.publish(ContainerEvent.Type.LOADED, className);
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Collects the names of all classes below the parent package of {@code packageName},
+     * the same root {@link #getPackages(String)} starts from, from exploded directories
+     * as well as from (nested) jars on the class path.
+     *
+     * @param packageName The package whose parent package is scanned
+     * @return The fully qualified class names
+     * @throws IOException
+     */
+    public List<String> getClassNames(String packageName) throws IOException {
+        List<String> classNames = new ArrayList<>();
+        forEachClassName(packageName, classNames::add);
+        return classNames;
+    }
+
+    /**
+     * Same class names as {@link #getClassNames(String)}, handed to the consumer one at a time
+     * while the directories and jars are being walked, so that nothing is collected.
+     *
+     * @param packageName The package whose parent package is scanned
+     * @param consumer    Receives the fully qualified class names
+     * @throws IOException
+     */
+    public void forEachClassName(String packageName, Consumer<String> consumer) throws IOException {
+        visitClasses(packageName, (className, classFile) -> consumer.accept(className));
+    }
+
+    /**
+     * Hands the raw bytes of every class file below the parent package of {@code packageName}
+     * to the consumer, one class at a time, without loading any of the classes.
+     *
+     * @param packageName The package whose parent package is scanned
+     * @param consumer    Receives the class name and class file bytes
+     * @throws IOException
+     */
+    public void forEachClassFile(String packageName, ClassFileConsumer consumer) throws IOException {
+        visitClasses(packageName, (className, classFile) -> consumer.accept(className, classFile.read()));
+    }
+
+    /**
+     * Collects a fingerprint of every class file below the parent package of {@code packageName}
+     * without reading the files: the size and modification time of exploded class files, and the
+     * size and CRC-32 recorded in the central directory for classes in (nested) jars.
+     * A class file whose fingerprint is unchanged can be assumed to be unchanged.
+     *
+     * @param packageName The package whose parent package is scanned
+     * @return The fingerprints by fully qualified class name
+     * @throws IOException
+     */
+    public Map<String, Long> getClassFingerprints(String packageName) throws IOException {
+        Map<String, Long> fingerprints = new LinkedHashMap<>();
+        visitClasses(packageName,
+                (className, classFile) -> fingerprints.putIfAbsent(className, classFile.fingerprint()));
+        return fingerprints;
+    }
+
+    /**
+     * Walks the class files below the parent package of {@code packageName} in every root of the
+     * class path, exploded directories and (nested) jars alike, and hands each one to the visitor.
+     */
+    private static void visitClasses(String packageName, ClassVisitor visitor) throws IOException {
+        String path = packageName.replace(".", "/");
+        String parentPath = path.substring(0, path.lastIndexOf("/"));
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        Enumeration<URL> roots = classLoader.getResources(parentPath);
+        while (roots.hasMoreElements()) {
+            URL root = roots.nextElement();
+            if ("jar".equals(root.getProtocol())) {
+                JarScanner jarScanner = JarScanner.open(root);
+                for (JarScanner.Entry entry : jarScanner.listClasses()) {
+                    visitor.visit(entry.getClassName(), new JarClassFile(jarScanner, entry));
+                }
+            } else if ("file".equals(root.getProtocol())) {
+                visitClassFiles(toFile(root), parentPath.replace("/", "."), visitor);
+            }
+        }
+    }
+
+    private static void visitClassFiles(File dir, String packName, ClassVisitor visitor) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                visitClassFiles(file, packName + "." + file.getName(), visitor);
+            } else if (file.getName().endsWith(".class")) {
+                visitor.visit(packName + '.' + file.getName().substring(0, file.getName().length() - 6),
+                        new ExplodedClassFile(file));
+            }
+        }
+    }
+
+    /**
+     * The directory a {@code file:} URL points to. Unlike {@link URL#getFile()}, escaped
+     * characters such as spaces in the path are decoded.
+     */
+    static File toFile(URL url) {
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            // Not a valid URI, most likely because the path was never escaped
+            return new File(url.getPath());
+        }
+    }
+
+    static long fingerprint(long size, long stamp) {
+        return size * 0x9E3779B97F4A7C15L ^ stamp;
+    }
+
+    public List<Class<?>> getClasses(String packageName) throws IOException, ClassNotFoundException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        List<Class<?>> classes = new LinkedList<>();
+        for (String className : getClassNames(packageName)) {
+            ContainerMetrics.Probe probe = ContainerMetrics.start(StartupPhase.CLASS_LOADING);
+            classes.add(Class.forName(className, true, classLoader));
+            probe.stop(className);
+            ContainerEvents.publish(ContainerEvent.Type.LOADED, className);
+        }
+        return classes;
+    }
+
+    public List<File> getResources(String path) throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        assert classLoader != null;
+        Enumeration<URL> enumer = classLoader.getResources(path);
+        List<File> resources = new ArrayList<>();
+        if (enumer == null || !enumer.hasMoreElements()) {
+            return resources;
+        }
+        while (enumer.hasMoreElements()) {
+            Object next = enumer.nextElement();
+            if (next == null) {
+                continue;
+            }
+            URL resource = (URL) next;
+            resources.add(toFile(resource));
+        }
+        collectChildrenIfExist(resources);
+        return resources;
+    }
+
+    public interface ClassFileConsumer {
+        void accept(String className, byte[] classFile) throws IOException;
+    }
+
+    private interface ClassVisitor {
+        void visit(String className, ClassFile classFile) throws IOException;
+    }
+
+    /**
+     * A class file found by {@link #visitClasses}, read only when asked to.
+     */
+    private interface ClassFile {
+        byte[] read() throws IOException;
+
+        long fingerprint();
+    }
+
+    private static final class ExplodedClassFile implements ClassFile {
+        private final File file;
+
+        ExplodedClassFile(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public byte[] read() throws IOException {
+            return Files.readAllBytes(file.toPath());
+        }
+
+        @Override
+        public long fingerprint() {
+            return ProjectScanner.fingerprint(file.length(), file.lastModified());
+        }
+    }
+
+    private static final class JarClassFile implements ClassFile {
+        private final JarScanner jarScanner;
+        private final JarScanner.Entry entry;
+
+        JarClassFile(JarScanner jarScanner, JarScanner.Entry entry) {
+            this.jarScanner = jarScanner;
+            this.entry = entry;
+        }
+
+        @Override
+        public byte[] read() throws IOException {
+            return jarScanner.readEntry(entry);
+        }
+
+        @Override
+        public long fingerprint() {
+            return ProjectScanner.fingerprint(entry.getSize(), entry.getCrc());
+        }
+    }
+
+    private void collectChildrenIfExist(List<File> resources) {
+        if (CollectionUtils.isEmpty(resources)) {
+            return;
+        }
+        List<File> children = new LinkedList<>();
+        for (File resource : resources) {
+            if (!resource.isDirectory() || resource.listFiles().length == 0) {
+                return;
+            }
+            children.addAll(Arrays.asList(resource.listFiles()));
+        }
+        resources.addAll(children);
+    }
+
+    /**
+     * Releases the threads of scanners that have any. This scanner holds nothing and stays usable.
+     */
+    @Override
+    public void close() {
+    }
+}
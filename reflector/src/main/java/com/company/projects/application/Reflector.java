@@ -0,0 +1,293 @@
+package com.company.projects.application;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.IGetReady;
+import com.company.projects.annotations.INeedThis;
+
+import static com.company.projects.utils.Utils.isEmpty;
+
+public class Reflector {
+
+    private final ProjectScanner projectScanner;
+    private final ClassValue<BeanDescriptor> descriptors = new ClassValue<BeanDescriptor>() {
+        @Override
+        protected BeanDescriptor computeValue(Class<?> type) {
+            return createDescriptor(type);
+        }
+    };
+
+    public Reflector() {
+        this(new ProjectScanner());
+    }
+
+    public Reflector(ProjectScanner projectScanner) {
+        this.projectScanner = projectScanner;
+    }
+
+    public List<File> getAppPackages(String packageName) {
+        List<File> packages = new LinkedList<>();
+       try {
+           ContainerMetrics.Probe probe = ContainerMetrics.start(StartupPhase.PACKAGE_DISCOVERY);
+           packages = projectScanner.getPackages(packageName);
+           probe.stop(packageName);
+           if (ContainerEvents.isObserved(ContainerEvent.Type.SCANNED)) {
+               packages.forEach(p -> ContainerEvents.publish(ContainerEvent.Type.SCANNED, p.getPath()));
+           }
+       } catch (IOException e) {
+           ContainerEvents.failed("collection of project packages", e);
+       }
+       return packages;
+    }
+
+    public List<Class<?>> getApplicationClasses(List<File> packages) {
+        List<Class<?>> classes = new LinkedList<>();
+        try {
+            classes = projectScanner.getClasses(packages);
+        } catch (ClassNotFoundException e) {
+            ContainerEvents.failed("collection of project classes", e);
+        }
+        return classes;
+    }
+
+    public List<Class<?>> getApplicationClasses(String packageName) {
+        List<Class<?>> classes = new LinkedList<>();
+        try {
+            classes = projectScanner.getClasses(packageName);
+        } catch (IOException | ClassNotFoundException e) {
+            ContainerEvents.failed("collection of project classes", e);
+        }
+        return classes;
+    }
+
+    public List<BeanDescriptor> getServicesFromBytecode(String packageName) {
+        BytecodeScanner bytecodeScanner = new BytecodeScanner(projectScanner,
+                Thread.currentThread().getContextClassLoader());
+        List<BeanDescriptor> descriptors = new LinkedList<>();
+        try {
+            descriptors = bytecodeScanner.getServices(packageName);
+        } catch (IOException | ReflectiveOperationException e) {
+            ContainerEvents.failed("bytecode scanning of project classes", e);
+        }
+        return descriptors;
+    }
+
+    /**
+     * Same services as a class path scan of {@code packageName}, taken from the descriptor cache
+     * in {@code cacheFile} for every class file that did not change since the cache was written.
+     * The cache file is created or updated as needed.
+     */
+    public List<BeanDescriptor> getCachedServices(String packageName, File cacheFile) {
+        DescriptorCache descriptorCache = new DescriptorCache(cacheFile, projectScanner,
+                Thread.currentThread().getContextClassLoader());
+        List<BeanDescriptor> descriptors = new LinkedList<>();
+        try {
+            descriptors = descriptorCache.getServices(packageName, this::mapDependencies);
+        } catch (IOException | ReflectiveOperationException e) {
+            ContainerEvents.failed("reading of the descriptor cache", e);
+        }
+        return descriptors;
+    }
+
+    public boolean hasServiceIndex() {
+        return new ServiceIndex(Thread.currentThread().getContextClassLoader()).isPresent();
+    }
+
+    public List<BeanDescriptor> getIndexedServices() {
+        ServiceIndex serviceIndex = new ServiceIndex(Thread.currentThread().getContextClassLoader());
+        List<BeanDescriptor> descriptors = new LinkedList<>();
+        try {
+            descriptors = serviceIndex.readDescriptors();
+        } catch (IOException | ReflectiveOperationException e) {
+            ContainerEvents.failed("reading of the service index", e);
+        }
+        return descriptors;
+    }
+
+    /**
+     * Streams the descriptors of the services below the parent package of {@code packageName} while the
+     * class path is still being scanned, see {@link ServicePipeline}. The stream must be consumed or closed.
+     */
+    public Stream<BeanDescriptor> streamServices(String packageName) {
+        return new ServicePipeline(projectScanner, this::mapDependencies,
+                Thread.currentThread().getContextClassLoader(),
+                Runtime.getRuntime().availableProcessors(), 1024).stream(packageName);
+    }
+
+    public List<Class<?>> collectServices(List<Class<?>> classes) {
+        ContainerMetrics.Probe probe = ContainerMetrics.start(StartupPhase.SERVICE_FILTERING);
+        List<Class<?>> services = classes.stream().filter(klass -> isService(klass)).collect(Collectors.toList());
+        probe.stop(null);
+        return services;
+    }
+
+    /**
+     * Returns the descriptor of the given class. Descriptors are computed once per class and
+     * shared by every caller; being held in a {@link ClassValue} they do not prevent class unloading.
+     */
+    public BeanDescriptor mapDependencies(Class<?> klass) {
+        return descriptors.get(klass);
+    }
+
+    private BeanDescriptor createDescriptor(Class<?> klass) {
+        ContainerMetrics.Probe probe = ContainerMetrics.start(StartupPhase.DESCRIPTOR_MAPPING);
+        BeanDescriptor beanDescriptor = new BeanDescriptor(klass);
+        Optional<Constructor<?>> annotatedConstructorOpt = getAnnotatedConstructor(klass);
+
+        if (annotatedConstructorOpt.isPresent()) {
+            beanDescriptor.setAnnotatedConstructor(annotatedConstructorOpt.get());
+            beanDescriptor.setConstructorDependencies(
+                    Arrays.asList(annotatedConstructorOpt.get().getParameterTypes()));
+        }
+
+        List<Method> annotatedMethods = getAnnotatedMethods(klass);
+        Map<String, Class<?>> annotatedMethodDepsMap =
+            (isEmpty(annotatedMethods))
+                ? new HashMap<>()
+                : annotatedMethods
+                    .stream()
+                    .collect(Collectors.toMap(
+                                Method::getName,
+                                method -> method.getParameterTypes()[0]));
+        beanDescriptor.setMethodDependencies(annotatedMethodDepsMap);
+        annotatedMethods.forEach(method -> beanDescriptor.cacheInjectionMethod(method));
+
+        List<Field> annotatedFields = getAnnotatedFields(klass);
+        Map<String, Class<?>> annotatedFieldDepsMap =
+                isEmpty(annotatedFields)
+                    ? new HashMap<>()
+                    : annotatedFields
+                        .stream()
+                        .collect(Collectors.toMap(
+                                    field -> field.getName(),
+                                    field -> field.getType()));
+        beanDescriptor.setFieldDependencies(annotatedFieldDepsMap);
+        annotatedFields.forEach(field -> beanDescriptor.cacheInjectionField(field));
+
+        probe.stop(klass.getName());
+        return beanDescriptor;
+    }
+
+
+    public Optional<Constructor<?>> getAnnotatedConstructor(Class<?> klass) {
+        Optional<Constructor<?>> optionalConstructor =
+                Arrays.stream(klass.getDeclaredConstructors())
+                      .filter(constructor -> constructor.isAnnotationPresent(INeedThis.class))
+                      .findFirst();
+        return optionalConstructor.isPresent() ? optionalConstructor : Optional.empty();
+    }
+
+    public List<Method> getAnnotatedMethods(Class<?> klass) {
+        return Arrays
+                .stream(klass.getDeclaredMethods())
+                .filter(method -> method.isAnnotationPresent(INeedThis.class))
+                .collect(Collectors.toList());
+    }
+
+    public List<Field> getAnnotatedFields(Class<?> klass) {
+        return Arrays
+                .stream((klass.getDeclaredFields()))
+                .filter(field -> field.isAnnotationPresent(INeedThis.class))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Builds the wiring plan of the given beans. The plan can be kept and executed repeatedly.
+     */
+    public WiringPlan planWiring(List<BeanDescriptor> descriptors) {
+        return WiringPlan.build(descriptors, this::mapDependencies);
+    }
+
+    /**
+     * Returns a thread-safe registry of the given beans, which creates every bean on its first request.
+     */
+    public BeanRegistry createRegistry(List<BeanDescriptor> descriptors) {
+        return planWiring(descriptors).createRegistry();
+    }
+
+    public void wireBeans(List<BeanDescriptor> descriptors, Map<String, Object> beanInstances) {
+        planWiring(descriptors).execute(beanInstances);
+    }
+
+    /**
+     * Wires the beans on the given executor, building independent beans concurrently.
+     * Blocks until all beans are wired and ready and rethrows the failure of the first failed bean in plan order.
+     */
+    public void wireBeansInParallel(List<BeanDescriptor> descriptors,
+                                    ConcurrentMap<String, Object> beanInstances, Executor executor) {
+        try {
+            wireBeansAsync(descriptors, beanInstances, executor).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause()
+                    : new RuntimeException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #wireBeansInParallel}: beans are wired and their {@link IGetReady} methods
+     * run on the executor, overlapping across beans in dependency order, see {@link WiringPlan#executeParallel}.
+     *
+     * @return A future completing when the container is ready
+     */
+    public CompletableFuture<Void> wireBeansAsync(List<BeanDescriptor> descriptors,
+                                                  ConcurrentMap<String, Object> beanInstances, Executor executor) {
+        return planWiring(descriptors).executeParallel(beanInstances, executor);
+    }
+
+    /**
+     * Destroys the beans wired by {@link #wireBeans(List, Map)} or {@link #wireBeansInParallel} in reverse
+     * dependency order, independent beans concurrently on the executor, see {@link WiringPlan#shutdown}.
+     */
+    public ShutdownReport shutdownBeans(List<BeanDescriptor> descriptors, Map<String, Object> beanInstances,
+                                        Executor executor, long timeout, TimeUnit unit) {
+        return planWiring(descriptors).shutdown(beanInstances, executor, timeout, unit);
+    }
+
+    public boolean hasGeneratedFactory() {
+        return ServiceLoader.load(ContainerFactory.class, Thread.currentThread().getContextClassLoader())
+                .iterator().hasNext();
+    }
+
+    /**
+     * Alternative to {@link #wireBeans(List, Map)} that runs the container factories generated
+     * at compile time, so no reflection is involved in creating and injecting the services.
+     * Services left out of the factories are missing; passing the result to {@link #wireBeans(List, Map)}
+     * wires them around the instances already created.
+     */
+    public Map<String, Object> wireGeneratedBeans() {
+        Map<String, Object> beanInstances = new LinkedHashMap<>();
+        for (ContainerFactory factory : ServiceLoader.load(ContainerFactory.class,
+                Thread.currentThread().getContextClassLoader())) {
+            factory.createBeans().forEach(beanInstances::putIfAbsent);
+        }
+        return beanInstances;
+    }
+
+    public static boolean isService(Class<?> klass) {
+        return klass.isAnnotationPresent(IAmService.class);
+    }
+}
@@ -0,0 +1,100 @@
+package com.company.projects.application;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What a {@link ClassChangeWatcher} did about one batch of class file changes.
+ */
+public class RewireReport {
+
+    private final List<String> changedClasses;
+    private final List<String> removedClasses;
+    private final List<String> rebuiltBeans;
+    private final List<String> removedBeans;
+    private final boolean fullRewire;
+    private final ShutdownReport shutdown;
+    private final long durationNanos;
+    private final RuntimeException failure;
+
+    RewireReport(List<String> changedClasses, List<String> removedClasses, List<String> rebuiltBeans,
+                 List<String> removedBeans, boolean fullRewire, ShutdownReport shutdown, long durationNanos,
+                 RuntimeException failure) {
+        this.changedClasses = Collections.unmodifiableList(changedClasses);
+        this.removedClasses = Collections.unmodifiableList(removedClasses);
+        this.rebuiltBeans = Collections.unmodifiableList(rebuiltBeans);
+        this.removedBeans = Collections.unmodifiableList(removedBeans);
+        this.fullRewire = fullRewire;
+        this.shutdown = shutdown;
+        this.durationNanos = durationNanos;
+        this.failure = failure;
+    }
+
+    /**
+     * @return The classes whose class files were added or modified
+     */
+    public List<String> getChangedClasses() {
+        return changedClasses;
+    }
+
+    /**
+     * @return The classes whose class files were deleted
+     */
+    public List<String> getRemovedClasses() {
+        return removedClasses;
+    }
+
+    /**
+     * @return The simple names of the beans created again, the changed services and everything depending on them
+     */
+    public List<String> getRebuiltBeans() {
+        return rebuiltBeans;
+    }
+
+    /**
+     * @return The simple names of the beans dropped because their service class was deleted
+     */
+    public List<String> getRemovedBeans() {
+        return removedBeans;
+    }
+
+    /**
+     * @return Whether a changed class that is not a service forced every bean to be rebuilt
+     */
+    public boolean isFullRewire() {
+        return fullRewire;
+    }
+
+    /**
+     * @return How the beans replaced or removed were destroyed, or null if the re-wiring failed and none were
+     */
+    public ShutdownReport getShutdown() {
+        return shutdown;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return The error that stopped the re-wiring, or null if it succeeded
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    public boolean isSuccessful() {
+        return failure == null;
+    }
+
+    @Override
+    public String toString() {
+        return "Changed classes: " + changedClasses
+                + ", removed classes: " + removedClasses
+                + (fullRewire ? ", all beans rebuilt: " : ", rebuilt beans: ") + rebuiltBeans
+                + ", removed beans: " + removedBeans
+                + (shutdown != null && !shutdown.isSuccessful() ? ", shutdown incomplete: " + shutdown : "")
+                + String.format(", took %.1f ms", durationNanos / 1_000_000.0)
+                + (failure != null ? ", failed: " + failure.getMessage() : "");
+    }
+}
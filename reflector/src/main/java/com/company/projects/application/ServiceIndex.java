@@ -0,0 +1,125 @@
+package com.company.projects.application;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the service index written at compile time by the reflector-processor module
+ * and turns it into bean descriptors, loading only the service classes themselves.
+ * See {@code ServiceIndexProcessor} for the record format.
+ */
+public class ServiceIndex {
+
+    public static final String INDEX_LOCATION = "META-INF/reflector/services.index";
+
+    private final ClassLoader classLoader;
+
+    public ServiceIndex(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    public boolean isPresent() {
+        return classLoader.getResource(INDEX_LOCATION) != null;
+    }
+
+    public List<BeanDescriptor> readDescriptors() throws IOException, ReflectiveOperationException {
+        Map<String, BeanDescriptor> descriptors = new LinkedHashMap<>();
+        Enumeration<URL> indexes = classLoader.getResources(INDEX_LOCATION);
+        while (indexes.hasMoreElements()) {
+            readIndex(indexes.nextElement(), descriptors);
+        }
+        return new LinkedList<>(descriptors.values());
+    }
+
+    private void readIndex(URL index, Map<String, BeanDescriptor> descriptors)
+            throws IOException, ReflectiveOperationException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+            ServiceRecord current = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] record = line.split("\t");
+                switch (record[0]) {
+                    case "S":
+                        add(current, descriptors);
+                        Class<?> service = loadClass(record[1], classLoader);
+                        current = descriptors.containsKey(service.getName()) ? null : new ServiceRecord(service);
+                        break;
+                    case "C":
+                        if (current != null) {
+                            current.constructorDependencies = new ArrayList<>(record.length - 1);
+                            for (int i = 1; i < record.length; i++) {
+                                current.constructorDependencies.add(loadClass(record[i], classLoader));
+                            }
+                        }
+                        break;
+                    case "M":
+                        if (current != null) {
+                            current.methodDependencies.put(record[1], loadClass(record[2], classLoader));
+                        }
+                        break;
+                    case "F":
+                        if (current != null) {
+                            current.fieldDependencies.put(record[1], loadClass(record[2], classLoader));
+                        }
+                        break;
+                    default:
+                        throw new IOException("Unknown record '" + line + "' in " + index);
+                }
+            }
+            add(current, descriptors);
+        }
+    }
+
+    private static void add(ServiceRecord record, Map<String, BeanDescriptor> descriptors)
+            throws ReflectiveOperationException {
+        if (record != null) {
+            descriptors.put(record.service.getName(), BeanDescriptor.describe(record.service,
+                    record.constructorDependencies, record.methodDependencies, record.fieldDependencies));
+        }
+    }
+
+    /**
+     * Loads a type by binary name, or by primitive name, without initializing it.
+     */
+    static Class<?> loadClass(String name, ClassLoader classLoader) throws ClassNotFoundException {
+        switch (name) {
+            case "boolean": return boolean.class;
+            case "byte": return byte.class;
+            case "char": return char.class;
+            case "short": return short.class;
+            case "int": return int.class;
+            case "long": return long.class;
+            case "float": return float.class;
+            case "double": return double.class;
+            default: return Class.forName(name, false, classLoader);
+        }
+    }
+
+    /**
+     * The records of a service read so far.
+     */
+    private static final class ServiceRecord {
+        private final Class<?> service;
+        private List<Class<?>> constructorDependencies;
+        private final Map<String, Class<?>> methodDependencies = new HashMap<>();
+        private final Map<String, Class<?>> fieldDependencies = new HashMap<>();
+
+        ServiceRecord(Class<?> service) {
+            this.service = service;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.company.projects.application;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streaming alternative to scanning a package, loading its classes, filtering the services and
+ * mapping their descriptors one complete list after the other.
+ *
+ * A discovery thread walks the class path and hands every class name to the loader threads as soon
+ * as it is found, and the loaders hand every service descriptor to the consumer as soon as it is mapped.
+ * Walking directories overlaps with loading classes, and the consumer receives the first services
+ * while the scan is still running. Both hand-overs go through bounded queues, so however large the
+ * package, the pipeline itself only holds a fixed number of names and descriptors, besides the names
+ * already handed over. A class found in several roots of the class path is only handed over the
+ * first time, as the class loader only ever loads that one.
+ *
+ * With a single loader, services arrive in scan order; with more, in no particular order.
+ */
+public class ServicePipeline {
+
+    private static final Object END = new Object();
+
+    private final ProjectScanner projectScanner;
+    private final Function<Class<?>, BeanDescriptor> describer;
+    private final ClassLoader classLoader;
+    private final int loaders;
+    private final int capacity;
+
+    /**
+     * @param describer Maps a service to its descriptor, called concurrently from the loader threads
+     * @param loaders   The number of threads loading classes and mapping descriptors
+     * @param capacity  The size of each of the two queues between the stages
+     */
+    public ServicePipeline(ProjectScanner projectScanner, Function<Class<?>, BeanDescriptor> describer,
+                           ClassLoader classLoader, int loaders, int capacity) {
+        if (loaders < 1 || capacity < 1) {
+            throw new IllegalArgumentException("A pipeline needs at least one loader and a queue capacity of one");
+        }
+        this.projectScanner = projectScanner;
+        this.describer = describer;
+        this.classLoader = classLoader;
+        this.loaders = loaders;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Starts scanning the parent package of {@code packageName}, see {@link ProjectScanner#getPackages(String)}.
+     * The stream must be consumed to the end or closed, otherwise the pipeline threads stay blocked.
+     * A failure of any stage is rethrown to the consumer and stops the pipeline.
+     *
+     * @return The descriptors of the services, as they are found
+     */
+    public Stream<BeanDescriptor> stream(String packageName) {
+        Run run = new Run(packageName);
+        run.start();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(run,
+                Spliterator.NONNULL | Spliterator.DISTINCT), false)
+                .onClose(run::stop);
+    }
+
+    private static void put(BlockingQueue<Object> queue, Object element) {
+        try {
+            queue.put(element);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Pipeline stopped");
+        }
+    }
+
+    /**
+     * One scan through the pipeline, consumed as an iterator.
+     */
+    private class Run implements Iterator<BeanDescriptor> {
+
+        private final String packageName;
+        private final BlockingQueue<Object> classNames = new ArrayBlockingQueue<>(capacity);
+        private final BlockingQueue<Object> descriptors = new ArrayBlockingQueue<>(capacity);
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private int running = loaders;
+        private Object next;
+
+        Run(String packageName) {
+            this.packageName = packageName;
+        }
+
+        void start() {
+            threads.add(new Thread(this::discover, "reflector-pipeline-discovery"));
+            for (int i = 0; i < loaders; i++) {
+                threads.add(new Thread(this::load, "reflector-pipeline-loader-" + i));
+            }
+            for (Thread thread : threads) {
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+
+        void stop() {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+        }
+
+        private void discover() {
+            Thread.currentThread().setContextClassLoader(classLoader);
+            try {
+                Set<String> seen = new HashSet<>();
+                projectScanner.forEachClassName(packageName, className -> {
+                    if (seen.add(className)) {
+                        put(classNames, className);
+                    }
+                });
+                for (int i = 0; i < loaders; i++) {
+                    put(classNames, END);
+                }
+            } catch (IOException e) {
+                fail(new RuntimeException("Exception occurred during scanning of " + packageName
+                        + ": " + e.getMessage(), e));
+            } catch (CancellationException e) {
+                // stopped
+            } catch (RuntimeException | Error e) {
+                fail(e);
+            }
+        }
+
+        private void load() {
+            try {
+                for (Object className = take(classNames); className != END; className = take(classNames)) {
+                    ContainerMetrics.Probe probe = ContainerMetrics.start(StartupPhase.CLASS_LOADING);
+                    Class<?> klass = Class.forName((String) className, false, classLoader);
+                    probe.stop((String) className);
+                    ContainerEvents.publish(ContainerEvent.Type.LOADED, (String) className);
+                    if (Reflector.isService(klass)) {
+                        put(descriptors, describer.apply(klass));
+                    }
+                }
+                put(descriptors, END);
+            } catch (CancellationException e) {
+                // stopped
+            } catch (ClassNotFoundException e) {
+                fail(new RuntimeException(e.getMessage(), e));
+            } catch (RuntimeException | Error e) {
+                fail(e);
+            }
+        }
+
+        private Object take(BlockingQueue<Object> queue) {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Pipeline stopped");
+            }
+        }
+
+        /**
+         * Stops the other stages and passes the first failure to the consumer.
+         */
+        private void fail(Throwable cause) {
+            if (failure.compareAndSet(null, cause)) {
+                for (Thread thread : threads) {
+                    if (thread != Thread.currentThread()) {
+                        thread.interrupt();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && running > 0) {
+                Throwable cause = failure.get();
+                if (cause != null) {
+                    running = 0;
+                    stop();
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw (RuntimeException) cause;
+                }
+                Object element;
+                try {
+                    // Polling, so that a failure is noticed even if no stage can write to the queue anymore
+                    element = descriptors.poll(50, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    stop();
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Interrupted while waiting for services");
+                }
+                if (element == END) {
+                    running--;
+                } else if (element != null) {
+                    next = element;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public BeanDescriptor next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            BeanDescriptor descriptor = (BeanDescriptor) next;
+            next = null;
+            return descriptor;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.company.projects.application;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What a shutdown of the beans of a container did.
+ */
+public class ShutdownReport {
+
+    private final List<String> destroyedBeans;
+    private final Map<String, Throwable> failures;
+    private final List<String> timedOutBeans;
+    private final long durationNanos;
+
+    ShutdownReport(List<String> destroyedBeans, Map<String, Throwable> failures, List<String> timedOutBeans,
+                   long durationNanos) {
+        this.destroyedBeans = Collections.unmodifiableList(destroyedBeans);
+        this.failures = Collections.unmodifiableMap(failures);
+        this.timedOutBeans = Collections.unmodifiableList(timedOutBeans);
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return The simple names of the beans whose destroy callbacks completed, in completion order
+     */
+    public List<String> getDestroyedBeans() {
+        return destroyedBeans;
+    }
+
+    /**
+     * @return The errors thrown by destroy callbacks, by simple bean name
+     */
+    public Map<String, Throwable> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return The simple names of the beans whose destroy callbacks did not complete in time.
+     * Their callbacks may still be running.
+     */
+    public List<String> getTimedOutBeans() {
+        return timedOutBeans;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public boolean isSuccessful() {
+        return failures.isEmpty() && timedOutBeans.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "Destroyed beans: " + destroyedBeans
+                + (failures.isEmpty() ? "" : ", failed: " + failures.keySet())
+                + (timedOutBeans.isEmpty() ? "" : ", timed out: " + timedOutBeans)
+                + String.format(", took %.1f ms", durationNanos / 1_000_000.0);
+    }
+}
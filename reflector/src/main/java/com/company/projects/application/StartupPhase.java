@@ -0,0 +1,42 @@
+package com.company.projects.application;
+
+/**
+ * The phases of container startup measured by {@link ContainerMetrics}.
+ */
+public enum StartupPhase {
+
+    /**
+     * Finding the package directories below a scan root, keyed by the scanned package
+     */
+    PACKAGE_DISCOVERY,
+
+    /**
+     * Loading and initializing a scanned class, keyed by the class
+     */
+    CLASS_LOADING,
+
+    /**
+     * Filtering the services out of the scanned classes
+     */
+    SERVICE_FILTERING,
+
+    /**
+     * Computing the descriptor of a class, keyed by the class
+     */
+    DESCRIPTOR_MAPPING,
+
+    /**
+     * Running the constructor of a bean, keyed by the bean class
+     */
+    BEAN_CONSTRUCTION,
+
+    /**
+     * Injecting the method and field dependencies of a bean, keyed by the bean class
+     */
+    BEAN_INJECTION,
+
+    /**
+     * Running the init callbacks of a bean until the bean is ready, keyed by the bean class
+     */
+    BEAN_INITIALIZATION
+}
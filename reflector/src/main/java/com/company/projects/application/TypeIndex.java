@@ -0,0 +1,104 @@
+package com.company.projects.application;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index from every supertype of a set of bean classes, their superclasses and all the interfaces
+ * they implement directly or through a supertype, to the bean classes implementing it.
+ * Built once, so resolving an interface or abstract dependency is a single lookup.
+ */
+public class TypeIndex {
+
+    private final Map<Class<?>, List<Class<?>>> implementations = new HashMap<>();
+
+    public TypeIndex(Iterable<Class<?>> beans) {
+        for (Class<?> bean : beans) {
+            if (bean.isInterface() || Modifier.isAbstract(bean.getModifiers())) {
+                continue;
+            }
+            for (Class<?> type : typesOf(bean)) {
+                List<Class<?>> implementing = implementations.computeIfAbsent(type, t -> new ArrayList<>(1));
+                if (!implementing.contains(bean)) {
+                    implementing.add(bean);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The bean classes assignable to the given type, in the order the beans were given
+     */
+    public List<Class<?>> getImplementations(Class<?> type) {
+        List<Class<?>> implementing = implementations.get(type);
+        return implementing == null ? Collections.emptyList() : Collections.unmodifiableList(implementing);
+    }
+
+    /**
+     * Resolves a dependency type to a bean class. A concrete type is its own bean, an interface
+     * or abstract type needs exactly one implementing bean.
+     *
+     * @param dependent Where the type is needed, for the error message
+     * @throws NoSuchBeanException If no bean or several beans implement an interface or abstract type
+     */
+    public Class<?> resolve(Class<?> type, String dependent) {
+        if (type.isPrimitive() || type.isArray() || (!type.isInterface() && !Modifier.isAbstract(type.getModifiers()))) {
+            return type;
+        }
+        List<Class<?>> implementing = getImplementations(type);
+        if (implementing.size() == 1) {
+            return implementing.get(0);
+        }
+        throw new NoSuchBeanException(implementing.isEmpty()
+                ? "No bean implements " + type.getName() + ", needed by " + dependent
+                : "No unique bean implements " + type.getName() + ", needed by " + dependent
+                        + ", candidates: " + names(implementing));
+    }
+
+    /**
+     * @return Every interface the class implements, directly or through a supertype,
+     *         as needed by a proxy standing in for it wherever the index resolves it
+     */
+    static Class<?>[] interfacesOf(Class<?> bean) {
+        List<Class<?>> interfaces = new ArrayList<>();
+        for (Class<?> type : typesOf(bean)) {
+            if (type.isInterface()) {
+                interfaces.add(type);
+            }
+        }
+        return interfaces.toArray(new Class<?>[0]);
+    }
+
+    private static Set<Class<?>> typesOf(Class<?> bean) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(bean);
+        while (!queue.isEmpty()) {
+            Class<?> type = queue.poll();
+            if (type == Object.class || !types.add(type)) {
+                continue;
+            }
+            if (type.getSuperclass() != null) {
+                queue.add(type.getSuperclass());
+            }
+            Collections.addAll(queue, type.getInterfaces());
+        }
+        return types;
+    }
+
+    static List<String> names(List<Class<?>> classes) {
+        List<String> names = new ArrayList<>(classes.size());
+        for (Class<?> klass : classes) {
+            names.add(klass.getName());
+        }
+        return names;
+    }
+}
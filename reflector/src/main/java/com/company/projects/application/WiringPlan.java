@@ -0,0 +1,1027 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IAmLazy;
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.IGetReady;
+import com.company.projects.annotations.Scope;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Precomputed order in which a set of beans is created and injected.
+ *
+ * The plan is built once from the bean descriptors: it collects the whole dependency graph,
+ * including dependency classes that were not passed in, and sorts it topologically with an
+ * iterative depth-first search, so that deep graphs cannot overflow the stack.
+ * A bean comes after everything its constructor needs. It also comes after its method and
+ * field dependencies, unless those close a cycle; such an injection is deferred until all
+ * beans of the plan exist. Cycles made of constructor parameters only cannot be resolved
+ * and are reported with a {@link DependencyCycleException} naming the full path.
+ * Interface and abstract dependency types are resolved to the one bean implementing them
+ * through a {@link TypeIndex}.
+ *
+ * Dependencies marked {@link IAmLazy}, and interface-typed dependencies on lazy services,
+ * are injected as proxies and do not take part in the ordering. Lazy services nobody needs
+ * eagerly are not created until one of their proxies is called.
+ *
+ * Prototype beans are created anew for every bean depending on them, thread-scoped beans once
+ * per thread. Singletons receive thread-scoped beans through a proxy resolving the instance of
+ * the calling thread. Cycles through prototype or thread-scoped beans cannot be resolved.
+ *
+ * A plan is immutable and can be executed any number of times.
+ */
+public class WiringPlan {
+
+    private static final CompletableFuture<Void> READY = CompletableFuture.completedFuture(null);
+    private static final Executor CALLING_THREAD = Runnable::run;
+
+    private final Step[] steps;
+
+    private WiringPlan(Step[] steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * @param descriptors The beans to wire
+     * @param describer   Provides descriptors for dependency classes missing from {@code descriptors}
+     */
+    public static WiringPlan build(List<BeanDescriptor> descriptors,
+                                   Function<Class<?>, BeanDescriptor> describer) {
+        return new Planner(descriptors, describer).plan();
+    }
+
+    /**
+     * Creates every eager singleton of the plan that is not yet in {@code beanInstances}, injects its
+     * dependencies and adds it under its simple name. Lazy singletons are added as proxies.
+     * Prototype and thread-scoped beans are only created for the beans depending on them,
+     * use a {@link BeanRegistry} to look them up.
+     * The map must be thread-safe if lazy beans can be first used from several threads.
+     *
+     * Once all beans are wired, their {@link IGetReady} methods are called in dependency order, and the
+     * call returns when every bean is ready. Init methods returning a stage still overlap each other;
+     * the init methods waiting for such a stage run on the thread completing it.
+     */
+    public void execute(Map<String, Object> beanInstances) {
+        Execution execution = new Execution(beanInstances);
+        for (int i = 0; i < steps.length; i++) {
+            if (steps[i].scope != Scope.SINGLETON) {
+                continue;
+            }
+            if (steps[i].eager) {
+                execution.obtain(i);
+            } else {
+                execution.registerProxy(i);
+            }
+        }
+        for (int i = 0; i < steps.length; i++) {
+            execution.applyDeferredInjections(i);
+        }
+        CompletableFuture<?>[] initializations = new CompletableFuture<?>[steps.length];
+        for (int i = 0; i < steps.length; i++) {
+            initializations[i] = steps[i].scope == Scope.SINGLETON && execution.isCreated(i)
+                    ? execution.initialize(i, READY, CALLING_THREAD)
+                    : READY;
+        }
+        for (CompletableFuture<?> initialization : initializations) {
+            BeanInitializer.await(initialization);
+        }
+    }
+
+    /**
+     * Parallel variant of {@link #execute(Map)}. Every bean is scheduled on the executor as soon as
+     * the beans it depends on are ready, so independent parts of the graph are built concurrently.
+     * Deferred injections run once all beans exist.
+     *
+     * The {@link IGetReady} methods of a bean are called on the executor as soon as the bean is wired and
+     * the beans it depends on are ready, so initialization overlaps with wiring the rest of the graph.
+     * A bean with deferred injections is only initialized once all of them have been applied.
+     *
+     * If beans fail, the returned future fails with the error of the first failed bean in plan order,
+     * wiring failures first. Beans are ordered after their dependencies, so that bean is always the
+     * root cause, whichever thread observed its failure first.
+     *
+     * @return A future completing when every bean of the plan is wired and ready
+     */
+    public CompletableFuture<Void> executeParallel(ConcurrentMap<String, Object> beanInstances, Executor executor) {
+        Execution execution = new Execution(beanInstances);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[steps.length];
+        for (int i = 0; i < steps.length; i++) {
+            Step step = steps[i];
+            if (step.scope != Scope.SINGLETON || !step.eager) {
+                if (step.scope == Scope.SINGLETON) {
+                    execution.registerProxy(i);
+                }
+                futures[i] = CompletableFuture.completedFuture(null);
+                continue;
+            }
+            int index = i;
+            futures[i] = CompletableFuture.allOf(dependencyFutures(step, futures))
+                    .thenApplyAsync(ready -> execution.obtain(index), executor);
+        }
+        CompletableFuture<Void> wired = CompletableFuture.allOf(futures)
+                .handle((ready, failure) -> {
+                    if (failure != null) {
+                        throw firstFailure(futures);
+                    }
+                    for (int i = 0; i < steps.length; i++) {
+                        execution.applyDeferredInjections(i);
+                    }
+                    return null;
+                });
+        // The wiring comes first, so that its failure is reported rather than the initializations it prevented
+        CompletableFuture<?>[] stages = new CompletableFuture<?>[steps.length + 1];
+        stages[0] = wired;
+        for (int i = 0; i < steps.length; i++) {
+            Step step = steps[i];
+            stages[i + 1] = step.scope == Scope.SINGLETON && step.eager
+                    ? execution.initialize(i, step.deferredInjections.length > 0 ? wired : futures[i], executor)
+                    : READY;
+        }
+        return CompletableFuture.allOf(stages)
+                .handle((ready, failure) -> {
+                    if (failure != null) {
+                        throw firstFailure(stages);
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Destroys the beans of an execution of the plan into {@code beanInstances}, in reverse dependency order,
+     * see {@link BeanShutdown}. Lazy beans that were never used are skipped. Waits until every bean is
+     * destroyed or has run out of time.
+     *
+     * @param timeout The time each bean has to be destroyed
+     */
+    public ShutdownReport shutdown(Map<String, Object> beanInstances, Executor executor, long timeout, TimeUnit unit) {
+        Object[] instances = new Object[steps.length];
+        for (int i = 0; i < steps.length; i++) {
+            if (steps[i].scope == Scope.SINGLETON) {
+                instances[i] = unwrap(beanInstances.get(steps[i].name));
+            }
+        }
+        return shutdown(instances, executor, timeout, unit);
+    }
+
+    ShutdownReport shutdown(Object[] instances, Executor executor, long timeout, TimeUnit unit) {
+        String[] names = new String[steps.length];
+        int[][] dependencies = new int[steps.length][];
+        for (int i = 0; i < steps.length; i++) {
+            names[i] = steps[i].name;
+            dependencies[i] = heldDependenciesOf(steps[i], instances);
+        }
+        return new BeanShutdown(instances, names, dependencies).run(executor, timeout, unit);
+    }
+
+    /**
+     * @return The bean behind a lazy proxy, null if it was never created, or the bean itself if it is no proxy
+     */
+    private static Object unwrap(Object bean) {
+        if (bean != null && Proxy.isProxyClass(bean.getClass())
+                && Proxy.getInvocationHandler(bean) instanceof LazyBean) {
+            return ((LazyBean) Proxy.getInvocationHandler(bean)).target;
+        }
+        return bean;
+    }
+
+    /**
+     * @return The descriptors in the order their beans are created
+     */
+    public List<BeanDescriptor> getOrder() {
+        List<BeanDescriptor> order = new ArrayList<>(steps.length);
+        for (Step step : steps) {
+            order.add(step.descriptor);
+        }
+        return order;
+    }
+
+    public int size() {
+        return steps.length;
+    }
+
+    private CompletableFuture<?>[] dependencyFutures(Step step, CompletableFuture<?>[] futures) {
+        int[] dependencies = dependenciesOf(step);
+        CompletableFuture<?>[] dependencyFutures = new CompletableFuture<?>[dependencies.length];
+        for (int i = 0; i < dependencies.length; i++) {
+            dependencyFutures[i] = futures[dependencies[i]];
+        }
+        return dependencyFutures;
+    }
+
+    /**
+     * The beans that must exist before the bean is created: its constructor dependencies and
+     * injections that are neither lazy nor deferred, all earlier in the plan.
+     */
+    private static int[] dependenciesOf(Step step) {
+        Set<Integer> dependencies = new LinkedHashSet<>();
+        for (Dependency dependency : step.constructorDependencies) {
+            if (!dependency.lazy) {
+                dependencies.add(dependency.bean);
+            }
+        }
+        for (Dependency dependency : step.injections) {
+            if (!dependency.lazy) {
+                dependencies.add(dependency.bean);
+            }
+        }
+        int[] indexes = new int[dependencies.size()];
+        int i = 0;
+        for (int dependency : dependencies) {
+            indexes[i++] = dependency;
+        }
+        return indexes;
+    }
+
+    /**
+     * The created beans the bean holds, lazy and deferred injections included: the bean may use any of
+     * them until it is destroyed, although it did not need all of them to be created.
+     */
+    private static int[] heldDependenciesOf(Step step, Object[] instances) {
+        Set<Integer> dependencies = new LinkedHashSet<>();
+        for (Dependency[] group : new Dependency[][]{
+                step.constructorDependencies, step.injections, step.deferredInjections}) {
+            for (Dependency dependency : group) {
+                if (instances[dependency.bean] != null) {
+                    dependencies.add(dependency.bean);
+                }
+            }
+        }
+        int[] indexes = new int[dependencies.size()];
+        int i = 0;
+        for (int dependency : dependencies) {
+            indexes[i++] = dependency;
+        }
+        return indexes;
+    }
+
+    private RuntimeException firstFailure(CompletableFuture<?>[] futures) {
+        for (CompletableFuture<?> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                return cause instanceof RuntimeException
+                        ? (RuntimeException) cause
+                        : new RuntimeException(cause.getMessage(), cause);
+            }
+        }
+        return new IllegalStateException("Wiring failed without a failed bean");
+    }
+
+    private static void inject(Step step, Dependency injection, Object beanInstance, Object dependencyInstance) {
+        try {
+            step.injector.inject(beanInstance, injection.setter, dependencyInstance);
+        } catch (Exception e) {
+            ContainerEvents.failed("injection of " + step.descriptor.getBean().getName() + "." + injection.point, e);
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Starts an execution that creates beans only when they are requested.
+     */
+    public BeanRegistry createRegistry() {
+        return new BeanRegistry(this, new Execution(null));
+    }
+
+    Class<?> beanAt(int index) {
+        return steps[index].descriptor.getBean();
+    }
+
+    Scope scopeAt(int index) {
+        return steps[index].scope;
+    }
+
+    int[] dependenciesAt(int index) {
+        return dependenciesOf(steps[index]);
+    }
+
+    /**
+     * State of one execution of the plan. Every bean is created at most once under its own lock,
+     * so lazy beans can be materialized from any thread while unrelated beans are being created.
+     * Locks are only nested from a bean to its dependencies, which come earlier in the plan.
+     * Without a bean map, beans are only kept by the execution.
+     * Prototypes are not kept at all, and thread-scoped beans are kept in thread locals.
+     */
+    class Execution {
+
+        private final Map<String, Object> beanInstances;
+        private final AtomicReferenceArray<Object> instances;
+        private final AtomicReferenceArray<Object> proxies;
+        private final Object[] locks;
+        private final boolean[] creating;
+        private final boolean[] created;
+        private final boolean[] deferredInjected;
+        private final ThreadLocal<?>[] threadInstances;
+        private final AtomicReferenceArray<CompletableFuture<Void>> initializations;
+
+        Execution(Map<String, Object> beanInstances) {
+            this.beanInstances = beanInstances;
+            this.instances = new AtomicReferenceArray<>(steps.length);
+            this.proxies = new AtomicReferenceArray<>(steps.length);
+            this.locks = new Object[steps.length];
+            this.creating = new boolean[steps.length];
+            this.created = new boolean[steps.length];
+            this.deferredInjected = new boolean[steps.length];
+            this.threadInstances = new ThreadLocal<?>[steps.length];
+            this.initializations = new AtomicReferenceArray<>(steps.length);
+            for (int i = 0; i < steps.length; i++) {
+                locks[i] = new Object();
+                if (steps[i].scope == Scope.THREAD) {
+                    Step step = steps[i];
+                    threadInstances[i] = ThreadLocal.withInitial(() -> create(step));
+                }
+                Object existing = beanInstances != null ? beanInstances.get(steps[i].name) : null;
+                if (existing != null) {
+                    instances.set(i, existing);
+                }
+            }
+        }
+
+        Object obtain(int index) {
+            if (steps[index].scope == Scope.PROTOTYPE) {
+                return create(steps[index]);
+            }
+            if (steps[index].scope == Scope.THREAD) {
+                return threadInstances[index].get();
+            }
+            Object instance = instances.get(index);
+            if (instance != null) {
+                return instance;
+            }
+            synchronized (locks[index]) {
+                instance = instances.get(index);
+                if (instance != null) {
+                    return instance;
+                }
+                Step step = steps[index];
+                if (creating[index]) {
+                    throw new IllegalStateException("Bean " + step.name
+                            + " was used through a lazy proxy while it was being created");
+                }
+                creating[index] = true;
+                try {
+                    instance = create(step);
+                } finally {
+                    creating[index] = false;
+                }
+                created[index] = true;
+                instances.set(index, instance);
+                if (step.eager && beanInstances != null) {
+                    beanInstances.put(step.name, instance);
+                }
+                return instance;
+            }
+        }
+
+        /**
+         * @return Whether the singleton was created by this execution rather than found in the bean map
+         */
+        boolean isCreated(int index) {
+            synchronized (locks[index]) {
+                return created[index];
+            }
+        }
+
+        /**
+         * Schedules the init methods of a singleton, once the gate and the initializations of the beans it
+         * depends on have completed. Each singleton is initialized at most once; later calls return the
+         * same future. The beans it depends on have to be scheduled first, which calls in plan order ensure.
+         *
+         * @param gate Completes once the bean is wired
+         * @return A future completing when the bean is ready
+         */
+        CompletableFuture<Void> initialize(int index, CompletableFuture<?> gate, Executor executor) {
+            CompletableFuture<Void> ready = initializations.get(index);
+            if (ready != null) {
+                return ready;
+            }
+            CompletableFuture<Void> initialization = new CompletableFuture<>();
+            if (!initializations.compareAndSet(index, null, initialization)) {
+                return initializations.get(index);
+            }
+            int[] dependencies = dependenciesOf(steps[index]);
+            CompletableFuture<?>[] waitingFor = new CompletableFuture<?>[dependencies.length + 1];
+            for (int i = 0; i < dependencies.length; i++) {
+                CompletableFuture<Void> dependency = initializations.get(dependencies[i]);
+                waitingFor[i] = dependency != null ? dependency : READY;
+            }
+            waitingFor[dependencies.length] = gate;
+            CompletableFuture.allOf(waitingFor)
+                    .thenComposeAsync(wired -> isCreated(index)
+                            ? BeanInitializer.initialize(instances.get(index))
+                            : READY, executor)
+                    .whenComplete((ignored, failure) -> {
+                        if (failure != null) {
+                            initialization.completeExceptionally(failure);
+                        } else {
+                            initialization.complete(null);
+                        }
+                    });
+            return initialization;
+        }
+
+        /**
+         * @return The singletons created so far, in plan order, null for the others
+         */
+        Object[] createdSingletons() {
+            Object[] singletons = new Object[steps.length];
+            for (int i = 0; i < steps.length; i++) {
+                if (steps[i].scope == Scope.SINGLETON) {
+                    singletons[i] = instances.get(i);
+                }
+            }
+            return singletons;
+        }
+
+        /**
+         * Removes the thread-scoped beans of the calling thread.
+         */
+        void endThreadScope() {
+            for (ThreadLocal<?> threadInstance : threadInstances) {
+                if (threadInstance != null) {
+                    threadInstance.remove();
+                }
+            }
+        }
+
+        private Object create(Step step) {
+            try {
+                Object[] arguments = new Object[step.constructorDependencies.length];
+                for (int i = 0; i < arguments.length; i++) {
+                    arguments[i] = resolve(step.constructorDependencies[i]);
+                }
+                ContainerMetrics.Probe construction = ContainerMetrics.start(StartupPhase.BEAN_CONSTRUCTION);
+                Object instance;
+                try {
+                    instance = step.injector.newInstance(arguments);
+                } catch (Exception e) {
+                    ContainerEvents.failed("instantiation of " + step.descriptor.getBean().getName(), e);
+                    throw e;
+                }
+                construction.stop(step.descriptor.getBean().getName());
+                ContainerEvents.publish(ContainerEvent.Type.INSTANTIATED, step.descriptor.getBean().getName());
+                injectAll(step, step.injections, instance);
+                if (step.scope != Scope.SINGLETON) {
+                    BeanInitializer.await(BeanInitializer.initialize(instance));
+                }
+                return instance;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
+
+        void applyDeferredInjections(int index) {
+            Step step = steps[index];
+            if (step.deferredInjections.length == 0) {
+                return;
+            }
+            synchronized (locks[index]) {
+                if (!created[index] || deferredInjected[index]) {
+                    return;
+                }
+                deferredInjected[index] = true;
+                injectAll(step, step.deferredInjections, instances.get(index));
+            }
+        }
+
+        /**
+         * Resolves the dependencies first, so that creating them is not measured as injection.
+         */
+        private void injectAll(Step step, Dependency[] injections, Object instance) {
+            if (injections.length == 0) {
+                return;
+            }
+            Object[] dependencies = new Object[injections.length];
+            for (int i = 0; i < injections.length; i++) {
+                dependencies[i] = resolve(injections[i]);
+            }
+            ContainerMetrics.Probe injection = ContainerMetrics.start(StartupPhase.BEAN_INJECTION);
+            for (int i = 0; i < injections.length; i++) {
+                inject(step, injections[i], instance, dependencies[i]);
+            }
+            injection.stop(step.descriptor.getBean().getName());
+            ContainerEvents.publish(ContainerEvent.Type.INJECTED, step.descriptor.getBean().getName());
+        }
+
+        void registerProxy(int index) {
+            if (instances.get(index) == null) {
+                beanInstances.putIfAbsent(steps[index].name, proxy(index));
+            }
+        }
+
+        /**
+         * Creates the singletons a bean needs eagerly, the bean itself if it is a singleton,
+         * applies the deferred injections among them and waits until they are initialized,
+         * so that they are complete.
+         *
+         * @return The singletons created, in plan order
+         */
+        int[] prepare(int index) {
+            int[] closure = closure(index);
+            int singletons = 0;
+            for (int bean : closure) {
+                if (steps[bean].scope == Scope.SINGLETON) {
+                    obtain(bean);
+                    closure[singletons++] = bean;
+                }
+            }
+            closure = Arrays.copyOf(closure, singletons);
+            for (int bean : closure) {
+                applyDeferredInjections(bean);
+            }
+            CompletableFuture<?>[] initializations = new CompletableFuture<?>[closure.length];
+            for (int i = 0; i < closure.length; i++) {
+                initializations[i] = initialize(closure[i], READY, CALLING_THREAD);
+            }
+            for (CompletableFuture<?> initialization : initializations) {
+                BeanInitializer.await(initialization);
+            }
+            return closure;
+        }
+
+        /**
+         * The bean and the beans it reaches through dependencies that are not lazy, in plan order.
+         */
+        int[] closure(int index) {
+            boolean[] reached = new boolean[steps.length];
+            Deque<Integer> queue = new ArrayDeque<>();
+            reached[index] = true;
+            queue.add(index);
+            int count = 1;
+            while (!queue.isEmpty()) {
+                Step step = steps[queue.poll()];
+                for (Dependency[] dependencies : new Dependency[][]{
+                        step.constructorDependencies, step.injections, step.deferredInjections}) {
+                    for (Dependency dependency : dependencies) {
+                        if (!dependency.lazy && !reached[dependency.bean]) {
+                            reached[dependency.bean] = true;
+                            queue.add(dependency.bean);
+                            count++;
+                        }
+                    }
+                }
+            }
+            int[] closure = new int[count];
+            for (int i = 0, c = 0; i < reached.length; i++) {
+                if (reached[i]) {
+                    closure[c++] = i;
+                }
+            }
+            return closure;
+        }
+
+        private Object resolve(Dependency dependency) {
+            return dependency.lazy ? proxy(dependency.bean) : obtain(dependency.bean);
+        }
+
+        private Object proxy(int index) {
+            Object proxy = proxies.get(index);
+            if (proxy == null) {
+                Step step = steps[index];
+                proxies.compareAndSet(index, null, Proxy.newProxyInstance(step.descriptor.getBean().getClassLoader(),
+                        step.proxyInterfaces, new LazyBean(this, index, step.scope == Scope.THREAD)));
+                proxy = proxies.get(index);
+            }
+            return proxy;
+        }
+    }
+
+    /**
+     * Proxy behaviour of a lazy or thread-scoped bean: the first call prepares the singletons the bean
+     * needs, and every call is forwarded to the bean, created once or, if thread-scoped, once per thread.
+     */
+    private static class LazyBean implements InvocationHandler {
+
+        private final Execution execution;
+        private final int index;
+        private final boolean perThread;
+        private volatile boolean prepared;
+        private volatile Object target;
+
+        LazyBean(Execution execution, int index, boolean perThread) {
+            this.execution = execution;
+            this.index = index;
+            this.perThread = perThread;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object bean = target;
+            if (bean == null) {
+                if (!prepared) {
+                    execution.prepare(index);
+                    prepared = true;
+                }
+                bean = execution.obtain(index);
+                if (!perThread) {
+                    target = bean;
+                }
+            }
+            try {
+                return method.invoke(bean, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static class Step {
+
+        private final BeanDescriptor descriptor;
+        private final String name;
+        private BeanInjector injector;
+        private Scope scope;
+        private boolean eager;
+        private Class<?>[] proxyInterfaces;
+        private Dependency[] constructorDependencies;
+        private Dependency[] injections;
+        private Dependency[] deferredInjections;
+
+        Step(BeanDescriptor descriptor) {
+            this.descriptor = descriptor;
+            this.name = descriptor.getBean().getSimpleName();
+        }
+    }
+
+    private static class Dependency {
+
+        private final int bean;
+        private final boolean lazy;
+        private final String point;
+        private final int setter;
+
+        /**
+         * @param setter The number of the setter of an injection in the {@link BeanInjector} of the bean,
+         *               -1 for a constructor parameter
+         */
+        Dependency(int bean, boolean lazy, String point, int setter) {
+            this.bean = bean;
+            this.lazy = lazy;
+            this.point = point;
+            this.setter = setter;
+        }
+    }
+
+    /**
+     * Discovers the graph and computes the order. Nodes are numbered in discovery order while
+     * planning and renumbered in execution order in the resulting plan.
+     */
+    private static class Planner {
+
+        private static final int UNVISITED = 0;
+        private static final int IN_PROGRESS = 1;
+        private static final int DONE = 2;
+
+        private final TypeIndex types;
+        private final Function<Class<?>, BeanDescriptor> describer;
+        private final Map<Class<?>, Integer> ids = new HashMap<>();
+        private final Deque<Integer> pending = new ArrayDeque<>();
+        private final List<BeanDescriptor> nodes = new ArrayList<>();
+        private final List<Edge[]> constructorEdges = new ArrayList<>();
+        private final List<List<Edge>> injectionEdges = new ArrayList<>();
+        private final Set<Edge> forcedDeferrals = new LinkedHashSet<>();
+
+        Planner(List<BeanDescriptor> descriptors, Function<Class<?>, BeanDescriptor> describer) {
+            List<Class<?>> beans = new ArrayList<>(descriptors.size());
+            for (BeanDescriptor descriptor : descriptors) {
+                beans.add(descriptor.getBean());
+            }
+            this.types = new TypeIndex(beans);
+            this.describer = describer;
+            for (BeanDescriptor descriptor : descriptors) {
+                if (!ids.containsKey(descriptor.getBean())) {
+                    pending.add(addNode(descriptor));
+                }
+            }
+            while (!pending.isEmpty()) {
+                discoverEdges(pending.poll());
+            }
+            for (int node = 0; node < nodes.size(); node++) {
+                for (Edge edge : constructorEdges.get(node)) {
+                    edge.resolveLaziness(this);
+                }
+                for (Edge edge : injectionEdges.get(node)) {
+                    edge.resolveLaziness(this);
+                }
+            }
+        }
+
+        private void discoverEdges(int node) {
+            BeanDescriptor descriptor = nodes.get(node);
+            Constructor<?> constructor = descriptor.getAnnotatedConstructor();
+            List<Class<?>> constructorDependencies = descriptor.getConstructorDependencies();
+            Edge[] edges = new Edge[constructorDependencies.size()];
+            for (int i = 0; i < edges.length; i++) {
+                Class<?> type = constructorDependencies.get(i);
+                boolean lazyPoint = constructor != null && (constructor.isAnnotationPresent(IAmLazy.class)
+                        || constructor.getParameters()[i].isAnnotationPresent(IAmLazy.class));
+                edges[i] = new Edge(node, nodeOf(type, node), type, lazyPoint, false, false, null);
+            }
+            constructorEdges.set(node, edges);
+
+            List<Edge> injections = injectionEdges.get(node);
+            try {
+                for (Map.Entry<String, Class<?>> entry : descriptor.getMethodDependencies().entrySet()) {
+                    Method method = descriptor.getInjectionMethod(entry.getKey());
+                    boolean lazyPoint = method.isAnnotationPresent(IAmLazy.class)
+                            || method.getParameters()[0].isAnnotationPresent(IAmLazy.class);
+                    injections.add(new Edge(node, nodeOf(entry.getValue(), node), entry.getValue(),
+                            lazyPoint, true, true, entry.getKey()));
+                }
+                for (Map.Entry<String, Class<?>> entry : descriptor.getFieldDependencies().entrySet()) {
+                    AnnotatedElement field = descriptor.getInjectionField(entry.getKey());
+                    injections.add(new Edge(node, nodeOf(entry.getValue(), node), entry.getValue(),
+                            field.isAnnotationPresent(IAmLazy.class), true, false, entry.getKey()));
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
+
+        private int addNode(BeanDescriptor descriptor) {
+            int id = nodes.size();
+            ids.put(descriptor.getBean(), id);
+            nodes.add(descriptor);
+            constructorEdges.add(new Edge[0]);
+            injectionEdges.add(new ArrayList<>());
+            return id;
+        }
+
+        private int nodeOf(Class<?> dependency, int dependent) {
+            Class<?> implementation = types.resolve(dependency, nodes.get(dependent).getBean().getName());
+            Integer id = ids.get(implementation);
+            if (id == null) {
+                id = addNode(describer.apply(implementation));
+                pending.add(id);
+            }
+            return id;
+        }
+
+        private Scope scopeOf(int node) {
+            IAmService service = nodes.get(node).getBean().getAnnotation(IAmService.class);
+            return service != null ? service.scope() : Scope.SINGLETON;
+        }
+
+        private boolean isLazyBean(int node) {
+            Class<?> bean = nodes.get(node).getBean();
+            if (!bean.isAnnotationPresent(IAmLazy.class)) {
+                return false;
+            }
+            if (TypeIndex.interfacesOf(bean).length == 0) {
+                throw new RuntimeException("Lazy service " + bean.getSimpleName()
+                        + " must implement an interface for its dependents to be given a proxy");
+            }
+            return true;
+        }
+
+        WiringPlan plan() {
+            while (true) {
+                Set<Edge> deferred = new LinkedHashSet<>(forcedDeferrals);
+                int[] order = sort(deferred);
+                if (order != null) {
+                    return toPlan(order, deferred);
+                }
+            }
+        }
+
+        /**
+         * Iterative depth-first search producing dependencies before dependents.
+         * Returns null after forcing the deferral of an injection that keeps a constructor
+         * cycle alive, in which case the search has to be repeated.
+         */
+        private int[] sort(Set<Edge> deferred) {
+            int size = nodes.size();
+            int[] state = new int[size];
+            int[] order = new int[size];
+            int ordered = 0;
+
+            int[] stack = new int[size];
+            int[] cursor = new int[size];
+            Edge[] enteredBy = new Edge[size];
+            int[] stackPosition = new int[size];
+
+            for (int root = 0; root < size; root++) {
+                if (state[root] != UNVISITED) {
+                    continue;
+                }
+                int top = 0;
+                stack[0] = root;
+                cursor[0] = 0;
+                enteredBy[0] = null;
+                stackPosition[root] = 0;
+                state[root] = IN_PROGRESS;
+                while (top >= 0) {
+                    int node = stack[top];
+                    Edge[] hardEdges = constructorEdges.get(node);
+                    List<Edge> softEdges = injectionEdges.get(node);
+                    int index = cursor[top]++;
+                    if (index < hardEdges.length + softEdges.size()) {
+                        Edge edge = index < hardEdges.length
+                                ? hardEdges[index]
+                                : softEdges.get(index - hardEdges.length);
+                        if (edge.lazy || deferred.contains(edge)) {
+                            continue;
+                        }
+                        int next = edge.to;
+                        if (state[next] == IN_PROGRESS) {
+                            requireSingletons(stack, stackPosition[next], top);
+                            if (edge.injection) {
+                                deferred.add(edge);
+                                continue;
+                            }
+                            Edge breakable = firstInjectionOnCycle(enteredBy, stackPosition[next], top);
+                            if (breakable == null) {
+                                throw new DependencyCycleException(cycle(stack, stackPosition[next], top));
+                            }
+                            forcedDeferrals.add(breakable);
+                            return null;
+                        }
+                        if (state[next] == UNVISITED) {
+                            top++;
+                            stack[top] = next;
+                            cursor[top] = 0;
+                            enteredBy[top] = edge;
+                            stackPosition[next] = top;
+                            state[next] = IN_PROGRESS;
+                        }
+                    } else {
+                        state[node] = DONE;
+                        order[ordered++] = node;
+                        top--;
+                    }
+                }
+            }
+            return order;
+        }
+
+        private void requireSingletons(int[] stack, int from, int top) {
+            for (int i = from; i <= top; i++) {
+                if (scopeOf(stack[i]) != Scope.SINGLETON) {
+                    throw new DependencyCycleException("Dependency cycle through "
+                            + scopeOf(stack[i]).name().toLowerCase() + " bean", cycle(stack, from, top));
+                }
+            }
+        }
+
+        private Edge firstInjectionOnCycle(Edge[] enteredBy, int from, int top) {
+            for (int i = from + 1; i <= top; i++) {
+                if (enteredBy[i].injection) {
+                    return enteredBy[i];
+                }
+            }
+            return null;
+        }
+
+        private List<Class<?>> cycle(int[] stack, int from, int top) {
+            List<Class<?>> cycle = new LinkedList<>();
+            for (int i = from; i <= top; i++) {
+                cycle.add(nodes.get(stack[i]).getBean());
+            }
+            cycle.add(nodes.get(stack[from]).getBean());
+            return cycle;
+        }
+
+        private WiringPlan toPlan(int[] order, Set<Edge> deferred) {
+            int size = order.length;
+            int[] position = new int[size];
+            for (int i = 0; i < size; i++) {
+                position[order[i]] = i;
+            }
+            boolean[] eager = eagerNodes();
+
+            Step[] steps = new Step[size];
+            for (int i = 0; i < size; i++) {
+                int node = order[i];
+                Step step = new Step(nodes.get(node));
+                try {
+                    step.injector = nodes.get(node).getInjector();
+                } catch (ReflectiveOperationException e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+                step.eager = eager[node];
+                step.scope = scopeOf(node);
+                step.proxyInterfaces = TypeIndex.interfacesOf(nodes.get(node).getBean());
+                Edge[] edges = constructorEdges.get(node);
+                step.constructorDependencies = new Dependency[edges.length];
+                for (int e = 0; e < edges.length; e++) {
+                    step.constructorDependencies[e] = edges[e].toDependency(position, -1);
+                }
+                List<Dependency> injections = new ArrayList<>();
+                List<Dependency> deferredInjections = new ArrayList<>();
+                for (Edge edge : injectionEdges.get(node)) {
+                    (deferred.contains(edge) ? deferredInjections : injections)
+                            .add(edge.toDependency(position, step.injector.setterOf(edge.byMethod, edge.point)));
+                }
+                step.injections = injections.toArray(new Dependency[0]);
+                step.deferredInjections = deferredInjections.toArray(new Dependency[0]);
+                steps[i] = step;
+            }
+            return new WiringPlan(steps);
+        }
+
+        /**
+         * Singletons that are not lazy, and every bean they reach through non-lazy dependencies.
+         */
+        private boolean[] eagerNodes() {
+            boolean[] eager = new boolean[nodes.size()];
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int node = 0; node < nodes.size(); node++) {
+                if (!isLazyBean(node) && scopeOf(node) == Scope.SINGLETON) {
+                    eager[node] = true;
+                    queue.add(node);
+                }
+            }
+            while (!queue.isEmpty()) {
+                for (int next : eagerDependencies(queue.poll())) {
+                    if (!eager[next]) {
+                        eager[next] = true;
+                        queue.add(next);
+                    }
+                }
+            }
+            return eager;
+        }
+
+        private List<Integer> eagerDependencies(int node) {
+            List<Integer> dependencies = new ArrayList<>();
+            for (Edge edge : constructorEdges.get(node)) {
+                if (!edge.lazy) {
+                    dependencies.add(edge.to);
+                }
+            }
+            for (Edge edge : injectionEdges.get(node)) {
+                if (!edge.lazy) {
+                    dependencies.add(edge.to);
+                }
+            }
+            return dependencies;
+        }
+    }
+
+    private static class Edge {
+
+        private final int from;
+        private final int to;
+        private final Class<?> declaredType;
+        private final boolean lazyPoint;
+        private final boolean injection;
+        private final boolean byMethod;
+        private final String point;
+        private boolean lazy;
+
+        Edge(int from, int to, Class<?> declaredType, boolean lazyPoint,
+             boolean injection, boolean byMethod, String point) {
+            this.from = from;
+            this.to = to;
+            this.declaredType = declaredType;
+            this.lazyPoint = lazyPoint;
+            this.injection = injection;
+            this.byMethod = byMethod;
+            this.point = point;
+        }
+
+        void resolveLaziness(Planner planner) {
+            if (lazyPoint && !declaredType.isInterface()) {
+                throw new RuntimeException("Lazy dependency " + declaredType.getSimpleName() + " of "
+                        + planner.nodes.get(from).getBean().getSimpleName()
+                        + " must be declared with an interface type");
+            }
+            boolean threadScoped = planner.scopeOf(to) == Scope.THREAD && planner.scopeOf(from) == Scope.SINGLETON;
+            if (threadScoped && !declaredType.isInterface()) {
+                throw new RuntimeException("Thread-scoped dependency " + declaredType.getSimpleName() + " of singleton "
+                        + planner.nodes.get(from).getBean().getSimpleName()
+                        + " must be declared with an interface type");
+            }
+            lazy = declaredType.isInterface() && (lazyPoint || threadScoped || planner.isLazyBean(to));
+        }
+
+        Dependency toDependency(int[] position, int setter) {
+            return new Dependency(position[to], lazy, point, setter);
+        }
+    }
+}
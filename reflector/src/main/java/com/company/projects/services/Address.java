@@ -10,12 +10,10 @@ public class Address implements IService {
     private Info info;
 
     public Address() {
-        announceInstantiation();
     }
 
     public Address(Info info) {
         this.info = info;
-        announceInstantiation();
     }
 
     public Info getInfo() {
@@ -26,10 +24,6 @@ public class Address implements IService {
         this.info = info;
     }
 
-    public void announceInstantiation() {
-        System.out.printf("%s is instantiated.\n", this.toString());
-    }
-
     @Override
     public void print() {
         System.out.println(this.toString());
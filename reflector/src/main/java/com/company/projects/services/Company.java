@@ -16,7 +16,6 @@ public class Company implements IService {
     public Company(Director director, Address address) {
         this.director = director;
         this.address = address;
-        announceInstantiation();
     }
 
     public Office getOffice() {
@@ -52,10 +51,6 @@ public class Company implements IService {
         this.info = info;
     }
 
-    public void announceInstantiation() {
-        System.out.printf("%s is instantiated.\n", this.toString());
-    }
-
     @Override
     public void print() {
         System.out.println(this.toString());
@@ -10,7 +10,6 @@ public class Director implements IService {
     private Info info;
 
     public Director() {
-        announceInstantiation();
     }
 
     public Address getAddress() {
@@ -31,10 +30,6 @@ public class Director implements IService {
         this.info = info;
     }
 
-    public void announceInstantiation() {
-        System.out.printf("%s is instantiated.\n", this.toString());
-    }
-
     @Override
     public void print() {
         System.out.println(this.toString());
@@ -6,11 +6,6 @@ import com.company.projects.annotations.IAmService;
 public class Info implements IService {
 
     public Info() {
-        announceInstantiation();
-    }
-
-    public void announceInstantiation() {
-        System.out.printf("%s is instantiated.\n", this.toString());
     }
 
     @Override
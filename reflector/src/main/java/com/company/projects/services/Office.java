@@ -11,7 +11,6 @@ public class Office implements IService {
     private Info info;
 
     public Office() {
-        announceInstantiation();
     }
 
     @INeedThis
@@ -19,7 +18,6 @@ public class Office implements IService {
         this.director = director;
         this.address = address;
         this.info = info;
-        announceInstantiation();
     }
 
     public Director getDirector() {
@@ -46,10 +44,6 @@ public class Office implements IService {
         this.info = info;
     }
 
-    public void announceInstantiation() {
-        System.out.printf("%s is instantiated.\n", this.toString());
-    }
-
     @Override
     public void print() {
         System.out.println(this.toString());
@@ -13,11 +13,11 @@ public class Utils {
         return str == null || str.isEmpty();
     }
 
-    public static boolean isEmpty(Collection coll) {
+    public static boolean isEmpty(Collection<?> coll) {
         return coll == null || coll.isEmpty();
     }
 
-    public static boolean isEmpty(Map map) {
+    public static boolean isEmpty(Map<?, ?> map) {
         return map == null || map.size() == 0;
     }
 
@@ -29,11 +29,11 @@ public class Utils {
         return !isEmpty(str);
     }
 
-    public static boolean isNotEmpty(Collection coll) {
+    public static boolean isNotEmpty(Collection<?> coll) {
         return !isEmpty(coll);
     }
 
-    public static boolean isNotEmpty(Map map) {
+    public static boolean isNotEmpty(Map<?, ?> map) {
         return !isEmpty(map);
     }
 }
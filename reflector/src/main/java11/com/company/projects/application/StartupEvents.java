@@ -0,0 +1,90 @@
+package com.company.projects.application;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder events of the startup phases. Compiled for release 11 apart from the other
+ * sources, and only loaded when the JVM has a flight recorder, see {@link ContainerMetrics}.
+ */
+final class StartupEvents implements PhaseEvents {
+
+    StartupEvents() {
+    }
+
+    @Override
+    public Object begin(StartupPhase phase) {
+        StartupEvent event;
+        switch (phase) {
+            case PACKAGE_DISCOVERY: event = new PackageDiscovery(); break;
+            case CLASS_LOADING: event = new ClassLoading(); break;
+            case SERVICE_FILTERING: event = new ServiceFiltering(); break;
+            case DESCRIPTOR_MAPPING: event = new DescriptorMapping(); break;
+            case BEAN_CONSTRUCTION: event = new BeanConstruction(); break;
+            case BEAN_INJECTION: event = new BeanInjection(); break;
+            case BEAN_INITIALIZATION: event = new BeanInitialization(); break;
+            default: throw new IllegalArgumentException("Unknown phase " + phase);
+        }
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commit(Object started, String className) {
+        StartupEvent event = (StartupEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.className = className;
+            event.commit();
+        }
+    }
+
+    @Category({"Reflector", "Startup"})
+    public abstract static class StartupEvent extends Event {
+
+        @Label("Class")
+        @Description("Class or package the event is about")
+        String className;
+    }
+
+    @Name("reflector.PackageDiscovery")
+    @Label("Package Discovery")
+    public static class PackageDiscovery extends StartupEvent {
+    }
+
+    @Name("reflector.ClassLoading")
+    @Label("Class Loading")
+    public static class ClassLoading extends StartupEvent {
+    }
+
+    @Name("reflector.ServiceFiltering")
+    @Label("Service Filtering")
+    public static class ServiceFiltering extends StartupEvent {
+    }
+
+    @Name("reflector.DescriptorMapping")
+    @Label("Descriptor Mapping")
+    public static class DescriptorMapping extends StartupEvent {
+    }
+
+    @Name("reflector.BeanConstruction")
+    @Label("Bean Construction")
+    public static class BeanConstruction extends StartupEvent {
+    }
+
+    @Name("reflector.BeanInjection")
+    @Label("Bean Injection")
+    public static class BeanInjection extends StartupEvent {
+    }
+
+    @Name("reflector.BeanInitialization")
+    @Label("Bean Initialization")
+    public static class BeanInitialization extends StartupEvent {
+    }
+}
@@ -0,0 +1,204 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.company.projects.application.Descriptors.describe;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BeanRegistryTest {
+
+    private static final AtomicInteger SHARED = new AtomicInteger();
+    private static volatile CountDownLatch slowStarted;
+    private static volatile CountDownLatch slowReleased;
+
+    private final Reflector reflector = new Reflector();
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        SHARED.set(0);
+        slowStarted = new CountDownLatch(1);
+        slowReleased = new CountDownLatch(1);
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @After
+    public void tearDown() {
+        slowReleased.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentFirstRequestsCreateTheBeanOnce() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            SHARED.set(0);
+            BeanRegistry registry = reflector.createRegistry(describe(UsesShared.class, Shared.class));
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Object>> requests = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Class<?> type = i % 2 == 0 ? Shared.class : UsesShared.class;
+                requests.add(executor.submit(() -> {
+                    start.await();
+                    return registry.getBean(type);
+                }));
+            }
+            start.countDown();
+
+            Shared shared = registry.getBean(Shared.class);
+            for (int i = 0; i < requests.size(); i++) {
+                Object bean = requests.get(i).get(5, TimeUnit.SECONDS);
+                assertSame(shared, bean instanceof UsesShared ? ((UsesShared) bean).shared : bean);
+            }
+            assertEquals(1, SHARED.get());
+        }
+    }
+
+    @Test
+    public void unrelatedBeansDoNotWaitForEachOther() throws Exception {
+        BeanRegistry registry = reflector.createRegistry(describe(Slow.class, Shared.class));
+        Future<Slow> slow = executor.submit(() -> registry.getBean(Slow.class));
+        assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+
+        Future<Shared> shared = executor.submit(() -> registry.getBean(Shared.class));
+
+        shared.get(5, TimeUnit.SECONDS);
+        assertFalse(slow.isDone());
+        slowReleased.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void waitsForABeanAnotherThreadIsCreating() throws Exception {
+        BeanRegistry registry = reflector.createRegistry(describe(Slow.class));
+        Future<Slow> first = executor.submit(() -> registry.getBean(Slow.class));
+        assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+        Future<Slow> second = executor.submit(() -> registry.getBean(Slow.class));
+
+        Thread.sleep(50);
+        assertFalse(second.isDone());
+        slowReleased.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void failedBeansFailEveryRequestAndLeaveOthersUsable() {
+        BeanRegistry registry = reflector.createRegistry(describe(Broken.class, UsesBroken.class, Shared.class));
+        for (Class<?> type : new Class<?>[]{Broken.class, UsesBroken.class}) {
+            try {
+                registry.getBean(type);
+                fail(type.getSimpleName() + " should fail");
+            } catch (IllegalStateException e) {
+                assertEquals("broken", e.getMessage());
+            }
+        }
+        assertEquals(Shared.class, registry.getBean(Shared.class).getClass());
+    }
+
+    @Test
+    public void resolvesFieldCyclesOnFirstRequest() {
+        BeanRegistry registry = reflector.createRegistry(describe(Ping.class, Pong.class));
+
+        Ping ping = registry.getBean(Ping.class);
+
+        assertSame(ping, ping.pong.ping);
+        assertSame(ping.pong, registry.getBean(Pong.class));
+    }
+
+    @Test
+    public void looksBeansUpByInterfaceAndRejectsAmbiguousOnes() {
+        BeanRegistry registry = reflector.createRegistry(describe(Shared.class, Slow.class, UsesShared.class));
+
+        assertSame(registry.getBean(Shared.class), registry.getBean(Marker.class));
+        try {
+            registry.getBean(Runnable.class);
+            fail("No bean is a Runnable");
+        } catch (NoSuchBeanException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Runnable"));
+        }
+        try {
+            registry.getBean(Common.class);
+            fail("Several beans are Common");
+        } catch (NoSuchBeanException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Common"));
+        }
+    }
+
+    public interface Marker {
+    }
+
+    public interface Common {
+    }
+
+    @IAmService
+    public static class Shared implements Marker, Common {
+        public Shared() {
+            SHARED.incrementAndGet();
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @IAmService
+    public static class UsesShared {
+        final Shared shared;
+
+        @INeedThis
+        public UsesShared(Shared shared) {
+            this.shared = shared;
+        }
+    }
+
+    @IAmService
+    public static class Slow implements Common {
+        public Slow() throws InterruptedException {
+            slowStarted.countDown();
+            slowReleased.await();
+        }
+    }
+
+    @IAmService
+    public static class Broken {
+        public Broken() {
+            throw new IllegalStateException("broken");
+        }
+    }
+
+    @IAmService
+    public static class UsesBroken {
+        @INeedThis
+        Broken broken;
+    }
+
+    @IAmService
+    public static class Ping {
+        @INeedThis
+        Pong pong;
+    }
+
+    @IAmService
+    public static class Pong {
+        @INeedThis
+        Ping ping;
+    }
+}
@@ -0,0 +1,227 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IAmService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ClassChangeWatcherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public Timeout timeout = Timeout.seconds(60);
+
+    private final Reflector reflector = new Reflector();
+    private final Map<String, Object> beans = new ConcurrentHashMap<>();
+    private File sources;
+    private File classes;
+    private ClassLoader contextClassLoader;
+    private URLClassLoader loader;
+    private ClassChangeWatcher watcher;
+
+    @Before
+    public void setUp() throws Exception {
+        sources = folder.newFolder("sources");
+        classes = folder.newFolder("classes");
+        contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        write("Store", "@IAmService public class Store {",
+                "    public static boolean left;",
+                "    @IAmLeaving void leave() { left = true; }",
+                "    public String version() { return \"v1\"; }",
+                "}");
+        write("Cache", "@IAmService public class Cache {",
+                "    public static boolean left;",
+                "    @INeedThis Store store;",
+                "    @IAmLeaving void leave() { left = true; }",
+                "    public String describe() { return store.version() + \" \" + Wrapper.label(); }",
+                "}");
+        write("Clock", "@IAmService public class Clock {",
+                "    public static boolean left;",
+                "    @IAmLeaving void leave() { left = true; }",
+                "}");
+        write("Wrapper", "public class Wrapper {",
+                "    public static String label() { return \"[\" + Helper.name() + \"]\"; }",
+                "}");
+        write("Helper", "public class Helper {",
+                "    public static String name() { return \"first\"; }",
+                "}");
+        compile("Store", "Cache", "Clock", "Wrapper", "Helper");
+
+        loader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, contextClassLoader);
+        Thread.currentThread().setContextClassLoader(loader);
+        List<BeanDescriptor> descriptors = new ArrayList<>();
+        for (String service : Arrays.asList("Store", "Cache", "Clock")) {
+            descriptors.add(reflector.mapDependencies(loader.loadClass("watched.app." + service)));
+        }
+        reflector.wireBeans(descriptors, beans);
+        watcher = new ClassChangeWatcher(reflector, "watched.app", descriptors, beans);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+        watcher.close();
+        loader.close();
+    }
+
+    @Test
+    public void rebuildsTheChangedServiceAndItsDependentsOnly() throws Exception {
+        Object store = beans.get("Store");
+        Object cache = beans.get("Cache");
+        Object clock = beans.get("Clock");
+
+        write("Store", "@IAmService public class Store {",
+                "    public String version() { return \"v2\"; }",
+                "}");
+        compile("Store");
+        RewireReport report = watcher.awaitChanges();
+
+        assertTrue(report.toString(), report.isSuccessful());
+        assertEquals(Collections.singletonList("watched.app.Store"), report.getChangedClasses());
+        assertEquals(Arrays.asList("Store", "Cache"), report.getRebuiltBeans());
+        assertEquals(Collections.emptyList(), report.getRemovedBeans());
+        assertFalse(report.isFullRewire());
+        assertSame(clock, beans.get("Clock"));
+        assertNotSame(store, beans.get("Store"));
+        assertNotSame(cache, beans.get("Cache"));
+        assertEquals("v2 [first]", call(beans.get("Cache"), "describe"));
+    }
+
+    @Test
+    public void destroysTheReplacedBeansBeforeSwappingThem() throws Exception {
+        Class<?> oldStore = beans.get("Store").getClass();
+        Class<?> oldCache = beans.get("Cache").getClass();
+
+        write("Store", "@IAmService public class Store {",
+                "    public String version() { return \"v2\"; }",
+                "}");
+        compile("Store");
+        RewireReport report = watcher.awaitChanges();
+
+        assertTrue(report.toString(), report.isSuccessful());
+        assertEquals(Arrays.asList("Cache", "Store"), report.getShutdown().getDestroyedBeans());
+        assertTrue((Boolean) oldStore.getField("left").get(null));
+        assertTrue((Boolean) oldCache.getField("left").get(null));
+        assertFalse((Boolean) beans.get("Clock").getClass().getField("left").get(null));
+    }
+
+    @Test
+    public void destroysTheBeansOfRemovedServices() throws Exception {
+        Class<?> oldClock = beans.get("Clock").getClass();
+
+        assertTrue(new File(classes, "watched/app/Clock.class").delete());
+        RewireReport report = watcher.awaitChanges();
+
+        assertTrue(report.toString(), report.isSuccessful());
+        assertEquals(Collections.singletonList("watched.app.Clock"), report.getRemovedClasses());
+        assertEquals(Collections.singletonList("Clock"), report.getRemovedBeans());
+        assertFalse(beans.containsKey("Clock"));
+        assertTrue((Boolean) oldClock.getField("left").get(null));
+    }
+
+    @Test
+    public void reloadsUnchangedClassesOnAFullRewire() throws Exception {
+        assertEquals("v1 [first]", call(beans.get("Cache"), "describe"));
+
+        write("Helper", "public class Helper {",
+                "    public static String name() { return \"second\"; }",
+                "}");
+        compile("Helper");
+        RewireReport report = watcher.awaitChanges();
+
+        assertTrue(report.toString(), report.isSuccessful());
+        assertTrue(report.isFullRewire());
+        assertEquals(Arrays.asList("Store", "Cache", "Clock"), report.getRebuiltBeans());
+        // Wrapper did not change, but has to link against the new Helper
+        assertEquals("v1 [second]", call(beans.get("Cache"), "describe"));
+    }
+
+    @Test
+    public void keepsTheBeansOfAFailedGenerationAndRetriesItsChanges() throws Exception {
+        Object store = beans.get("Store");
+
+        write("Gate", "public class Gate {",
+                "    public static void check() { throw new IllegalStateException(\"closed\"); }",
+                "}");
+        write("Store", "@IAmService public class Store {",
+                "    public Store() { Gate.check(); }",
+                "    public String version() { return \"v2\"; }",
+                "}");
+        compile("Gate", "Store");
+        RewireReport failed = watcher.awaitChanges();
+
+        assertFalse(failed.isSuccessful());
+        assertEquals("closed", failed.getFailure().getMessage());
+        assertSame(store, beans.get("Store"));
+        assertFalse((Boolean) store.getClass().getField("left").get(null));
+
+        write("Gate", "public class Gate {",
+                "    public static void check() { }",
+                "}");
+        compile("Gate");
+        RewireReport retried = watcher.awaitChanges();
+
+        // Store did not change again, it is re-wired as a change of the failed batch
+        assertTrue(retried.toString(), retried.isSuccessful());
+        assertEquals(Arrays.asList("watched.app.Gate", "watched.app.Store"), sorted(retried.getChangedClasses()));
+        assertEquals("v2 [first]", call(beans.get("Cache"), "describe"));
+        assertTrue((Boolean) store.getClass().getField("left").get(null));
+    }
+
+    private static List<String> sorted(List<String> names) {
+        List<String> sorted = new ArrayList<>(names);
+        sorted.sort(null);
+        return sorted;
+    }
+
+    private void write(String name, String... lines) throws IOException {
+        File source = new File(sources, "watched/app/" + name + ".java");
+        Files.createDirectories(source.getParentFile().toPath());
+        List<String> content = new ArrayList<>(Arrays.asList("package watched.app;",
+                "import com.company.projects.annotations.*;"));
+        content.addAll(Arrays.asList(lines));
+        Files.write(source.toPath(), content, StandardCharsets.UTF_8);
+    }
+
+    private void compile(String... names) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList("-proc:none", "-d", classes.getPath(),
+                "-classpath", new File(IAmService.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                        + File.pathSeparator + classes.getPath()));
+        for (String name : names) {
+            arguments.add(new File(sources, "watched/app/" + name + ".java").getPath());
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, arguments.toArray(new String[0])));
+    }
+
+    private static Object call(Object bean, String method) throws ReflectiveOperationException {
+        return bean.getClass().getMethod(method).invoke(bean);
+    }
+}
@@ -0,0 +1,155 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ClassFileReaderTest {
+
+    private static final String SERVICE = ClassFileReader.descriptorOf(IAmService.class);
+
+    @Test
+    public void readsTheHierarchyAndAnnotationsOfAService() throws IOException {
+        ClassFileReader.ClassInfo info = ClassFileReader.read(classFile(WithConstants.class), SERVICE);
+
+        assertNotNull(info);
+        assertEquals(WithConstants.class.getName(), info.getName());
+        assertEquals(Base.class.getName(), info.getSuperName());
+        assertEquals(Collections.singletonList(Runnable.class.getName()), info.getInterfaces());
+        assertTrue(info.isAnnotatedWith(SERVICE));
+    }
+
+    @Test
+    public void readsTheMembersFollowingLongAndDoubleConstants() throws IOException {
+        // BIG and RATIO put CONSTANT_Long and CONSTANT_Double entries, each taking two slots, in the pool
+        ClassFileReader.ClassInfo info = ClassFileReader.read(classFile(WithConstants.class), SERVICE);
+
+        ClassFileReader.MemberInfo dependency = member(info, "dependency");
+        assertEquals("L" + Base.class.getName().replace('.', '/') + ";", dependency.getDescriptor());
+        assertTrue(dependency.isAnnotatedWith(ClassFileReader.descriptorOf(INeedThis.class)));
+        assertEquals("J", member(info, "BIG").getDescriptor());
+        assertEquals("D", member(info, "RATIO").getDescriptor());
+    }
+
+    @Test
+    public void countsLongAndDoubleEntriesAsTwoSlots() throws IOException {
+        ClassFileReader.ClassInfo info = ClassFileReader.read(handMadeClass(SERVICE), SERVICE);
+
+        // Were the entries after a long or double numbered one too low, the class would resolve to the wrong names
+        assertEquals("app.Thing", info.getName());
+        assertEquals("java.lang.Object", info.getSuperName());
+        assertEquals(Collections.singletonList(SERVICE), info.getAnnotations());
+    }
+
+    @Test
+    public void givesUpAfterTheConstantPoolWithoutTheRequiredAnnotation() throws IOException {
+        assertNull(ClassFileReader.read(classFile(Base.class), SERVICE));
+
+        // Nothing after the pool is read: a class cut off right after it is given up on, not rejected
+        byte[] cut = Arrays.copyOf(handMadeClass("Lapp/Other;"), handMadeConstantPoolEnd());
+        assertNull(ClassFileReader.read(cut, SERVICE));
+        try {
+            ClassFileReader.read(cut, null);
+            fail("A class cut off after its constant pool should be rejected when parsed");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().startsWith("Malformed class file"));
+        }
+    }
+
+    @Test
+    public void parsesEveryClassWithoutARequiredAnnotation() throws IOException {
+        ClassFileReader.ClassInfo info = ClassFileReader.read(classFile(Base.class), null);
+
+        assertEquals(Base.class.getName(), info.getName());
+        assertEquals(Collections.emptyList(), info.getAnnotations());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsWhatIsNotAClassFile() throws IOException {
+        ClassFileReader.read("not a class file".getBytes(StandardCharsets.UTF_8), null);
+    }
+
+    private static ClassFileReader.MemberInfo member(ClassFileReader.ClassInfo info, String name) {
+        for (ClassFileReader.MemberInfo member : info.getMembers()) {
+            if (member.getName().equals(name)) {
+                return member;
+            }
+        }
+        throw new AssertionError("No member " + name + " in " + info.getName());
+    }
+
+    private static byte[] classFile(Class<?> type) throws IOException {
+        String resource = "/" + type.getName().replace('.', '/') + ".class";
+        try (InputStream in = type.getResourceAsStream(resource)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int read = in.read(buffer); read > 0; read = in.read(buffer)) {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * A class {@code app.Thing} annotated with the given annotation, whose constant pool has a long
+     * and a double entry ahead of the entries naming the super class and the annotation.
+     */
+    private static byte[] handMadeClass(String annotation) {
+        ByteBuffer bytes = ByteBuffer.allocate(512);
+        bytes.putInt(0xCAFEBABE).putShort((short) 0).putShort((short) 52);
+        bytes.putShort((short) 11);
+        utf8(bytes, "app/Thing");                                         // 1
+        bytes.put((byte) 7).putShort((short) 1);                          // 2
+        bytes.put((byte) 5).putLong(Long.MAX_VALUE);                      // 3 and 4
+        utf8(bytes, "java/lang/Object");                                  // 5
+        bytes.put((byte) 7).putShort((short) 5);                          // 6
+        bytes.put((byte) 6).putDouble(0.5);                               // 7 and 8
+        utf8(bytes, annotation);                                          // 9
+        utf8(bytes, "RuntimeVisibleAnnotations");                         // 10
+        bytes.putShort((short) 0x21).putShort((short) 2).putShort((short) 6);
+        bytes.putShort((short) 0).putShort((short) 0).putShort((short) 0);
+        bytes.putShort((short) 1).putShort((short) 10).putInt(6);
+        bytes.putShort((short) 1).putShort((short) 9).putShort((short) 0);
+        return Arrays.copyOf(bytes.array(), bytes.position());
+    }
+
+    private static int handMadeConstantPoolEnd() {
+        return 10 + (3 + "app/Thing".length()) + 3 + 9 + (3 + "java/lang/Object".length()) + 3 + 9
+                + (3 + "Lapp/Other;".length()) + (3 + "RuntimeVisibleAnnotations".length());
+    }
+
+    private static void utf8(ByteBuffer bytes, String value) {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        bytes.put((byte) 1).putShort((short) encoded.length).put(encoded);
+    }
+
+    public static class Base {
+    }
+
+    @IAmService
+    public static class WithConstants extends Base implements Runnable {
+        static final long BIG = 1234567890123L;
+        static final double RATIO = 0.25;
+
+        @INeedThis
+        Base dependency;
+
+        @Override
+        public void run() {
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.company.projects.application.Descriptors.describe;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CriticalPathReportTest {
+
+    private static final Map<Class<?>, Long> DURATIONS = new HashMap<>();
+
+    static {
+        DURATIONS.put(Source.class, millis(10));
+        DURATIONS.put(Fast.class, millis(5));
+        DURATIONS.put(Slow.class, millis(30));
+        DURATIONS.put(Sink.class, millis(20));
+        DURATIONS.put(Loner.class, millis(4));
+    }
+
+    private final Reflector reflector = new Reflector();
+
+    @Test
+    public void followsTheSlowerSideOfTheDiamond() {
+        CriticalPathReport report = report();
+
+        assertEquals(Arrays.asList(Source.class, Slow.class, Sink.class), beans(report.getCriticalPath()));
+        assertEquals(millis(60), report.getCriticalPathNanos());
+        assertEquals(millis(69), report.getTotalNanos());
+        assertEquals(69 / 60.0, report.getParallelism(), 1e-9);
+    }
+
+    @Test
+    public void givesTheBeansOffThePathTheirSlack() {
+        CriticalPathReport report = report();
+
+        assertEquals(0, report.getBean(Source.class).getSlackNanos());
+        assertEquals(0, report.getBean(Slow.class).getSlackNanos());
+        assertEquals(0, report.getBean(Sink.class).getSlackNanos());
+        // Fast may finish as late as Slow does
+        assertEquals(millis(25), report.getBean(Fast.class).getSlackNanos());
+        assertEquals(millis(56), report.getBean(Loner.class).getSlackNanos());
+
+        assertEquals(millis(10), report.getBean(Fast.class).getEarliestStartNanos());
+        assertEquals(millis(40), report.getBean(Sink.class).getEarliestStartNanos());
+        assertEquals(millis(60), report.getBean(Sink.class).getEarliestFinishNanos());
+        assertTrue(report.getBean(Slow.class).isCritical());
+        assertFalse(report.getBean(Fast.class).isCritical());
+        assertFalse(report.getBean(Loner.class).isCritical());
+    }
+
+    @Test
+    public void hasAParallelismOfOneWithoutMeasurements() {
+        CriticalPathReport report = new CriticalPathReport(plan(), bean -> 0);
+
+        assertEquals(0, report.getCriticalPathNanos());
+        assertEquals(1, report.getParallelism(), 0);
+    }
+
+    @Test
+    public void exportsTheBeansAndTheCriticalPathAsJson() {
+        String json = report().toJson();
+
+        assertTrue(json, json.startsWith("{\n  \"criticalPathNanos\": 60000000,\n  \"totalNanos\": 69000000,\n"));
+        assertTrue(json, json.contains("\"criticalPath\": [" + quote(Source.class) + ", " + quote(Slow.class)
+                + ", " + quote(Sink.class) + "]"));
+        assertTrue(json, json.contains("{\"name\": " + quote(Fast.class) + ", \"durationNanos\": 5000000"
+                + ", \"earliestStartNanos\": 10000000, \"slackNanos\": 25000000, \"critical\": false"
+                + ", \"dependencies\": [" + quote(Source.class) + "]}"));
+        assertTrue(json, json.contains("{\"name\": " + quote(Loner.class) + ", \"durationNanos\": 4000000"
+                + ", \"earliestStartNanos\": 0, \"slackNanos\": 56000000, \"critical\": false"
+                + ", \"dependencies\": []}"));
+        assertTrue(json, json.endsWith("}\n  ]\n}\n"));
+    }
+
+    @Test
+    public void exportsTheCriticalPathInRedAsDot() {
+        CriticalPathReport report = report();
+        String dot = report.toDot();
+
+        assertTrue(dot, dot.startsWith("digraph startup {\n"));
+        assertTrue(dot, dot.contains(node(report, Slow.class)
+                + " [label=\"Slow\\n30.000 ms\\nslack 0.000 ms\", color=red, penwidth=2];\n"));
+        assertTrue(dot, dot.contains(node(report, Fast.class) + " [label=\"Fast\\n5.000 ms\\nslack 25.000 ms\"];\n"));
+        assertTrue(dot, dot.contains(edge(report, Source.class, Slow.class) + " [color=red, penwidth=2];\n"));
+        assertTrue(dot, dot.contains(edge(report, Slow.class, Sink.class) + " [color=red, penwidth=2];\n"));
+        assertTrue(dot, dot.contains(edge(report, Source.class, Fast.class) + ";\n"));
+        assertTrue(dot, dot.contains(edge(report, Fast.class, Sink.class) + ";\n"));
+        assertFalse(dot, dot.contains(node(report, Loner.class) + " ->"));
+        assertTrue(dot, dot.endsWith("}\n"));
+    }
+
+    private CriticalPathReport report() {
+        return new CriticalPathReport(plan(), DURATIONS::get);
+    }
+
+    private WiringPlan plan() {
+        return reflector.planWiring(describe(Sink.class, Loner.class, Fast.class, Slow.class, Source.class));
+    }
+
+    private static String node(CriticalPathReport report, Class<?> bean) {
+        return "    n" + beans(report.getBeans()).indexOf(bean);
+    }
+
+    private static String edge(CriticalPathReport report, Class<?> dependency, Class<?> dependent) {
+        return node(report, dependency) + " -> n" + beans(report.getBeans()).indexOf(dependent);
+    }
+
+    private static List<Class<?>> beans(List<CriticalPathReport.BeanTiming> timings) {
+        Class<?>[] beans = new Class<?>[timings.size()];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = timings.get(i).getBean();
+        }
+        return Arrays.asList(beans);
+    }
+
+    private static String quote(Class<?> bean) {
+        return "\"" + bean.getName() + "\"";
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @IAmService
+    public static class Source {
+    }
+
+    @IAmService
+    public static class Fast {
+        @INeedThis
+        Source source;
+    }
+
+    @IAmService
+    public static class Slow {
+        @INeedThis
+        Source source;
+    }
+
+    @IAmService
+    public static class Sink {
+        @INeedThis
+        Fast fast;
+
+        @INeedThis
+        Slow slow;
+    }
+
+    @IAmService
+    public static class Loner {
+    }
+}
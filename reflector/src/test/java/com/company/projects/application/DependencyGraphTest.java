@@ -0,0 +1,163 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static com.company.projects.application.Descriptors.describe;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DependencyGraphTest {
+
+    @Test
+    public void findsTheBeanWithTheMostTransitiveDependencies() {
+        DependencyGraph graph = DependencyGraph.of(describe(Leaf.class, Middle.class, Top.class, Ping.class, Pong.class));
+
+        assertSame(Top.class, graph.getMostDependent());
+        assertEquals(4, graph.countTransitiveDependencies(Top.class));
+        assertEquals(1, graph.countTransitiveDependencies(Ping.class));
+    }
+
+    @Test
+    public void countsTheSameWhetherClosuresWereQueriedBefore() {
+        DependencyGraph fresh = DependencyGraph.of(describe(Ping.class, Pong.class, Leaf.class, Middle.class));
+        DependencyGraph queried = DependencyGraph.of(describe(Ping.class, Pong.class, Leaf.class, Middle.class));
+        queried.countTransitiveDependencies(Ping.class);
+        queried.countTransitiveDependencies(Middle.class);
+
+        assertSame(Middle.class, fresh.getMostDependent());
+        assertSame(Middle.class, queried.getMostDependent());
+    }
+
+    @Test
+    public void hasNoMostDependentBeanWithoutBeans() {
+        assertNull(DependencyGraph.of(new ArrayList<>()).getMostDependent());
+    }
+
+    @Test
+    public void findsTransitiveDependenciesAndDependentsInStoreOrder() {
+        DependencyGraph graph = DependencyGraph.of(describe(Leaf.class, Middle.class, Top.class, Ping.class, Pong.class));
+
+        assertEquals(Arrays.asList(Leaf.class, Middle.class, Ping.class, Pong.class),
+                graph.getTransitiveDependencies(Top.class));
+        assertEquals(Arrays.asList(Middle.class, Top.class), graph.getTransitiveDependents(Leaf.class));
+        assertEquals(Arrays.asList(Middle.class, Top.class, Ping.class), graph.getTransitiveDependents(Pong.class));
+        assertEquals(Collections.emptyList(), graph.getTransitiveDependents(Top.class));
+        assertEquals(Collections.emptyList(), graph.getTransitiveDependencies(Leaf.class));
+    }
+
+    @Test
+    public void leavesABeanOutOfItsOwnClosureEvenInACycle() {
+        DependencyGraph graph = DependencyGraph.of(describe(Ping.class, Pong.class));
+
+        assertEquals(Collections.singletonList(Pong.class), graph.getTransitiveDependencies(Ping.class));
+        assertEquals(Collections.singletonList(Pong.class), graph.getTransitiveDependents(Ping.class));
+        assertTrue(graph.dependsOn(Ping.class, Pong.class));
+        assertTrue(graph.dependsOn(Pong.class, Ping.class));
+    }
+
+    @Test
+    public void answersDependsOnTransitivelyAndInOneDirection() {
+        DependencyGraph graph = DependencyGraph.of(describe(Leaf.class, Middle.class, Top.class, Ping.class, Pong.class));
+
+        assertTrue(graph.dependsOn(Top.class, Middle.class));
+        assertTrue(graph.dependsOn(Top.class, Leaf.class));
+        assertTrue(graph.dependsOn(Top.class, Pong.class));
+        assertFalse(graph.dependsOn(Leaf.class, Top.class));
+        assertFalse(graph.dependsOn(Ping.class, Leaf.class));
+        assertFalse(graph.dependsOn(Top.class, Top.class));
+    }
+
+    @Test
+    public void givesTheBeansOfACycleTheSameDepth() {
+        DependencyGraph graph = DependencyGraph.of(describe(Leaf.class, Middle.class, Top.class, Ping.class, Pong.class,
+                Head.class, Tail.class));
+
+        assertEquals(0, graph.getDepth(Leaf.class));
+        assertEquals(0, graph.getDepth(Ping.class));
+        assertEquals(0, graph.getDepth(Pong.class));
+        assertEquals(1, graph.getDepth(Middle.class));
+        assertEquals(2, graph.getDepth(Top.class));
+        // Head only reaches Leaf through Tail, yet both sit one above it
+        assertEquals(1, graph.getDepth(Head.class));
+        assertEquals(1, graph.getDepth(Tail.class));
+    }
+
+    @Test
+    public void resolvesInterfaceDependenciesToEveryImplementation() {
+        DependencyGraph graph = DependencyGraph.of(describe(Leaf.class, OtherLeaf.class, Middle.class, Ping.class,
+                Pong.class));
+
+        assertEquals(new HashSet<>(Arrays.asList(Leaf.class, OtherLeaf.class, Ping.class)),
+                new HashSet<>(graph.getDependencies(Middle.class)));
+        assertEquals(Collections.singletonList(Middle.class), graph.getDependents(OtherLeaf.class));
+        assertTrue(graph.dependsOn(Middle.class, OtherLeaf.class));
+    }
+
+    @Test(expected = NoSuchBeanException.class)
+    public void rejectsClassesThatAreNotBeans() {
+        DependencyGraph.of(describe(Middle.class, Leaf.class)).getDepth(Named.class);
+    }
+
+    public interface Named {
+    }
+
+    @IAmService
+    public static class OtherLeaf implements Named {
+    }
+
+    @IAmService
+    public static class Head {
+        @INeedThis
+        Tail tail;
+    }
+
+    @IAmService
+    public static class Tail {
+        @INeedThis
+        Head head;
+
+        @INeedThis
+        Leaf leaf;
+    }
+
+    @IAmService
+    public static class Leaf implements Named {
+    }
+
+    @IAmService
+    public static class Middle {
+        @INeedThis
+        Named leaf;
+
+        @INeedThis
+        Ping ping;
+    }
+
+    @IAmService
+    public static class Top {
+        @INeedThis
+        Middle middle;
+    }
+
+    @IAmService
+    public static class Ping {
+        @INeedThis
+        Pong pong;
+    }
+
+    @IAmService
+    public static class Pong {
+        @INeedThis
+        Ping ping;
+    }
+}
@@ -0,0 +1,206 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DescriptorCacheTest {
+
+    private static final String PACKAGE = DescriptorCacheTest.class.getName();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Reflector reflector = new Reflector();
+    private final Map<String, Long> fingerprints = new LinkedHashMap<>();
+    private final List<Class<?>> described = new ArrayList<>();
+    private final Function<Class<?>, BeanDescriptor> describer = service -> {
+        described.add(service);
+        return reflector.mapDependencies(service);
+    };
+    private File file;
+    private DescriptorCache cache;
+
+    @Before
+    public void setUp() {
+        for (Class<?> type : Arrays.asList(Database.class, Repository.class, Plain.class, Controller.class)) {
+            fingerprints.put(type.getName(), 1L);
+        }
+        file = new File(folder.getRoot(), "cache/descriptors.bin");
+        ProjectScanner scanner = new ProjectScanner() {
+            @Override
+            public Map<String, Long> getClassFingerprints(String packageName) {
+                return new LinkedHashMap<>(fingerprints);
+            }
+        };
+        cache = new DescriptorCache(file, scanner, DescriptorCacheTest.class.getClassLoader());
+    }
+
+    @Test
+    public void describesEveryServiceOnTheFirstRun() throws Exception {
+        List<BeanDescriptor> services = cache.getServices(PACKAGE, describer);
+
+        assertEquals(Arrays.asList(Database.class, Repository.class, Controller.class), beans(services));
+        assertEquals(Arrays.asList(Database.class, Repository.class, Controller.class), described);
+        assertEquals(4, cache.getRescanned());
+        assertEquals(0, cache.getReused());
+        assertTrue(file.isFile());
+    }
+
+    @Test
+    public void describesUnchangedServicesFromTheCache() throws Exception {
+        List<BeanDescriptor> scanned = cache.getServices(PACKAGE, describer);
+        described.clear();
+        long written = file.lastModified();
+
+        List<BeanDescriptor> cached = cache.getServices(PACKAGE, describer);
+
+        assertEquals(Collections.emptyList(), described);
+        assertEquals(4, cache.getReused());
+        assertEquals(0, cache.getRescanned());
+        assertEquals(written, file.lastModified());
+        assertEquals(beans(scanned), beans(cached));
+        for (int i = 0; i < scanned.size(); i++) {
+            assertEquals(scanned.get(i).getConstructorDependencies(), cached.get(i).getConstructorDependencies());
+            assertEquals(scanned.get(i).getMethodDependencies(), cached.get(i).getMethodDependencies());
+            assertEquals(scanned.get(i).getFieldDependencies(), cached.get(i).getFieldDependencies());
+        }
+        assertNull(cached.get(0).getAnnotatedConstructor());
+        assertSame(Database.class, cached.get(1).getAnnotatedConstructor().getParameterTypes()[0]);
+    }
+
+    @Test
+    public void rescansOnlyTheClassesWhoseFingerprintChanged() throws Exception {
+        cache.getServices(PACKAGE, describer);
+        described.clear();
+        fingerprints.put(Repository.class.getName(), 2L);
+        fingerprints.put(Plain.class.getName(), 2L);
+        fingerprints.remove(Controller.class.getName());
+
+        List<BeanDescriptor> services = cache.getServices(PACKAGE, describer);
+
+        assertEquals(Arrays.asList(Database.class, Repository.class), beans(services));
+        assertEquals(Collections.singletonList(Repository.class), described);
+        assertEquals(2, cache.getRescanned());
+        assertEquals(1, cache.getReused());
+        assertEquals(1, cache.getRemoved());
+
+        described.clear();
+        cache.getServices(PACKAGE, describer);
+        assertEquals(Collections.emptyList(), described);
+        assertEquals(3, cache.getReused());
+    }
+
+    @Test
+    public void ignoresACorruptCacheFile() throws Exception {
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), "not a descriptor cache".getBytes(StandardCharsets.UTF_8));
+
+        assertIgnoredAndRebuilt();
+    }
+
+    @Test
+    public void ignoresATruncatedCacheFile() throws Exception {
+        cache.getServices(PACKAGE, describer);
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+        described.clear();
+
+        assertIgnoredAndRebuilt();
+    }
+
+    @Test
+    public void ignoresACacheFileOfAnotherVersion() throws Exception {
+        cache.getServices(PACKAGE, describer);
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.write(bytes, 0, 4);
+            out.writeInt(2);
+            out.write(bytes, 8, bytes.length - 8);
+        }
+        described.clear();
+
+        assertIgnoredAndRebuilt();
+    }
+
+    @Test
+    public void ignoresACacheFileOfAnotherPackage() throws Exception {
+        cache.getServices(PACKAGE, describer);
+        described.clear();
+
+        List<BeanDescriptor> services = cache.getServices(PACKAGE + ".Other", describer);
+
+        assertEquals(3, services.size());
+        assertEquals(4, cache.getRescanned());
+    }
+
+    private void assertIgnoredAndRebuilt() throws IOException, ReflectiveOperationException {
+        List<BeanDescriptor> services = cache.getServices(PACKAGE, describer);
+
+        assertEquals(Arrays.asList(Database.class, Repository.class, Controller.class), beans(services));
+        assertEquals(4, cache.getRescanned());
+        assertEquals(0, cache.getReused());
+
+        described.clear();
+        cache.getServices(PACKAGE, describer);
+        assertEquals(Collections.emptyList(), described);
+        assertEquals(4, cache.getReused());
+    }
+
+    private static List<Class<?>> beans(List<BeanDescriptor> descriptors) {
+        List<Class<?>> beans = new ArrayList<>();
+        for (BeanDescriptor descriptor : descriptors) {
+            beans.add(descriptor.getBean());
+        }
+        return beans;
+    }
+
+    @IAmService
+    public static class Database {
+    }
+
+    @IAmService
+    public static class Repository {
+        @INeedThis
+        Plain plain;
+
+        @INeedThis
+        public Repository(Database database) {
+        }
+
+        @INeedThis
+        public void setController(Controller controller) {
+        }
+    }
+
+    public static class Plain {
+    }
+
+    @IAmService
+    public static class Controller {
+        @INeedThis
+        Repository repository;
+    }
+}
@@ -0,0 +1,142 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.company.projects.application.Descriptors.describe;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DescriptorStoreTest {
+
+    @Test
+    public void keepsTheDependenciesOfEachInjectionKindInTheirOwnRange() {
+        DescriptorStore store = DescriptorStore.of(describe(Engine.class, Wheel.class, Car.class));
+        int car = store.idOf(Car.class);
+
+        int constructor = store.getDependencyStart(car, DescriptorStore.Injection.CONSTRUCTOR);
+        int method = store.getDependencyStart(car, DescriptorStore.Injection.METHOD);
+        int field = store.getDependencyStart(car, DescriptorStore.Injection.FIELD);
+
+        assertEquals(store.getDependencyStart(car), constructor);
+        assertEquals(constructor + 2, store.getDependencyEnd(car, DescriptorStore.Injection.CONSTRUCTOR));
+        assertEquals(method + 1, store.getDependencyEnd(car, DescriptorStore.Injection.METHOD));
+        assertEquals(field + 1, store.getDependencyEnd(car, DescriptorStore.Injection.FIELD));
+        assertEquals(store.getDependencyEnd(car), store.getDependencyEnd(car, DescriptorStore.Injection.FIELD));
+        assertEquals(4, store.getDependencyCount(car));
+        assertEquals(Arrays.asList(Engine.class, String.class, Wheel.class, Engine.class), store.getDependencies(car));
+    }
+
+    @Test
+    public void namesTheInjectionPointOfMethodAndFieldDependencies() {
+        DescriptorStore store = DescriptorStore.of(describe(Engine.class, Wheel.class, Car.class));
+        int car = store.idOf(Car.class);
+
+        assertNull(store.getPointName(store.getDependencyStart(car, DescriptorStore.Injection.CONSTRUCTOR)));
+        assertEquals("setWheel", store.getPointName(store.getDependencyStart(car, DescriptorStore.Injection.METHOD)));
+        assertEquals("spare", store.getPointName(store.getDependencyStart(car, DescriptorStore.Injection.FIELD)));
+    }
+
+    @Test
+    public void givesDependenciesThatAreNotBeansIdsAfterTheBeans() {
+        DescriptorStore store = DescriptorStore.of(describe(Engine.class, Wheel.class, Car.class));
+
+        assertEquals(3, store.size());
+        assertEquals(4, store.getClassCount());
+        assertEquals(Arrays.asList(0, 1, 2),
+                Arrays.asList(store.idOf(Engine.class), store.idOf(Wheel.class), store.idOf(Car.class)));
+        int string = store.idOf(String.class);
+        assertEquals(3, string);
+        assertFalse(store.isBean(string));
+        assertTrue(store.isBean(store.idOf(Car.class)));
+        assertSame(String.class, store.getClass(string));
+        assertEquals(-1, store.idOf(Integer.class));
+    }
+
+    @Test
+    public void storesAClassDescribedTwiceWithItsFirstDescriptor() {
+        List<BeanDescriptor> descriptors = new ArrayList<>(describe(Engine.class, Car.class));
+        BeanDescriptor duplicate = new BeanDescriptor(Engine.class);
+        duplicate.setFieldDependencies(Collections.<String, Class<?>>singletonMap("car", Car.class));
+        descriptors.add(duplicate);
+
+        DescriptorStore store = DescriptorStore.of(descriptors);
+
+        assertEquals(2, store.size());
+        assertEquals(0, store.getDependencyCount(store.idOf(Engine.class)));
+        assertEquals(4, store.getEdgeCount());
+    }
+
+    @Test
+    public void servesTheDescriptorApiAsAViewOverTheStore() {
+        List<BeanDescriptor> descriptors = describe(Engine.class, Wheel.class, Car.class);
+        DescriptorStore store = DescriptorStore.of(descriptors);
+        int car = store.idOf(Car.class);
+
+        BeanDescriptor view = store.getDescriptor(car);
+
+        assertSame(Car.class, view.getBean());
+        assertSame(store.getDependencies(car), view.collectAllDependencies());
+        assertEquals(descriptors.get(car).collectAllDependencies(), view.collectAllDependencies());
+        assertEquals("Car depends on Engine, String, Wheel, Engine", view.listAllDependencies());
+        try {
+            view.setFieldDependencies(Collections.<String, Class<?>>emptyMap());
+            fail("The view should be read-only");
+        } catch (UnsupportedOperationException expected) {
+            assertEquals(1, descriptors.get(car).getFieldDependencies().size());
+        }
+    }
+
+    @Test
+    public void leavesSharedDescriptorsUntouched() {
+        List<BeanDescriptor> descriptors = describe(Engine.class, Wheel.class, Car.class);
+        DescriptorStore first = DescriptorStore.of(descriptors);
+        DescriptorStore second = DescriptorStore.of(descriptors.subList(2, 3));
+
+        assertEquals(Arrays.asList(0, 3, 1, 0), targets(first, first.idOf(Car.class)));
+        assertEquals(Arrays.asList(1, 2, 3, 1), targets(second, second.idOf(Car.class)));
+        assertEquals(first.getDependencies(2), second.getDependencies(0));
+        assertEquals(Arrays.<Class<?>>asList(Engine.class, String.class, Wheel.class, Engine.class),
+                descriptors.get(2).collectAllDependencies());
+    }
+
+    private static List<Integer> targets(DescriptorStore store, int id) {
+        List<Integer> targets = new ArrayList<>();
+        for (int edge = store.getDependencyStart(id); edge < store.getDependencyEnd(id); edge++) {
+            targets.add(store.getTarget(edge));
+        }
+        return targets;
+    }
+
+    @IAmService
+    public static class Engine {
+    }
+
+    @IAmService
+    public static class Wheel {
+    }
+
+    @IAmService
+    public static class Car {
+        @INeedThis
+        Engine spare;
+
+        @INeedThis
+        public Car(Engine engine, String name) {
+        }
+
+        @INeedThis
+        public void setWheel(Wheel wheel) {
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.company.projects.application;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Descriptors of the beans of a test, mapped the way {@link Reflector} maps scanned services.
+ */
+final class Descriptors {
+
+    private static final Reflector REFLECTOR = new Reflector();
+
+    private Descriptors() {
+    }
+
+    static List<BeanDescriptor> describe(Class<?>... classes) {
+        List<BeanDescriptor> descriptors = new ArrayList<>();
+        for (Class<?> klass : classes) {
+            descriptors.add(REFLECTOR.mapDependencies(klass));
+        }
+        return descriptors;
+    }
+}
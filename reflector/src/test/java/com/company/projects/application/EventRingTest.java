@@ -0,0 +1,105 @@
+package com.company.projects.application;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class EventRingTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int EVENTS_PER_PRODUCER = 20000;
+
+    @Test
+    public void roundsTheCapacityUpToAPowerOfTwo() {
+        assertEquals(4, new EventRing(4).capacity());
+        assertEquals(8, new EventRing(5).capacity());
+    }
+
+    @Test
+    public void rejectsEventsWhileFullAndAcceptsThemOnceTaken() {
+        EventRing ring = new EventRing(4);
+        List<ContainerEvent> events = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            events.add(event("event-" + i));
+            assertTrue(ring.offer(events.get(i)));
+        }
+
+        assertFalse(ring.offer(event("rejected")));
+        assertEquals(4, ring.queued());
+
+        assertSame(events.get(0), ring.poll());
+        ContainerEvent accepted = event("accepted");
+        assertTrue(ring.offer(accepted));
+        for (int i = 1; i < 4; i++) {
+            assertSame(events.get(i), ring.poll());
+        }
+        assertSame(accepted, ring.poll());
+        assertNull(ring.poll());
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    public void keepsTheOrderOfEveryProducerWithoutLosingEvents() throws Exception {
+        EventRing ring = new EventRing(64);
+        ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> finished = new ArrayList<>();
+            for (int p = 0; p < PRODUCERS; p++) {
+                String producer = "producer-" + p;
+                finished.add(producers.submit(() -> {
+                    start.await();
+                    for (int n = 0; n < EVENTS_PER_PRODUCER; n++) {
+                        ContainerEvent event = event(producer + ":" + n);
+                        // A small ring is full most of the time, producers retry until the consumer catches up
+                        while (!ring.offer(event)) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            int[] next = new int[PRODUCERS];
+            int received = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (received < PRODUCERS * EVENTS_PER_PRODUCER) {
+                assertTrue("Events were lost", System.nanoTime() < deadline);
+                ContainerEvent event = ring.poll();
+                if (event == null) {
+                    Thread.yield();
+                    continue;
+                }
+                String[] subject = event.getSubject().substring("producer-".length()).split(":");
+                int producer = Integer.parseInt(subject[0]);
+                assertEquals(next[producer]++, Integer.parseInt(subject[1]));
+                received++;
+            }
+            for (Future<?> producer : finished) {
+                producer.get(5, TimeUnit.SECONDS);
+            }
+
+            assertNull(ring.poll());
+            assertEquals(PRODUCERS * EVENTS_PER_PRODUCER, ring.queued());
+        } finally {
+            producers.shutdownNow();
+        }
+    }
+
+    private static ContainerEvent event(String subject) {
+        return new ContainerEvent(ContainerEvent.Type.LOADED, subject, null);
+    }
+}
@@ -0,0 +1,161 @@
+package com.company.projects.application;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EventSubscriptionTest {
+
+    private final List<EventSubscription> subscriptions = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        for (EventSubscription subscription : subscriptions) {
+            subscription.close();
+        }
+    }
+
+    @Test
+    public void dropsAndCountsEventsWhileTheListenerIsBehind() throws Exception {
+        CountDownLatch first = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        EventSubscription subscription = subscribe(event -> {
+            received.add(event.getSubject());
+            first.countDown();
+            await(released);
+        }, 4);
+
+        ContainerEvents.publish(ContainerEvent.Type.LOADED, "first");
+        assertTrue(first.await(5, TimeUnit.SECONDS));
+        // The listener holds the first event, the ring takes four more
+        for (int i = 0; i < 10; i++) {
+            ContainerEvents.publish(ContainerEvent.Type.LOADED, "event-" + i);
+        }
+        assertEquals(6, subscription.getDroppedCount());
+
+        released.countDown();
+        assertTrue(subscription.awaitDelivery(5, TimeUnit.SECONDS));
+        assertEquals(5, subscription.getDeliveredCount());
+        assertEquals(Arrays.asList("first", "event-0", "event-1", "event-2", "event-3"), received);
+    }
+
+    @Test
+    public void deliversTheEventsOfEveryPublisherInOrder() throws Exception {
+        int publishers = 4;
+        int events = 5000;
+        int[] next = new int[publishers];
+        List<String> outOfOrder = Collections.synchronizedList(new ArrayList<>());
+        EventSubscription subscription = subscribe(event -> {
+            String[] subject = event.getSubject().split(":");
+            int publisher = Integer.parseInt(subject[0]);
+            if (Integer.parseInt(subject[1]) != next[publisher]++) {
+                outOfOrder.add(event.getSubject());
+            }
+        }, publishers * events);
+
+        ExecutorService executor = Executors.newFixedThreadPool(publishers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> finished = new ArrayList<>();
+            for (int p = 0; p < publishers; p++) {
+                int publisher = p;
+                finished.add(executor.submit(() -> {
+                    start.await();
+                    for (int n = 0; n < events; n++) {
+                        ContainerEvents.publish(ContainerEvent.Type.LOADED, publisher + ":" + n);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> publisher : finished) {
+                publisher.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(subscription.awaitDelivery(10, TimeUnit.SECONDS));
+        assertEquals(0, subscription.getDroppedCount());
+        assertEquals(publishers * events, subscription.getDeliveredCount());
+        assertEquals(Collections.emptyList(), outOfOrder);
+    }
+
+    @Test
+    public void countsListenerFailuresAndKeepsDelivering() throws Exception {
+        EventSubscription subscription = subscribe(event -> {
+            if (event.getSubject().startsWith("bad")) {
+                throw new IllegalStateException(event.getSubject());
+            }
+        }, 16);
+
+        ContainerEvents.publish(ContainerEvent.Type.LOADED, "bad-1");
+        ContainerEvents.publish(ContainerEvent.Type.LOADED, "good");
+        ContainerEvents.publish(ContainerEvent.Type.LOADED, "bad-2");
+
+        assertTrue(subscription.awaitDelivery(5, TimeUnit.SECONDS));
+        assertEquals(3, subscription.getDeliveredCount());
+        assertEquals(2, subscription.getListenerFailureCount());
+    }
+
+    @Test
+    public void onlyReceivesTheTypesSubscribedTo() throws Exception {
+        List<ContainerEvent.Type> received = Collections.synchronizedList(new ArrayList<>());
+        EventSubscription subscription = subscribe(event -> received.add(event.getType()), 16);
+
+        ContainerEvents.publish(ContainerEvent.Type.SCANNED, "package");
+        ContainerEvents.publish(ContainerEvent.Type.LOADED, "class");
+
+        assertTrue(subscription.awaitDelivery(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList(ContainerEvent.Type.LOADED), received);
+    }
+
+    @Test
+    public void deliversQueuedEventsAfterCloseButNoNewOnes() throws Exception {
+        CountDownLatch released = new CountDownLatch(1);
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        EventSubscription subscription = subscribe(event -> {
+            await(released);
+            received.add(event.getSubject());
+        }, 16);
+
+        ContainerEvents.publish(ContainerEvent.Type.LOADED, "before");
+        subscription.close();
+        ContainerEvents.publish(ContainerEvent.Type.LOADED, "after");
+        released.countDown();
+
+        assertTrue(subscription.awaitDelivery(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("before"), received);
+        assertFalse(ContainerEvents.isObserved(ContainerEvent.Type.LOADED));
+    }
+
+    private EventSubscription subscribe(ContainerEventListener listener, int capacity) {
+        EventSubscription subscription = ContainerEvents.subscribe(listener, EnumSet.of(ContainerEvent.Type.LOADED),
+                capacity);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
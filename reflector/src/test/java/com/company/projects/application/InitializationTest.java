@@ -0,0 +1,247 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.IGetReady;
+import com.company.projects.annotations.INeedThis;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.company.projects.application.Descriptors.describe;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class InitializationTest {
+
+    private static final List<String> READY = Collections.synchronizedList(new ArrayList<>());
+    private static volatile ExecutorService warmUps;
+    private static volatile CountDownLatch bothWarmingUp;
+    private static volatile CompletableFuture<Void> slowWarmUp;
+
+    private final Reflector reflector = new Reflector();
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        READY.clear();
+        executor = Executors.newFixedThreadPool(4);
+        warmUps = Executors.newFixedThreadPool(2);
+        bothWarmingUp = new CountDownLatch(2);
+        slowWarmUp = new CompletableFuture<>();
+    }
+
+    @After
+    public void tearDown() {
+        slowWarmUp.complete(null);
+        executor.shutdownNow();
+        warmUps.shutdownNow();
+    }
+
+    @Test
+    public void initializesBeansAfterTheirDependenciesAreReady() {
+        reflector.wireBeans(describe(Service.class, Cache.class), new HashMap<>());
+
+        assertEquals(Arrays.asList("Cache", "Service"), READY);
+    }
+
+    @Test
+    public void initializesBeansAfterTheirDependenciesAreReadyInParallel() {
+        for (int round = 0; round < 20; round++) {
+            READY.clear();
+            reflector.wireBeansAsync(describe(Service.class, Cache.class), new ConcurrentHashMap<>(), executor).join();
+
+            assertEquals(Arrays.asList("Cache", "Service"), READY);
+        }
+    }
+
+    @Test
+    public void overlapsTheWarmUpsOfIndependentBeans() {
+        // Each warm-up waits for the other to have started, which only completes if they overlap
+        reflector.wireBeans(describe(LeftWarmUp.class, RightWarmUp.class), new HashMap<>());
+
+        assertEquals(2, READY.size());
+    }
+
+    @Test
+    public void completesOnceEveryBeanIsReady() throws Exception {
+        CompletableFuture<Void> ready = reflector.wireBeansAsync(describe(SlowWarmUp.class, UsesSlowWarmUp.class),
+                new ConcurrentHashMap<>(), executor);
+
+        Thread.sleep(50);
+        assertFalse(ready.isDone());
+        assertEquals(Collections.emptyList(), READY);
+
+        slowWarmUp.complete(null);
+        ready.get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("SlowWarmUp", "UsesSlowWarmUp"), READY);
+    }
+
+    @Test
+    public void failsWithTheFailedWarmUpAndSkipsItsDependents() {
+        CompletableFuture<Void> ready = reflector.wireBeansAsync(describe(FailingWarmUp.class, UsesFailingWarmUp.class),
+                new ConcurrentHashMap<>(), executor);
+        try {
+            ready.join();
+            fail("Wiring should fail");
+        } catch (CompletionException e) {
+            assertEquals("warm-up failed", e.getCause().getMessage());
+        }
+        assertEquals(Collections.emptyList(), READY);
+    }
+
+    @Test
+    public void initializesBeansInACycleOfFieldInjectionsOnceInjected() {
+        reflector.wireBeansAsync(describe(Ping.class, Pong.class), new ConcurrentHashMap<>(), executor).join();
+
+        assertEquals(2, READY.size());
+        assertTrue(READY.containsAll(Arrays.asList("Ping", "Pong")));
+    }
+
+    @IAmService
+    public static class Cache {
+        volatile boolean loaded;
+
+        @IGetReady
+        CompletableFuture<Void> load() {
+            return CompletableFuture.runAsync(() -> {
+                sleep(20);
+                loaded = true;
+                READY.add("Cache");
+            }, warmUps);
+        }
+    }
+
+    @IAmService
+    public static class Service {
+        final Cache cache;
+
+        @INeedThis
+        public Service(Cache cache) {
+            this.cache = cache;
+        }
+
+        @IGetReady
+        void start() {
+            assertTrue(cache.loaded);
+            READY.add("Service");
+        }
+    }
+
+    @IAmService
+    public static class LeftWarmUp {
+        @IGetReady
+        CompletableFuture<Void> warmUp() {
+            return overlapping("Left");
+        }
+    }
+
+    @IAmService
+    public static class RightWarmUp {
+        @IGetReady
+        CompletableFuture<Void> warmUp() {
+            return overlapping("Right");
+        }
+    }
+
+    @IAmService
+    public static class SlowWarmUp {
+        @IGetReady
+        CompletableFuture<Void> warmUp() {
+            return slowWarmUp.thenRun(() -> READY.add("SlowWarmUp"));
+        }
+    }
+
+    @IAmService
+    public static class UsesSlowWarmUp {
+        @INeedThis
+        SlowWarmUp slowWarmUp;
+
+        @IGetReady
+        void start() {
+            READY.add("UsesSlowWarmUp");
+        }
+    }
+
+    @IAmService
+    public static class FailingWarmUp {
+        @IGetReady
+        CompletableFuture<Void> warmUp() {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalStateException("warm-up failed"));
+            return failed;
+        }
+    }
+
+    @IAmService
+    public static class UsesFailingWarmUp {
+        @INeedThis
+        FailingWarmUp failingWarmUp;
+
+        @IGetReady
+        void start() {
+            READY.add("UsesFailingWarmUp");
+        }
+    }
+
+    @IAmService
+    public static class Ping {
+        @INeedThis
+        Pong pong;
+
+        @IGetReady
+        void start() {
+            assertTrue(pong != null);
+            READY.add("Ping");
+        }
+    }
+
+    @IAmService
+    public static class Pong {
+        @INeedThis
+        Ping ping;
+
+        @IGetReady
+        void start() {
+            assertTrue(ping != null);
+            READY.add("Pong");
+        }
+    }
+
+    private static CompletableFuture<Void> overlapping(String name) {
+        return CompletableFuture.runAsync(() -> {
+            bothWarmingUp.countDown();
+            try {
+                if (!bothWarmingUp.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException(name + " warmed up alone");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+            READY.add(name);
+        }, warmUps);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.company.projects.application;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class JarScannerTest {
+
+    private static final byte[] FIRST = bytes("first class file, long enough to be worth deflating, deflating, deflating");
+    private static final byte[] SECOND = bytes("second class file");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void listsTheClassesBelowThePrefixInCentralDirectoryOrder() throws IOException {
+        File jar = jar("app.jar", contents(), ZipEntry.DEFLATED);
+
+        JarScanner scanner = JarScanner.open(url(jar, "com/company"));
+
+        assertEquals(Arrays.asList("com.company.First", "com.company.sub.Second"), classNames(scanner.listClasses()));
+        assertEquals(Arrays.asList("com.company.First", "com.company.sub.Second", "org.other.Third"),
+                classNames(JarScanner.open(url(jar, "")).listClasses()));
+    }
+
+    @Test
+    public void readsDeflatedEntries() throws IOException {
+        assertReadsEveryEntry(JarScanner.open(url(jar("deflated.jar", contents(), ZipEntry.DEFLATED), "com/company")));
+    }
+
+    @Test
+    public void readsStoredEntries() throws IOException {
+        assertReadsEveryEntry(JarScanner.open(url(jar("stored.jar", contents(), ZipEntry.STORED), "com/company")));
+    }
+
+    @Test
+    public void readsTheCrcOfTheCentralDirectory() throws IOException {
+        JarScanner scanner = JarScanner.open(url(jar("app.jar", contents(), ZipEntry.DEFLATED), "com/company"));
+
+        JarScanner.Entry first = scanner.listClasses().get(0);
+
+        assertEquals(crc(FIRST), first.getCrc());
+        assertEquals(FIRST.length, first.getSize());
+    }
+
+    @Test
+    public void readsJarsStoredInAJar() throws IOException {
+        assertReadsEveryEntry(JarScanner.open(new URL(nested(ZipEntry.STORED) + "!/com/company")));
+    }
+
+    @Test
+    public void readsJarsDeflatedInAJar() throws IOException {
+        assertReadsEveryEntry(JarScanner.open(new URL(nested(ZipEntry.DEFLATED) + "!/com/company")));
+    }
+
+    @Test
+    public void readsTheWholeNestedJarWithoutAPrefix() throws IOException {
+        JarScanner scanner = JarScanner.open(new URL(nested(ZipEntry.DEFLATED)));
+
+        assertEquals(Arrays.asList("com.company.First", "com.company.sub.Second", "org.other.Third"),
+                classNames(scanner.listClasses()));
+    }
+
+    @Test
+    public void readsZip64CentralDirectoriesAndExtraFields() throws IOException {
+        File jar = folder.newFile("zip64.jar");
+        Files.write(jar.toPath(), zip64(contents()));
+
+        JarScanner scanner = JarScanner.open(url(jar, "com/company"));
+
+        List<JarScanner.Entry> entries = scanner.listClasses();
+        assertEquals(Arrays.asList("com.company.First", "com.company.sub.Second"), classNames(entries));
+        assertEquals(FIRST.length, entries.get(0).getSize());
+        assertReadsEveryEntry(scanner);
+        // The hand-made archive is one the JDK reads as well
+        try (ZipFile zip = new ZipFile(jar)) {
+            assertEquals(FIRST.length, zip.getEntry("com/company/First.class").getSize());
+        }
+    }
+
+    private static void assertReadsEveryEntry(JarScanner scanner) throws IOException {
+        List<JarScanner.Entry> entries = scanner.listClasses();
+        assertEquals(2, entries.size());
+        assertArrayEquals(FIRST, scanner.readEntry(entries.get(0)));
+        assertArrayEquals(SECOND, scanner.readEntry(entries.get(1)));
+    }
+
+    private static Map<String, byte[]> contents() {
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        contents.put("com/company/First.class", FIRST);
+        contents.put("com/company/readme.txt", bytes("not a class"));
+        contents.put("com/company/sub/Second.class", SECOND);
+        contents.put("org/other/Third.class", bytes("third class file"));
+        return contents;
+    }
+
+    /**
+     * @return The URL of a jar in {@code BOOT-INF/lib} of an outer jar, stored or deflated there
+     */
+    private String nested(int method) throws IOException {
+        Map<String, byte[]> outer = new LinkedHashMap<>();
+        outer.put("BOOT-INF/classes/Main.class", bytes("main"));
+        outer.put("BOOT-INF/lib/lib.jar", zip(contents(), ZipEntry.DEFLATED));
+        File jar = folder.newFile("outer-" + method + ".jar");
+        Files.write(jar.toPath(), zip(outer, method));
+        return "jar:" + jar.toURI() + "!/BOOT-INF/lib/lib.jar";
+    }
+
+    private File jar(String name, Map<String, byte[]> contents, int method) throws IOException {
+        File jar = folder.newFile(name);
+        try (OutputStream out = new FileOutputStream(jar)) {
+            out.write(zip(contents, method));
+        }
+        return jar;
+    }
+
+    private static byte[] zip(Map<String, byte[]> contents, int method) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, byte[]> content : contents.entrySet()) {
+                ZipEntry entry = new ZipEntry(content.getKey());
+                entry.setMethod(method);
+                if (method == ZipEntry.STORED) {
+                    entry.setSize(content.getValue().length);
+                    entry.setCrc(crc(content.getValue()));
+                }
+                zip.putNextEntry(entry);
+                zip.write(content.getValue());
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes stored entries the way archives over 4GB or 65535 entries are written: the sizes and offsets
+     * of the headers and the end of central directory are all 0xFFFF(FFFF), the values are in ZIP64 records.
+     */
+    private static byte[] zip64(Map<String, byte[]> contents) {
+        ByteBuffer zip = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+        List<Integer> offsets = new ArrayList<>();
+        for (Map.Entry<String, byte[]> content : contents.entrySet()) {
+            byte[] name = bytes(content.getKey());
+            byte[] data = content.getValue();
+            offsets.add(zip.position());
+            zip.putInt(0x04034b50).putShort((short) 45).putShort((short) 0).putShort((short) ZipEntry.STORED)
+                    .putInt(0).putInt((int) crc(data)).putInt(-1).putInt(-1)
+                    .putShort((short) name.length).putShort((short) 20).put(name)
+                    .putShort((short) 1).putShort((short) 16).putLong(data.length).putLong(data.length)
+                    .put(data);
+        }
+        int centralDirectory = zip.position();
+        int index = 0;
+        for (Map.Entry<String, byte[]> content : contents.entrySet()) {
+            byte[] name = bytes(content.getKey());
+            byte[] data = content.getValue();
+            zip.putInt(0x02014b50).putShort((short) 45).putShort((short) 45).putShort((short) 0)
+                    .putShort((short) ZipEntry.STORED).putInt(0).putInt((int) crc(data)).putInt(-1).putInt(-1)
+                    .putShort((short) name.length).putShort((short) 28).putShort((short) 0)
+                    .putShort((short) 0).putShort((short) 0).putInt(0).putInt(-1).put(name)
+                    .putShort((short) 1).putShort((short) 24).putLong(data.length).putLong(data.length)
+                    .putLong(offsets.get(index++));
+        }
+        int zip64End = zip.position();
+        zip.putInt(0x06064b50).putLong(44).putShort((short) 45).putShort((short) 45).putInt(0).putInt(0)
+                .putLong(contents.size()).putLong(contents.size()).putLong(zip64End - centralDirectory)
+                .putLong(centralDirectory);
+        zip.putInt(0x07064b50).putInt(0).putLong(zip64End).putInt(1);
+        zip.putInt(0x06054b50).putShort((short) 0).putShort((short) 0).putShort((short) -1).putShort((short) -1)
+                .putInt(-1).putInt(-1).putShort((short) 0);
+        byte[] bytes = new byte[zip.position()];
+        zip.flip();
+        zip.get(bytes);
+        return bytes;
+    }
+
+    private static URL url(File jar, String path) throws IOException {
+        return new URL("jar:" + jar.toURI() + "!/" + path);
+    }
+
+    private static List<String> classNames(List<JarScanner.Entry> entries) {
+        List<String> names = new ArrayList<>();
+        for (JarScanner.Entry entry : entries) {
+            names.add(entry.getClassName());
+        }
+        return names;
+    }
+
+    private static long crc(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return crc.getValue();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,120 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IAmLazy;
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.company.projects.application.Descriptors.describe;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LazyInjectionTest {
+
+    private static final AtomicInteger STORES = new AtomicInteger();
+
+    private final Reflector reflector = new Reflector();
+
+    @Before
+    public void setUp() {
+        STORES.set(0);
+    }
+
+    @Test
+    public void proxiesLazyPointsTypedWithAnInheritedInterface() {
+        Map<String, Object> beans = new HashMap<>();
+
+        reflector.wireBeans(describe(Reader.class, Store.class), beans);
+
+        Reader reader = (Reader) beans.get("Reader");
+        assertTrue(Proxy.isProxyClass(reader.source.getClass()));
+        assertEquals("stored", reader.source.read());
+        assertEquals(1, STORES.get());
+    }
+
+    @Test
+    public void proxiesLazyServicesForEveryInterfaceTheyImplement() {
+        Map<String, Object> beans = new HashMap<>();
+
+        reflector.wireBeans(describe(LazyStore.class, Writer.class), beans);
+
+        Writer writer = (Writer) beans.get("Writer");
+        assertTrue(Proxy.isProxyClass(writer.source.getClass()));
+        assertTrue(writer.source instanceof Sink);
+        assertEquals(0, STORES.get());
+        assertEquals("lazily stored", writer.source.read());
+    }
+
+    @Test
+    public void rejectsLazyServicesWithoutInterface() {
+        try {
+            reflector.planWiring(describe(Plain.class));
+            fail("Planning should fail");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Plain"));
+        }
+    }
+
+    public interface Source {
+        String read();
+    }
+
+    public interface Sink {
+    }
+
+    public interface Repository extends Source {
+    }
+
+    public abstract static class AbstractStore implements Repository {
+    }
+
+    @IAmService
+    public static class Store extends AbstractStore {
+        public Store() {
+            STORES.incrementAndGet();
+        }
+
+        @Override
+        public String read() {
+            return "stored";
+        }
+    }
+
+    @IAmService
+    public static class Reader {
+        @INeedThis
+        @IAmLazy
+        Source source;
+    }
+
+    @IAmLazy
+    @IAmService
+    public static class LazyStore extends AbstractStore implements Sink {
+        public LazyStore() {
+            STORES.incrementAndGet();
+        }
+
+        @Override
+        public String read() {
+            return "lazily stored";
+        }
+    }
+
+    @IAmService
+    public static class Writer {
+        @INeedThis
+        Source source;
+    }
+
+    @IAmLazy
+    @IAmService
+    public static class Plain {
+    }
+}
@@ -0,0 +1,118 @@
+package com.company.projects.application;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelProjectScannerTest {
+
+    private static final String PACKAGE = "scanned.app";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ProjectScanner projectScanner = new ProjectScanner();
+    private final ParallelProjectScanner parallelScanner = new ParallelProjectScanner(4);
+    private File sources;
+    private File first;
+    private File second;
+    private ClassLoader contextClassLoader;
+    private URLClassLoader loader;
+
+    @Before
+    public void setUp() throws Exception {
+        sources = folder.newFolder("sources");
+        first = folder.newFolder("first");
+        second = folder.newFolder("second");
+        contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        compile(first, "scanned.Top", "scanned.app.Service", "scanned.app.sub.Helper", "scanned.other.Other");
+        // Top is found through both roots
+        compile(second, "scanned.Top", "scanned.extra.Extra");
+        loader = new URLClassLoader(new URL[]{first.toURI().toURL(), second.toURI().toURL()}, null);
+        Thread.currentThread().setContextClassLoader(loader);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+        loader.close();
+        parallelScanner.close();
+    }
+
+    @Test
+    public void findsTheSameClassesAsTheProjectScanner() throws Exception {
+        List<Class<?>> classes = parallelScanner.getClasses(parallelScanner.getPackages(PACKAGE));
+
+        assertEquals(new HashSet<>(projectScanner.getClassNames(PACKAGE)), names(classes));
+        assertEquals(Arrays.asList("scanned.Top", "scanned.app.Service", "scanned.app.sub.Helper",
+                "scanned.extra.Extra", "scanned.other.Other"), sorted(names(classes)));
+        assertEquals(names(classes).size(), classes.size());
+        for (Class<?> loaded : classes) {
+            assertSame(loader, loaded.getClassLoader());
+        }
+    }
+
+    @Test
+    public void seesTheClassesAddedSinceTheLastScan() throws Exception {
+        parallelScanner.getClasses(parallelScanner.getPackages(PACKAGE));
+        compile(first, "scanned.app.late.Late");
+        compile(second, "scanned.fresh.Fresh");
+
+        List<Class<?>> classes = parallelScanner.getClasses(parallelScanner.getPackages(PACKAGE));
+
+        assertEquals(new HashSet<>(projectScanner.getClassNames(PACKAGE)), names(classes));
+        assertTrue(names(classes).contains("scanned.app.late.Late"));
+        assertTrue(names(classes).contains("scanned.fresh.Fresh"));
+        assertEquals(7, classes.size());
+    }
+
+    private void compile(File classes, String... names) throws IOException {
+        List<String> arguments = new ArrayList<>(Arrays.asList("-proc:none", "-d", classes.getPath()));
+        for (String name : names) {
+            int dot = name.lastIndexOf('.');
+            File source = new File(sources, name.replace('.', '/') + ".java");
+            Files.createDirectories(source.getParentFile().toPath());
+            Files.write(source.toPath(), Collections.singletonList("package " + name.substring(0, dot)
+                    + "; public class " + name.substring(dot + 1) + " { }"), StandardCharsets.UTF_8);
+            arguments.add(source.getPath());
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, arguments.toArray(new String[0])));
+    }
+
+    private static Set<String> names(List<Class<?>> classes) {
+        Set<String> names = new HashSet<>();
+        for (Class<?> loaded : classes) {
+            names.add(loaded.getName());
+        }
+        return names;
+    }
+
+    private static List<String> sorted(Set<String> names) {
+        List<String> sorted = new ArrayList<>(names);
+        sorted.sort(null);
+        return sorted;
+    }
+}
@@ -0,0 +1,220 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.INeedThis;
+import com.company.projects.annotations.IAmService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.company.projects.application.Descriptors.describe;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelWiringTest {
+
+    private static final AtomicInteger LEAVES = new AtomicInteger();
+    private static final AtomicInteger BROKEN_USERS = new AtomicInteger();
+
+    private final Reflector reflector = new Reflector();
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        LEAVES.set(0);
+        BROKEN_USERS.set(0);
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void createsSharedDependencyOnceAndBeforeItsDependents() {
+        for (int round = 0; round < 50; round++) {
+            LEAVES.set(0);
+            ConcurrentMap<String, Object> beans = new ConcurrentHashMap<>();
+
+            reflector.wireBeansInParallel(describe(Top.class, Left.class, Right.class, Leaf.class), beans, executor);
+
+            assertEquals(1, LEAVES.get());
+            Top top = (Top) beans.get("Top");
+            assertSame(beans.get("Leaf"), top.left.leaf);
+            assertSame(beans.get("Leaf"), top.leafSeenInRight);
+            assertEquals(4, beans.size());
+        }
+    }
+
+    @Test
+    public void reportsTheFailedBeanAndCreatesNothingDependingOnIt() {
+        ConcurrentMap<String, Object> beans = new ConcurrentHashMap<>();
+        try {
+            reflector.wireBeansInParallel(describe(UsesBroken.class, Broken.class, Leaf.class), beans, executor);
+            fail("Wiring should fail");
+        } catch (IllegalStateException e) {
+            assertEquals("broken", e.getMessage());
+        }
+        assertEquals(0, BROKEN_USERS.get());
+        assertFalse(beans.containsKey("UsesBroken"));
+    }
+
+    @Test
+    public void failsEveryRunWithTheSameRootCause() {
+        for (int round = 0; round < 50; round++) {
+            try {
+                reflector.wireBeansInParallel(describe(UsesBroken.class, Broken.class, SlowBroken.class),
+                        new ConcurrentHashMap<>(), executor);
+                fail("Wiring should fail");
+            } catch (IllegalStateException e) {
+                // Broken comes first in plan order, although SlowBroken may fail first or last
+                assertTrue(e.getMessage(), e.getMessage().startsWith("broken"));
+            }
+        }
+    }
+
+    @Test
+    public void wiresFieldCyclesAfterCreatingBothBeans() {
+        ConcurrentMap<String, Object> beans = new ConcurrentHashMap<>();
+
+        reflector.wireBeansInParallel(describe(Ping.class, Pong.class), beans, executor);
+
+        Ping ping = (Ping) beans.get("Ping");
+        Pong pong = (Pong) beans.get("Pong");
+        assertSame(pong, ping.pong);
+        assertSame(ping, pong.ping);
+    }
+
+    @Test
+    public void rejectsConstructorCyclesWhenPlanning() {
+        try {
+            reflector.planWiring(describe(Chicken.class, Egg.class));
+            fail("Planning should fail");
+        } catch (DependencyCycleException e) {
+            List<Class<?>> cycle = e.getCycle();
+            assertTrue(cycle.size() >= 3);
+            assertEquals(cycle.get(0), cycle.get(cycle.size() - 1));
+            assertTrue(cycle.containsAll(Arrays.asList(Chicken.class, Egg.class)));
+        }
+    }
+
+    @Test
+    public void reusesInstancesAlreadyInTheMap() {
+        Leaf leaf = new Leaf();
+        ConcurrentMap<String, Object> beans = new ConcurrentHashMap<>();
+        beans.put("Leaf", leaf);
+        LEAVES.set(0);
+
+        reflector.wireBeansInParallel(describe(Left.class, Leaf.class), beans, executor);
+
+        assertEquals(0, LEAVES.get());
+        assertNotNull(beans.get("Left"));
+        assertSame(leaf, ((Left) beans.get("Left")).leaf);
+    }
+
+    @IAmService
+    public static class Leaf {
+        public Leaf() {
+            LEAVES.incrementAndGet();
+            pause();
+        }
+    }
+
+    @IAmService
+    public static class Left {
+        final Leaf leaf;
+
+        @INeedThis
+        public Left(Leaf leaf) {
+            this.leaf = leaf;
+            pause();
+        }
+    }
+
+    @IAmService
+    public static class Right {
+        @INeedThis
+        Leaf leaf;
+    }
+
+    @IAmService
+    public static class Top {
+        final Left left;
+        final Leaf leafSeenInRight;
+
+        @INeedThis
+        public Top(Left left, Right right) {
+            this.left = left;
+            this.leafSeenInRight = right.leaf;
+        }
+    }
+
+    @IAmService
+    public static class Broken {
+        public Broken() {
+            throw new IllegalStateException("broken");
+        }
+    }
+
+    @IAmService
+    public static class SlowBroken {
+        public SlowBroken() {
+            pause();
+            throw new IllegalStateException("slow broken");
+        }
+    }
+
+    @IAmService
+    public static class UsesBroken {
+        @INeedThis
+        public UsesBroken(Broken broken) {
+            BROKEN_USERS.incrementAndGet();
+        }
+    }
+
+    @IAmService
+    public static class Ping {
+        @INeedThis
+        Pong pong;
+    }
+
+    @IAmService
+    public static class Pong {
+        @INeedThis
+        Ping ping;
+    }
+
+    @IAmService
+    public static class Chicken {
+        @INeedThis
+        public Chicken(Egg egg) {
+        }
+    }
+
+    @IAmService
+    public static class Egg {
+        @INeedThis
+        public Egg(Chicken chicken) {
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IAmPooled;
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+import com.company.projects.annotations.Scope;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.company.projects.application.Descriptors.describe;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ScopeTest {
+
+    private static final AtomicInteger CONNECTIONS = new AtomicInteger();
+
+    private final Reflector reflector = new Reflector();
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        CONNECTIONS.set(0);
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void createsPrototypesForEveryRequestAndInjectionPoint() {
+        BeanRegistry registry = reflector.createRegistry(describe(Request.class, FirstHandler.class, SecondHandler.class));
+
+        assertNotSame(registry.getBean(Request.class), registry.getBean(Request.class));
+        assertNotSame(registry.getBean(FirstHandler.class).request, registry.getBean(SecondHandler.class).request);
+        assertSame(registry.getBean(FirstHandler.class), registry.getBean(FirstHandler.class));
+    }
+
+    @Test
+    public void givesEveryThreadItsOwnInstanceThroughAnInheritedInterface() throws Exception {
+        BeanRegistry registry = reflector.createRegistry(describe(Session.class, UsesSession.class));
+        UsesSession singleton = registry.getBean(UsesSession.class);
+
+        Object mine = singleton.session.self();
+        assertSame(mine, singleton.session.self());
+        assertSame(mine, registry.getBean(Session.class));
+
+        CountDownLatch bothInside = new CountDownLatch(2);
+        List<Future<Object>> others = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            others.add(executor.submit(() -> {
+                Object self = singleton.session.self();
+                bothInside.countDown();
+                bothInside.await(5, TimeUnit.SECONDS);
+                assertSame(self, singleton.session.self());
+                return self;
+            }));
+        }
+        Object first = others.get(0).get(5, TimeUnit.SECONDS);
+        Object second = others.get(1).get(5, TimeUnit.SECONDS);
+        assertNotSame(first, second);
+        assertNotSame(mine, first);
+        assertNotSame(mine, second);
+    }
+
+    @Test
+    public void startsANewThreadScopeAfterItEnds() {
+        BeanRegistry registry = reflector.createRegistry(describe(Session.class, UsesSession.class));
+        UsesSession singleton = registry.getBean(UsesSession.class);
+        Object before = singleton.session.self();
+
+        registry.endThreadScope();
+
+        assertNotSame(before, singleton.session.self());
+    }
+
+    @Test
+    public void rejectsCyclesThroughPrototypes() {
+        try {
+            reflector.planWiring(describe(Question.class, Answer.class));
+            fail("Planning should fail");
+        } catch (DependencyCycleException e) {
+            assertTrue(e.getCycle().contains(Question.class));
+        }
+    }
+
+    @Test
+    public void reusesReleasedPooledInstancesUpToMaxIdle() {
+        BeanRegistry registry = reflector.createRegistry(describe(Connection.class));
+
+        Connection first = registry.borrow(Connection.class);
+        Connection second = registry.borrow(Connection.class);
+        Connection third = registry.borrow(Connection.class);
+        assertTrue(registry.release(first));
+        assertTrue(registry.release(second));
+        assertFalse(registry.release(third));
+
+        Set<Connection> reused = Collections.newSetFromMap(new IdentityHashMap<>());
+        reused.add(registry.borrow(Connection.class));
+        reused.add(registry.borrow(Connection.class));
+        assertTrue(reused.contains(first));
+        assertTrue(reused.contains(second));
+        assertEquals(3, CONNECTIONS.get());
+    }
+
+    @Test
+    public void neverLendsAPooledInstanceTwiceAtOnce() throws Exception {
+        BeanRegistry registry = reflector.createRegistry(describe(Connection.class));
+        AtomicBoolean shared = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> borrowers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            borrowers.add(executor.submit(() -> {
+                start.await();
+                for (int n = 0; n < 2000; n++) {
+                    Connection connection = registry.borrow(Connection.class);
+                    if (!connection.inUse.compareAndSet(false, true)) {
+                        shared.set(true);
+                    }
+                    connection.inUse.set(false);
+                    registry.release(connection);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> borrower : borrowers) {
+            borrower.get(10, TimeUnit.SECONDS);
+        }
+
+        assertFalse(shared.get());
+    }
+
+    @Test
+    public void rejectsPooledBeansThatAreNotPrototypes() {
+        try {
+            reflector.createRegistry(describe(PooledSingleton.class));
+            fail("Creating the registry should fail");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("PooledSingleton"));
+        }
+    }
+
+    public interface Identified {
+        Object self();
+    }
+
+    public interface Conversation extends Identified {
+    }
+
+    @IAmService(scope = Scope.THREAD)
+    public static class Session implements Conversation {
+        @Override
+        public Object self() {
+            return this;
+        }
+    }
+
+    @IAmService
+    public static class UsesSession {
+        @INeedThis
+        Identified session;
+    }
+
+    @IAmService(scope = Scope.PROTOTYPE)
+    public static class Request {
+    }
+
+    @IAmService
+    public static class FirstHandler {
+        @INeedThis
+        Request request;
+    }
+
+    @IAmService
+    public static class SecondHandler {
+        @INeedThis
+        Request request;
+    }
+
+    @IAmService(scope = Scope.PROTOTYPE)
+    public static class Question {
+        @INeedThis
+        Answer answer;
+    }
+
+    @IAmService(scope = Scope.PROTOTYPE)
+    public static class Answer {
+        @INeedThis
+        Question question;
+    }
+
+    @IAmPooled(maxIdle = 2)
+    @IAmService(scope = Scope.PROTOTYPE)
+    public static class Connection {
+        final AtomicBoolean inUse = new AtomicBoolean();
+
+        public Connection() {
+            CONNECTIONS.incrementAndGet();
+        }
+    }
+
+    @IAmPooled
+    @IAmService
+    public static class PooledSingleton {
+    }
+}
@@ -0,0 +1,145 @@
+package com.company.projects.application;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ServicePipelineTest {
+
+    private static final String PACKAGE = ServicePipelineTest.class.getName();
+
+    @Rule
+    public Timeout timeout = Timeout.seconds(60);
+
+    private final ProjectScanner projectScanner = new ProjectScanner();
+    private final ClassLoader classLoader = ServicePipelineTest.class.getClassLoader();
+
+    @Test
+    public void deliversServicesInScanOrderWithOneLoader() throws Exception {
+        List<String> expected = new ArrayList<>();
+        for (String className : projectScanner.getClassNames(PACKAGE)) {
+            if (Reflector.isService(Class.forName(className, false, classLoader)) && !expected.contains(className)) {
+                expected.add(className);
+            }
+        }
+
+        try (Stream<BeanDescriptor> services = pipeline(BeanDescriptor::new, 1, 4).stream(PACKAGE)) {
+            assertEquals(expected, names(services));
+        }
+        assertTrue(expected.size() > 10);
+    }
+
+    @Test
+    public void deliversEveryServiceOnceWithSeveralLoaders() throws Exception {
+        List<String> sequential;
+        try (Stream<BeanDescriptor> services = pipeline(BeanDescriptor::new, 1, 4).stream(PACKAGE)) {
+            sequential = names(services);
+        }
+
+        try (Stream<BeanDescriptor> services = pipeline(BeanDescriptor::new, 3, 2).stream(PACKAGE)) {
+            List<String> concurrent = names(services);
+            assertEquals(sequential.size(), concurrent.size());
+            assertEquals(new HashSet<>(sequential), new HashSet<>(concurrent));
+        }
+    }
+
+    @Test
+    public void handsOverClassesFoundInSeveralRootsOnce() throws Exception {
+        URL testClasses = ServicePipelineTest.class.getProtectionDomain().getCodeSource().getLocation();
+        // The parent finds the test classes as well, so every test class is in two roots
+        try (URLClassLoader twice = new URLClassLoader(new URL[]{testClasses}, classLoader);
+             Stream<BeanDescriptor> services = new ServicePipeline(projectScanner, BeanDescriptor::new, twice, 2, 4)
+                     .stream(PACKAGE)) {
+            List<String> names = names(services);
+            assertEquals(new HashSet<>(names).size(), names.size());
+            assertTrue(names.contains(ShutdownTest.Database.class.getName()));
+        }
+    }
+
+    @Test
+    public void rethrowsTheFailureOfALoader() throws Exception {
+        Function<Class<?>, BeanDescriptor> failing = service -> {
+            if (service == ShutdownTest.Database.class) {
+                throw new IllegalStateException("cannot describe " + service.getSimpleName());
+            }
+            return new BeanDescriptor(service);
+        };
+        try (Stream<BeanDescriptor> services = pipeline(failing, 2, 2).stream(PACKAGE)) {
+            services.forEach(descriptor -> { });
+            fail("The failure of the loader should reach the consumer");
+        } catch (IllegalStateException e) {
+            assertEquals("cannot describe Database", e.getMessage());
+        }
+        awaitPipelineThreadsGone();
+    }
+
+    @Test
+    public void releasesItsThreadsWhenClosedEarly() throws Exception {
+        try (Stream<BeanDescriptor> services = pipeline(BeanDescriptor::new, 2, 1).stream(PACKAGE)) {
+            Iterator<BeanDescriptor> iterator = services.iterator();
+            assertTrue(iterator.hasNext());
+            iterator.next();
+            assertTrue(pipelineThreads() > 0);
+        }
+        awaitPipelineThreadsGone();
+    }
+
+    @Test
+    public void holdsNoMoreServicesThanTheQueuesTake() throws Exception {
+        AtomicInteger described = new AtomicInteger();
+        Function<Class<?>, BeanDescriptor> counting = service -> {
+            described.incrementAndGet();
+            return new BeanDescriptor(service);
+        };
+        try (Stream<BeanDescriptor> services = pipeline(counting, 1, 1).stream(PACKAGE)) {
+            Thread.sleep(300);
+            // One descriptor in the queue and one held by the loader blocked putting it
+            assertTrue(described.get() + " services described", described.get() <= 2);
+
+            assertTrue(services.count() > 10);
+        }
+    }
+
+    private ServicePipeline pipeline(Function<Class<?>, BeanDescriptor> describer, int loaders, int capacity) {
+        return new ServicePipeline(projectScanner, describer, classLoader, loaders, capacity);
+    }
+
+    private static List<String> names(Stream<BeanDescriptor> services) {
+        return services.map(descriptor -> descriptor.getBean().getName()).collect(Collectors.toList());
+    }
+
+    private static int pipelineThreads() {
+        int threads = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("reflector-pipeline-")) {
+                threads++;
+            }
+        }
+        return threads;
+    }
+
+    private static void awaitPipelineThreadsGone() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pipelineThreads() > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                fail(pipelineThreads() + " pipeline threads still running");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
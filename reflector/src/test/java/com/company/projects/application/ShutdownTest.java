@@ -0,0 +1,243 @@
+package com.company.projects.application;
+
+import com.company.projects.annotations.IAmLazy;
+import com.company.projects.annotations.IAmLeaving;
+import com.company.projects.annotations.IAmService;
+import com.company.projects.annotations.INeedThis;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.company.projects.application.Descriptors.describe;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ShutdownTest {
+
+    private static final List<String> DESTROYED = Collections.synchronizedList(new ArrayList<>());
+    private static volatile CountDownLatch bothLeaving;
+    private static volatile CountDownLatch stuckReleased;
+
+    private final Reflector reflector = new Reflector();
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        DESTROYED.clear();
+        bothLeaving = new CountDownLatch(2);
+        stuckReleased = new CountDownLatch(1);
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        stuckReleased.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void destroysDependentsBeforeTheirDependencies() {
+        List<BeanDescriptor> descriptors = describe(Database.class, Repository.class, Controller.class);
+        Map<String, Object> beans = new HashMap<>();
+        reflector.wireBeans(descriptors, beans);
+
+        ShutdownReport report = reflector.shutdownBeans(descriptors, beans, executor, 5, TimeUnit.SECONDS);
+
+        assertTrue(report.toString(), report.isSuccessful());
+        assertEquals(Arrays.asList("Controller", "Repository", "Database"), DESTROYED);
+    }
+
+    @Test
+    public void waitsForBeansHoldingALazyProxyToTheBean() {
+        List<BeanDescriptor> descriptors = describe(Journal.class, LazyClient.class);
+        Map<String, Object> beans = new HashMap<>();
+        reflector.wireBeans(descriptors, beans);
+        ((LazyClient) beans.get("LazyClient")).journal.write();
+
+        ShutdownReport report = reflector.shutdownBeans(descriptors, beans, executor, 5, TimeUnit.SECONDS);
+
+        assertTrue(report.toString(), report.isSuccessful());
+        assertEquals(Arrays.asList("LazyClient", "Journal"), DESTROYED);
+    }
+
+    @Test
+    public void destroysBeansInACycleOfFieldInjections() {
+        List<BeanDescriptor> descriptors = describe(Ping.class, Pong.class);
+        Map<String, Object> beans = new HashMap<>();
+        reflector.wireBeans(descriptors, beans);
+
+        ShutdownReport report = reflector.shutdownBeans(descriptors, beans, executor, 5, TimeUnit.SECONDS);
+
+        assertTrue(report.toString(), report.isSuccessful());
+        assertEquals(new HashSet<>(Arrays.asList("Ping", "Pong")), new HashSet<>(DESTROYED));
+    }
+
+    @Test
+    public void destroysIndependentBeansConcurrently() {
+        List<BeanDescriptor> descriptors = describe(Left.class, Right.class);
+        Map<String, Object> beans = new HashMap<>();
+        reflector.wireBeans(descriptors, beans);
+
+        // Each waits for the other to be leaving, which fails unless both are destroyed at once
+        ShutdownReport report = reflector.shutdownBeans(descriptors, beans, executor, 5, TimeUnit.SECONDS);
+
+        assertTrue(report.toString(), report.isSuccessful());
+        assertEquals(new HashSet<>(Arrays.asList("Left", "Right")), new HashSet<>(DESTROYED));
+    }
+
+    @Test
+    public void releasesTheDependenciesOfFailedAndStuckBeans() {
+        List<BeanDescriptor> descriptors = describe(Database.class, Failing.class, Stuck.class);
+        Map<String, Object> beans = new HashMap<>();
+        reflector.wireBeans(descriptors, beans);
+
+        ShutdownReport report = reflector.shutdownBeans(descriptors, beans, executor, 200, TimeUnit.MILLISECONDS);
+
+        assertEquals(Collections.singletonList("Stuck"), report.getTimedOutBeans());
+        assertEquals(Collections.singleton("Failing"), report.getFailures().keySet());
+        assertEquals("failing", report.getFailures().get("Failing").getMessage());
+        assertEquals(Collections.singletonList("Database"), report.getDestroyedBeans());
+    }
+
+    public interface Log {
+        void write();
+    }
+
+    @IAmService
+    public static class Database implements AutoCloseable {
+        @Override
+        public void close() {
+            DESTROYED.add("Database");
+        }
+    }
+
+    @IAmService
+    public static class Repository {
+        final Database database;
+
+        @INeedThis
+        public Repository(Database database) {
+            this.database = database;
+        }
+
+        @IAmLeaving
+        void leave() throws InterruptedException {
+            Thread.sleep(20);
+            DESTROYED.add("Repository");
+        }
+    }
+
+    @IAmService
+    public static class Controller {
+        @INeedThis
+        Repository repository;
+
+        @IAmLeaving
+        void leave() throws InterruptedException {
+            Thread.sleep(20);
+            DESTROYED.add("Controller");
+        }
+    }
+
+    @IAmLazy
+    @IAmService
+    public static class Journal implements Log {
+        @Override
+        public void write() {
+        }
+
+        @IAmLeaving
+        void leave() {
+            DESTROYED.add("Journal");
+        }
+    }
+
+    @IAmService
+    public static class LazyClient {
+        @INeedThis
+        Log journal;
+
+        @IAmLeaving
+        void leave() throws InterruptedException {
+            Thread.sleep(50);
+            journal.write();
+            DESTROYED.add("LazyClient");
+        }
+    }
+
+    @IAmService
+    public static class Ping {
+        @INeedThis
+        Pong pong;
+
+        @IAmLeaving
+        void leave() {
+            DESTROYED.add("Ping");
+        }
+    }
+
+    @IAmService
+    public static class Pong {
+        @INeedThis
+        Ping ping;
+
+        @IAmLeaving
+        void leave() {
+            DESTROYED.add("Pong");
+        }
+    }
+
+    @IAmService
+    public static class Left {
+        @IAmLeaving
+        void leave() throws InterruptedException {
+            bothLeaving.countDown();
+            assertTrue(bothLeaving.await(5, TimeUnit.SECONDS));
+            DESTROYED.add("Left");
+        }
+    }
+
+    @IAmService
+    public static class Right {
+        @IAmLeaving
+        void leave() throws InterruptedException {
+            bothLeaving.countDown();
+            assertTrue(bothLeaving.await(5, TimeUnit.SECONDS));
+            DESTROYED.add("Right");
+        }
+    }
+
+    @IAmService
+    public static class Failing {
+        @INeedThis
+        Database database;
+
+        @IAmLeaving
+        void leave() {
+            throw new IllegalStateException("failing");
+        }
+    }
+
+    @IAmService
+    public static class Stuck {
+        @INeedThis
+        Database database;
+
+        @IAmLeaving
+        void leave() throws InterruptedException {
+            stuckReleased.await();
+        }
+    }
+}